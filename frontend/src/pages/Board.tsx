@@ -77,8 +77,8 @@ export function Board() {
 
   const loadProjectsByBoard = async (boardId: number) => {
     try {
-      const data = await api.getProjectsByBoard(boardId);
-      setProjects(data);
+      const snapshot = await api.getBoardSnapshot(boardId);
+      setProjects(snapshot.projects);
     } catch (error) {
       console.error('Failed to load projects:', error);
     }
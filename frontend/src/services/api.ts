@@ -1,13 +1,20 @@
-import { Project, Board, BoardColumn } from '../types';
+import { Project, Board, BoardColumn, BoardSnapshot } from '../types';
 
 const API_BASE = '/api';
 
 export const api = {
   // Boards
   getBoards: async (): Promise<Board[]> => {
-    const res = await fetch(`${API_BASE}/boards`);
-    if (!res.ok) throw new Error('Failed to fetch boards');
-    return res.json();
+    // The list is keyset-paginated; follow X-Next-Cursor until the last page
+    const boards: Board[] = [];
+    let cursor: string | null = '0';
+    while (cursor !== null) {
+      const res = await fetch(`${API_BASE}/boards?afterId=${cursor}`);
+      if (!res.ok) throw new Error('Failed to fetch boards');
+      boards.push(...(await res.json()));
+      cursor = res.headers.get('X-Next-Cursor');
+    }
+    return boards;
   },
 
   getBoard: async (id: number): Promise<Board> => {
@@ -16,6 +23,13 @@ export const api = {
     return res.json();
   },
 
+  // Whole board tree (columns, projects, tasks, subtasks) in one request
+  getBoardSnapshot: async (id: number): Promise<BoardSnapshot> => {
+    const res = await fetch(`${API_BASE}/boards/${id}/snapshot`);
+    if (!res.ok) throw new Error('Failed to fetch board snapshot');
+    return res.json();
+  },
+
   createBoard: async (board: Partial<Board>): Promise<Board> => {
     const res = await fetch(`${API_BASE}/boards`, {
       method: 'POST',
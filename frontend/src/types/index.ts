@@ -56,6 +56,13 @@ export interface Subtask {
   completionPercentage: number;
 }
 
+export interface BoardSnapshot {
+  board: Board;
+  projects: Project[];
+  tasks: Omit<Task, 'subtasks'>[];
+  subtasks: Subtask[];
+}
+
 export interface PomodoroSettings {
   workDuration: number; // minutes
   shortBreak: number;
@@ -0,0 +1,134 @@
+package com.agnel.devcollab.config;
+
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+
+/**
+ * Authorizes board- and project-scoped STOMP traffic (see BoardTopics).
+ * A SUBSCRIBE is checked against the database once and the granted board is remembered
+ * on the WebSocket session, so the high-rate SENDs that follow (cursor moves) are
+ * checked against that set without a query. Unscoped /topic destinations are refused,
+ * as are raw /queue destinations, which are only reachable through /user/queue/....
+ * Clients never SEND to broker destinations directly; only the server publishes there.
+ */
+@Component
+public class BoardSubscriptionInterceptor implements ChannelInterceptor {
+
+    private static final String BOARDS_ATTRIBUTE = "devcollab.authorizedBoards";
+    private static final String PROJECTS_ATTRIBUTE = "devcollab.authorizedProjects";
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getDestination() == null) {
+            return message;
+        }
+        if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            authorizeSubscribe(accessor, accessor.getDestination());
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            authorizeSend(accessor, accessor.getDestination());
+        }
+        return message;
+    }
+
+    private void authorizeSubscribe(StompHeaderAccessor accessor, String destination) {
+        Matcher board = BoardTopics.BOARD_DESTINATION.matcher(destination);
+        Matcher project = BoardTopics.PROJECT_DESTINATION.matcher(destination);
+        if (board.matches() && board.group(1).equals("topic")) {
+            long boardId = Long.parseLong(board.group(2));
+            if (!grantBoard(accessor, boardId)) {
+                throw new AccessDeniedException("Not allowed to subscribe to board " + boardId);
+            }
+        } else if (project.matches() && project.group(1).equals("topic")) {
+            long projectId = Long.parseLong(project.group(2));
+            if (!grantProject(accessor, projectId)) {
+                throw new AccessDeniedException("Not allowed to subscribe to project " + projectId);
+            }
+        } else if (destination.startsWith("/topic/")) {
+            // Global topics would fan out to every connected client
+            throw new AccessDeniedException("Unknown topic " + destination);
+        } else if (destination.startsWith("/queue/")) {
+            // Queues are per user and only reachable through /user/queue/...
+            throw new AccessDeniedException("Subscribe to /user" + destination + " instead");
+        }
+    }
+
+    private void authorizeSend(StompHeaderAccessor accessor, String destination) {
+        if (destination.startsWith("/topic/") || destination.startsWith("/queue/") || destination.startsWith("/user/")) {
+            // The broker would deliver it as is, forging board events or another user's notifications
+            throw new AccessDeniedException("Send to /app/... instead of " + destination);
+        }
+        Matcher board = BoardTopics.BOARD_DESTINATION.matcher(destination);
+        Matcher project = BoardTopics.PROJECT_DESTINATION.matcher(destination);
+        if (board.matches() && board.group(1).equals("app")) {
+            long boardId = Long.parseLong(board.group(2));
+            if (!granted(accessor, BOARDS_ATTRIBUTE).contains(boardId)) {
+                throw new AccessDeniedException("Subscribe to board " + boardId + " before sending to it");
+            }
+        } else if (project.matches() && project.group(1).equals("app")) {
+            long projectId = Long.parseLong(project.group(2));
+            if (!grantProject(accessor, projectId)) {
+                throw new AccessDeniedException("Not allowed to send to project " + projectId);
+            }
+        }
+    }
+
+    private boolean grantBoard(StompHeaderAccessor accessor, long boardId) {
+        Set<Long> boards = granted(accessor, BOARDS_ATTRIBUTE);
+        if (boards.contains(boardId)) {
+            return true;
+        }
+        Principal user = accessor.getUser();
+        if (user == null || !boardRepository.isAccessibleTo(boardId, user.getName())) {
+            return false;
+        }
+        boards.add(boardId);
+        return true;
+    }
+
+    // A project is reachable by whoever may see its board
+    private boolean grantProject(StompHeaderAccessor accessor, long projectId) {
+        Set<Long> projects = granted(accessor, PROJECTS_ATTRIBUTE);
+        if (projects.contains(projectId)) {
+            return true;
+        }
+        Long boardId = projectRepository.findBoardIdById(projectId).orElse(null);
+        if (boardId == null || !grantBoard(accessor, boardId)) {
+            return false;
+        }
+        projects.add(projectId);
+        return true;
+    }
+
+    // Frames of one session may be handled on different inbound threads
+    @SuppressWarnings("unchecked")
+    private static Set<Long> granted(StompHeaderAccessor accessor, String attribute) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes == null) {
+            return ConcurrentHashMap.newKeySet();
+        }
+        return (Set<Long>) attributes.computeIfAbsent(attribute, key -> ConcurrentHashMap.newKeySet());
+    }
+}
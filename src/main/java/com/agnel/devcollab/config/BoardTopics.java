@@ -0,0 +1,45 @@
+package com.agnel.devcollab.config;
+
+import java.util.regex.Pattern;
+
+/**
+ * STOMP destinations scoped to one board or project, so an event only reaches the
+ * clients that have that board open. BoardSubscriptionInterceptor authorizes them.
+ *
+ *   /topic/boards/{boardId}/updates|cursors|presence|timers
+ *   /topic/projects/{projectId}/chat|pomodoro
+ *
+ * Clients send to the matching /app/boards/{boardId}/... and /app/projects/{projectId}/...
+ */
+public final class BoardTopics {
+
+    // Group 1 is the prefix (topic or app), group 2 the board or project id
+    static final Pattern BOARD_DESTINATION = Pattern.compile("^/(topic|app)/boards/(\\d+)/[\\w-]+$");
+    static final Pattern PROJECT_DESTINATION = Pattern.compile("^/(topic|app)/projects/(\\d+)/[\\w-]+(/[\\w-]+)?$");
+
+    private BoardTopics() {}
+
+    public static String updates(long boardId) {
+        return "/topic/boards/" + boardId + "/updates";
+    }
+
+    public static String cursors(long boardId) {
+        return "/topic/boards/" + boardId + "/cursors";
+    }
+
+    public static String presence(long boardId) {
+        return "/topic/boards/" + boardId + "/presence";
+    }
+
+    public static String timers(long boardId) {
+        return "/topic/boards/" + boardId + "/timers";
+    }
+
+    public static String chat(long projectId) {
+        return "/topic/projects/" + projectId + "/chat";
+    }
+
+    public static String pomodoro(long projectId) {
+        return "/topic/projects/" + projectId + "/pomodoro";
+    }
+}
@@ -0,0 +1,124 @@
+package com.agnel.devcollab.config;
+
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.CursorBatch;
+import com.agnel.devcollab.dto.UserPresence;
+import com.agnel.devcollab.ws.CompactFrameCodec;
+import com.agnel.devcollab.ws.TimerSyncMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-encodes board cursor, presence, update and timer frames with CompactFrameCodec for
+ * sessions that asked for it. A client opts in with a "frame-format: compact-v1"
+ * header on CONNECT, over the native /ws-native endpoint only: SockJS frames are
+ * text. Everything else, and every other session, keeps the JSON body.
+ */
+@Component
+public class CompactFrameInterceptor implements ChannelInterceptor {
+
+    public static final String FORMAT_HEADER = "frame-format";
+    public static final String COMPACT_FORMAT = "compact-v1";
+    // Set by the /ws-native handshake
+    public static final String NATIVE_TRANSPORT_ATTRIBUTE = "devcollab.nativeWebSocket";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<String, CompactFrameCodec.Dictionary> dictionaries = new ConcurrentHashMap<>();
+
+    // The simple broker hands every subscriber the same payload array; parse each broadcast once
+    private final Map<byte[], Object> parsed = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        boolean nativeTransport = attributes != null && Boolean.TRUE.equals(attributes.get(NATIVE_TRANSPORT_ATTRIBUTE));
+        if (nativeTransport && COMPACT_FORMAT.equals(accessor.getFirstNativeHeader(FORMAT_HEADER))) {
+            dictionaries.put(accessor.getSessionId(), new CompactFrameCodec.Dictionary());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        dictionaries.remove(event.getSessionId());
+    }
+
+    public boolean isCompact(String sessionId) {
+        return sessionId != null && dictionaries.containsKey(sessionId);
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        CompactFrameCodec.Dictionary dictionary = dictionaries.get(
+            String.valueOf(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())));
+        if (dictionary == null
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+        Class<?> type = payloadType(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+        if (type == null) {
+            return message;
+        }
+        Object payload = parsed.computeIfAbsent(json, bytes -> parse(bytes, type));
+        if (!type.isInstance(payload)) {
+            return message;
+        }
+        byte[] frame;
+        // Frames of one session reach it in publish order (see WebSocketConfig), so definitions precede references
+        synchronized (dictionary) {
+            frame = CompactFrameCodec.encode(payload, dictionary);
+        }
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+        accessor.setContentType(CompactFrameCodec.MIME_TYPE);
+        return MessageBuilder.createMessage(frame, accessor.getMessageHeaders());
+    }
+
+    private static Class<?> payloadType(String destination) {
+        if (destination == null || !destination.startsWith("/topic/boards/")) {
+            return null;
+        }
+        if (destination.endsWith("/cursors")) {
+            return CursorBatch.class;
+        }
+        if (destination.endsWith("/presence")) {
+            return UserPresence.class;
+        }
+        if (destination.endsWith("/updates")) {
+            return BoardEvent.class;
+        }
+        if (destination.endsWith("/timers")) {
+            return TimerSyncMessage.class;
+        }
+        return null;
+    }
+
+    // A body that is not the expected shape is sent on as JSON
+    private Object parse(byte[] json, Class<?> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            return json;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.agnel.devcollab.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds work that may hold a database connection once requests run on virtual threads.
+ *
+ * Platform thread pools used to cap concurrency; virtual threads do not, so thousands
+ * of requests would otherwise queue inside Hikari and time out there. Each HTTP request
+ * (open-in-view keeps its connection until the response is written) and each STOMP
+ * SEND or SUBSCRIBE takes a permit first; a caller that waits longer than
+ * devcollab.threads.permit-timeout-ms gets a 503 or an error frame.
+ *
+ * A permit holder may need a second connection while open-in-view holds its first
+ * (OptimisticRetry and the rollup insert run in REQUIRES_NEW transactions), and the
+ * background pollers (outbox, event bus, TimerEngine, timer beacon) take connections
+ * without a permit. So unless devcollab.threads.db-permits says otherwise, the permits
+ * are half of what the pool has left after devcollab.threads.background-connections;
+ * with every permit taken, each holder can still get its nested connection.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabasePermits extends OncePerRequestFilter implements ExecutorChannelInterceptor {
+
+    private final Semaphore permits;
+    private final long timeoutMs;
+
+    public DatabasePermits(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                           @Value("${devcollab.threads.background-connections:4}") int backgroundConnections,
+                           @Value("${devcollab.threads.db-permits:0}") int permits,
+                           @Value("${devcollab.threads.permit-timeout-ms:10000}") long timeoutMs) {
+        this.permits = new Semaphore(permits > 0 ? permits : Math.max(1, (poolSize - backgroundConnections) / 2), true);
+        this.timeoutMs = timeoutMs;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // Static files and the WebSocket handshakes never query
+        return path.startsWith("/js/") || path.startsWith("/ws") || path.startsWith("/h2-console");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        if (!acquire()) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, try again");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Runs on the inbound channel's executor thread, just before the message is handled
+    @Override
+    public Message<?> beforeHandle(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                   @NonNull MessageHandler handler) {
+        if (needsPermit(message) && !acquire()) {
+            // Thrown here, afterMessageHandled is not called, so nothing is released
+            throw new MessageDeliveryException(message, "Server busy, try again");
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                    @NonNull MessageHandler handler, Exception ex) {
+        if (needsPermit(message)) {
+            permits.release();
+        }
+    }
+
+    // Heartbeats, CONNECT and the like only touch memory
+    private static boolean needsPermit(Message<?> message) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        return type == SimpMessageType.MESSAGE || type == SimpMessageType.SUBSCRIBE;
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
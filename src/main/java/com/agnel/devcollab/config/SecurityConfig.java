@@ -24,7 +24,7 @@
             http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf
-                    .ignoringRequestMatchers("/api/**", "/h2-console/**", "/ws/**")
+                    .ignoringRequestMatchers("/api/**", "/h2-console/**", "/ws/**", "/ws-native")
                 )
                 .headers(headers -> headers.frameOptions(frame -> frame.disable()))
                 .authorizeHttpRequests(auth -> auth
@@ -32,6 +32,7 @@
                         "/api/health",
                         "/api/**",
                         "/ws/**",
+                        "/ws-native",
                         "/login",
                         "/register",
                         "/css/**",
@@ -0,0 +1,93 @@
+package com.agnel.devcollab.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.TcpClient;
+
+import java.time.Duration;
+
+/**
+ * External STOMP broker (RabbitMQ, ActiveMQ, Artemis) used instead of the in-memory
+ * simple broker when devcollab.broker.mode=relay. Subscriptions then live in the
+ * broker, so a message sent on any app node reaches clients connected to every node.
+ */
+@Component
+public class StompBrokerRelaySettings {
+
+    @Value("${devcollab.broker.mode:simple}")
+    private String mode;
+
+    @Value("${devcollab.broker.relay.host:localhost}")
+    private String host;
+
+    @Value("${devcollab.broker.relay.port:61613}")
+    private int port;
+
+    @Value("${devcollab.broker.relay.virtual-host:}")
+    private String virtualHost;
+
+    @Value("${devcollab.broker.relay.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${devcollab.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${devcollab.broker.relay.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${devcollab.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
+    // Heartbeats on the shared system connection; client sessions negotiate their own
+    @Value("${devcollab.broker.relay.heartbeat-send-ms:10000}")
+    private long heartbeatSendMs;
+
+    @Value("${devcollab.broker.relay.heartbeat-receive-ms:10000}")
+    private long heartbeatReceiveMs;
+
+    // Every client session holds one broker connection, so this caps sessions per node
+    @Value("${devcollab.broker.relay.max-connections:1000}")
+    private int maxConnections;
+
+    @Value("${devcollab.broker.relay.pending-acquire-timeout-ms:5000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${devcollab.broker.relay.max-idle-ms:60000}")
+    private long maxIdleMs;
+
+    public boolean isRelay() {
+        return "relay".equalsIgnoreCase(mode);
+    }
+
+    public void configure(MessageBrokerRegistry registry) {
+        StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic", "/queue")
+                .setTcpClient(tcpClient())
+                .setClientLogin(clientLogin)
+                .setClientPasscode(clientPasscode)
+                .setSystemLogin(systemLogin)
+                .setSystemPasscode(systemPasscode)
+                .setSystemHeartbeatSendInterval(heartbeatSendMs)
+                .setSystemHeartbeatReceiveInterval(heartbeatReceiveMs)
+                // /user destinations of users connected to another node are resolved there
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+        if (!virtualHost.isBlank()) {
+            relay.setVirtualHost(virtualHost);
+        }
+    }
+
+    // One bounded connection pool for the system connection and all client session connections
+    private ReactorNettyTcpClient<byte[]> tcpClient() {
+        ConnectionProvider pool = ConnectionProvider.builder("stomp-broker-relay")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .build();
+        return new ReactorNettyTcpClient<>(TcpClient.create(pool).host(host).port(port), new StompReactorNettyCodec());
+    }
+}
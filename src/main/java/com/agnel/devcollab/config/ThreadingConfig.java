@@ -0,0 +1,36 @@
+package com.agnel.devcollab.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * The executor behind async MVC responses and the STOMP inbound and outbound channels.
+ *
+ * Spring Boot only provides applicationTaskExecutor when the context has no Executor
+ * at all, and WebSocketConfig's heartbeat scheduler is one, so it is declared here.
+ * With spring.threads.virtual.enabled every task gets its own virtual thread (see
+ * DatabasePermits for what bounds them); otherwise it is Boot's usual pool.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setThreadNamePrefix("task-");
+        return executor;
+    }
+}
@@ -1,20 +1,61 @@
 package com.agnel.devcollab.config;
 
+import com.agnel.devcollab.service.PresenceRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private BoardSubscriptionInterceptor boardSubscriptionInterceptor;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private StompBrokerRelaySettings brokerRelay;
+
+    @Autowired
+    private CompactFrameInterceptor compactFrameInterceptor;
+
+    // Only with virtual threads; the channels then run on the application task executor's virtual threads
+    @Autowired(required = false)
+    private DatabasePermits databasePermits;
+
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if (brokerRelay.isRelay()) {
+            // Subscriptions live in the external broker so several nodes can share them
+            brokerRelay.configure(config);
+        } else {
+            // Heartbeats both ways let the broker close dead sessions, which clears their presence
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] {10000, 10000})
+                    .setTaskScheduler(heartbeatScheduler());
+        }
         config.setApplicationDestinationPrefixes("/app");
+        // Compact frames reference strings defined by earlier frames of the same session
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -22,6 +63,50 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        // Plain WebSocket for clients that can take binary frames (compact-v1, see CompactFrameInterceptor)
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns("*")
+                .addInterceptors(new HandshakeInterceptor() {
+                    @Override
+                    public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                                   @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+                        attributes.put(CompactFrameInterceptor.NATIVE_TRANSPORT_ATTRIBUTE, true);
+                        return true;
+                    }
+
+                    @Override
+                    public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                               @NonNull WebSocketHandler wsHandler, Exception exception) {
+                    }
+                });
     }
-}
 
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        registration.interceptors(compactFrameInterceptor);
+    }
+
+    // Destinations are per board; subscriptions are checked before they reach the broker
+    @Override
+    public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
+        registration.interceptors(boardSubscriptionInterceptor, new ChannelInterceptor() {
+            // Any inbound frame, heartbeats included, keeps the session's presence alive
+            @Override
+            public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+                presenceRegistry.touch(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+                return message;
+            }
+        });
+        if (databasePermits != null) {
+            registration.interceptors(databasePermits);
+        }
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler heartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        return scheduler;
+    }
+}
@@ -2,6 +2,7 @@ package com.agnel.devcollab.controller;
 
 import com.agnel.devcollab.entity.User;
 import com.agnel.devcollab.repository.UserRepository;
+import com.agnel.devcollab.service.UserHandleIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,6 +20,9 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserHandleIndex userHandleIndex;
+
     @GetMapping("/register")
     public String showRegisterForm(Model model) {
         model.addAttribute("user", new User());
@@ -35,6 +39,8 @@ public class AuthController {
         if (!userRepository.existsByEmail(user.getEmail())) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
             userRepository.save(user);
+            // New handle for @mentions
+            userHandleIndex.invalidate();
             return "redirect:/login?registered";
         }
         
@@ -4,11 +4,13 @@ import com.agnel.devcollab.entity.PomodoroLog;
 import com.agnel.devcollab.entity.Subtask;
 import com.agnel.devcollab.entity.User;
 import com.agnel.devcollab.repository.UserRepository;
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.service.DomainEventBus;
 import com.agnel.devcollab.service.PomodoroService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
@@ -31,6 +33,9 @@ public class PomodoroController {
 
     @Autowired
     private PomodoroService pomodoroService;
+
+    @Autowired
+    private DomainEventBus eventBus;
     
     @Autowired
     private UserRepository userRepository;
@@ -166,10 +171,8 @@ public class PomodoroController {
         Map<String, Object> weeklyReport = pomodoroService.generateWeeklyReport(user.getId());
         model.addAttribute("weeklyReport", weeklyReport);
         
-        // Get efficiency score
-        LocalDateTime weekStart = LocalDateTime.now().minusDays(7);
-        double efficiency = pomodoroService.calculateEfficiencyScore(user.getId(), weekStart, LocalDateTime.now());
-        model.addAttribute("efficiencyScore", efficiency);
+        // Efficiency score is already part of the weekly report; no second query
+        model.addAttribute("efficiencyScore", weeklyReport.get("efficiencyScore"));
         
         // Get active team Pomodoros
         List<Map<String, Object>> teamPomodoros = pomodoroService.getActiveTeamPomodoros(projectId);
@@ -185,21 +188,19 @@ public class PomodoroController {
     /**
      * Handle WebSocket Pomodoro start broadcast
      */
-    @MessageMapping("/pomodoro/start")
-    @SendTo("/topic/pomodoro")
-    public Map<String, Object> handlePomodoroStart(Map<String, Object> message) {
-        // Simply broadcast to all subscribers
+    @MessageMapping("/projects/{projectId}/pomodoro/start")
+    public void handlePomodoroStart(@DestinationVariable Long projectId, Map<String, Object> message) {
+        // Broadcast to the project's subscribers on every node
         message.put("timestamp", LocalDateTime.now().toString());
-        return message;
+        eventBus.publish(BoardTopics.pomodoro(projectId), message);
     }
     
     /**
      * Handle WebSocket Pomodoro completion broadcast
      */
-    @MessageMapping("/pomodoro/complete")
-    @SendTo("/topic/pomodoro")
-    public Map<String, Object> handlePomodoroComplete(Map<String, Object> message) {
+    @MessageMapping("/projects/{projectId}/pomodoro/complete")
+    public void handlePomodoroComplete(@DestinationVariable Long projectId, Map<String, Object> message) {
         message.put("timestamp", LocalDateTime.now().toString());
-        return message;
+        eventBus.publish(BoardTopics.pomodoro(projectId), message);
     }
 }
@@ -3,15 +3,21 @@ package com.agnel.devcollab.controller;
 import com.agnel.devcollab.entity.Project.Status;
 import com.agnel.devcollab.entity.Project;
 import com.agnel.devcollab.entity.User;
-import com.agnel.devcollab.entity.Task;
 import com.agnel.devcollab.entity.Subtask; 
 import com.agnel.devcollab.repository.ProjectRepository;
 import com.agnel.devcollab.repository.UserRepository;
-import com.agnel.devcollab.repository.SubtaskRepository; 
+import com.agnel.devcollab.service.BoardEventLog;
+import com.agnel.devcollab.service.OptimisticRetry;
+import com.agnel.devcollab.service.TimerEngine;
+import com.agnel.devcollab.service.TimerStateService;
+import com.agnel.devcollab.service.TimerSyncPublisher;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -20,83 +26,92 @@ import org.springframework.http.ResponseEntity;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import com.agnel.devcollab.dto.ProjectUpdate;
+import com.agnel.devcollab.dto.ProjectResponse;
+import com.agnel.devcollab.dto.BoardEvent;
 
 @Controller
 public class ProjectController {
 
     @Autowired private ProjectRepository projectRepository;
     @Autowired private UserRepository userRepository;
-    @Autowired private SubtaskRepository subtaskRepository;
-    @Autowired private SimpMessagingTemplate messagingTemplate;
+    @Autowired private BoardEventLog boardEventLog;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private TimerEngine timerEngine;
+    @Autowired private TimerSyncPublisher timerSyncPublisher;
+    @Autowired private TimerStateService timerStateService;
+    @Autowired private OptimisticRetry optimisticRetry;
+
+    // Cards rendered per column before a "Load more" button is shown
+    private static final int COLUMN_PAGE_SIZE = 100;
 
     @GetMapping("/projects")
     public String listProjects(Model model, Authentication auth) {
-        List<Project> allProjects;
-        if (auth != null) {
-            String email = auth.getName();
-            User user = userRepository.findByEmail(email).orElse(null);
-            allProjects = (user != null) ? projectRepository.findByOwnerId(user.getId()) : projectRepository.findAll();
-        } else {
-            // Security disabled: show all projects for demo/testing
-            allProjects = projectRepository.findAll();
+        Long ownerId = resolveOwnerId(auth);
+
+        // One keyset page per column instead of loading every project and filtering in Java
+        for (Project.Status status : Project.Status.values()) {
+            String key = status.name().toLowerCase();
+            List<Project> page = findColumnPage(ownerId, status, 0L);
+            model.addAttribute(key, trimPage(page));
+            model.addAttribute(key + "NextCursor", nextCursor(page));
         }
-
-        // PRE-FILTER IN JAVA
-        List<Project> todo = allProjects.stream()
-                .filter(p -> p.getStatus() == Project.Status.TODO)
-                .toList();
-        List<Project> doing = allProjects.stream()
-                .filter(p -> p.getStatus() == Project.Status.DOING)
-                .toList();
-        List<Project> done = allProjects.stream()
-                .filter(p -> p.getStatus() == Project.Status.DONE)
-                .toList();
-
-        model.addAttribute("todo", todo);
-        model.addAttribute("doing", doing);
-        model.addAttribute("done", done);
+        // The page listens on the topics of every board it shows, counting their events from here
+        List<Long> boardIds = ownerId != null
+                ? projectRepository.findBoardIdsByOwnerId(ownerId)
+                : projectRepository.findAllBoardIds();
+        model.addAttribute("boardIds", boardIds);
+        model.addAttribute("boardEventSeqs", boardEventLog.latestSeqs(boardIds));
         model.addAttribute("pageTitle", "My Projects");
 
         return "projects/list";
     }
 
     @GetMapping("/projects/column/{status}")
-    public String getColumnFragment(@PathVariable String status, 
+    public String getColumnFragment(@PathVariable String status,
+                                   @RequestParam(defaultValue = "0") long afterId,
                                    Model model, 
                                    Authentication auth) {
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        List<Project> allProjects = projectRepository.findByOwnerId(user.getId());
+        // Same owner scoping as the full page so "Load more" continues the list it was rendered from
+        Long ownerId = resolveOwnerId(auth);
 
         // Filter by requested status
-        List<Project> projects;
-        switch (status.toUpperCase()) {
-            case "TODO":
-                projects = allProjects.stream()
-                    .filter(p -> p.getStatus() == Project.Status.TODO)
-                    .toList();
-                break;
-            case "DOING":
-                projects = allProjects.stream()
-                    .filter(p -> p.getStatus() == Project.Status.DOING)
-                    .toList();
-                break;
-            case "DONE":
-                projects = allProjects.stream()
-                    .filter(p -> p.getStatus() == Project.Status.DONE)
-                    .toList();
-                break;
-            default:
-                projects = new ArrayList<>();
+        List<Project> page;
+        try {
+            page = findColumnPage(ownerId, Project.Status.valueOf(status.toUpperCase()), afterId);
+        } catch (IllegalArgumentException e) {
+            page = new ArrayList<>();
         }
 
-        model.addAttribute("projects", projects);
+        model.addAttribute("projects", trimPage(page));
+        model.addAttribute("status", status.toLowerCase());
+        model.addAttribute("nextCursor", nextCursor(page));
         return "projects/fragments :: column";
     }
 
+    // Security disabled or unknown user: null, meaning all projects are shown for demo/testing
+    private Long resolveOwnerId(Authentication auth) {
+        if (auth == null) {
+            return null;
+        }
+        return userRepository.findByEmail(auth.getName()).map(User::getId).orElse(null);
+    }
+
+    // Fetches one row past the page size so callers can tell whether another page exists
+    private List<Project> findColumnPage(Long ownerId, Project.Status status, long afterId) {
+        Limit limit = Limit.of(COLUMN_PAGE_SIZE + 1);
+        return (ownerId != null)
+                ? projectRepository.findByOwnerIdAndStatusAndIdGreaterThanOrderByIdAsc(ownerId, status, afterId, limit)
+                : projectRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId, limit);
+    }
+
+    private List<Project> trimPage(List<Project> page) {
+        return page.size() > COLUMN_PAGE_SIZE ? page.subList(0, COLUMN_PAGE_SIZE) : page;
+    }
+
+    private Long nextCursor(List<Project> page) {
+        return page.size() > COLUMN_PAGE_SIZE ? page.get(COLUMN_PAGE_SIZE - 1).getId() : null;
+    }
+
     @GetMapping("/projects/new")
     public String newProjectForm(Model model) {
         model.addAttribute("project", new Project());
@@ -114,25 +129,20 @@ public class ProjectController {
     public String deleteProject(@PathVariable long id,
                                 HttpSession session,
                                 RedirectAttributes redirectAttributes) {
-        Project project = projectRepository.findById(id).orElse(null);
-        if (project != null) {
-            String projectName = project.getName();
-            projectRepository.deleteById(id);
-            
-            // Broadcast update
-            String userName = getOrCreateUserName(session);
-            String userColor = getOrCreateUserColor(session);
-            ProjectUpdate update = new ProjectUpdate(
-                id,
-                projectName,
-                null,
-                null,
-                "DELETED",
-                userName,
-                userColor
-            );
-            messagingTemplate.convertAndSend("/topic/project-updates", update);
-        }
+        String userName = getOrCreateUserName(session);
+        String userColor = getOrCreateUserColor(session);
+        inTransaction(() -> {
+            Project project = projectRepository.findById(id).orElse(null);
+            if (project != null) {
+                Long boardId = boardIdOf(project);
+                projectRepository.deleteById(id);
+
+                // Broadcast update
+                BoardEvent event = new BoardEvent(BoardEvent.Type.PROJECT_DELETED, id);
+                event.setName(project.getName());
+                broadcast(boardId, event, userName, userColor);
+            }
+        });
 
         redirectAttributes.addFlashAttribute("message", "Project deleted!");
         return "redirect:/projects";
@@ -143,24 +153,18 @@ public class ProjectController {
                             @RequestParam Status status,
                             HttpSession session,
                             RedirectAttributes redirectAttributes) {
-        Project project = projectRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-        project.setStatus(status);
-        projectRepository.save(project);
-
-        // Broadcast update
         String userName = getOrCreateUserName(session);
         String userColor = getOrCreateUserColor(session);
-        ProjectUpdate update = new ProjectUpdate(
-            project.getId(),
-            project.getName(),
-            project.getStatus(),
-            project.getPomodoroStart(),
-            "MOVED",
-            userName,
-            userColor
-        );
-        messagingTemplate.convertAndSend("/topic/project-updates", update);
+        optimisticRetry.run(() -> {
+            Project current = projectRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Project not found"));
+            current.setStatus(status);
+            Project saved = projectRepository.save(current);
+
+            // Broadcast update; queued in the same transaction, so a retried attempt queues it once
+            broadcastMove(saved, userName, userColor);
+            return saved;
+        });
 
         return "redirect:/projects";
     }
@@ -172,33 +176,22 @@ public class ProjectController {
                                                    HttpSession session,
                                                    @RequestHeader(value = "X-User-Name", required = false) String userName,
                                                    @RequestHeader(value = "X-User-Color", required = false) String userColor) {
-        Project project = projectRepository.findById(id).orElse(null);
+        // Use headers or fallback to session
+        String name = userName != null ? userName : getOrCreateUserName(session);
+        String color = userColor != null ? userColor : getOrCreateUserColor(session);
+
+        Project project = optimisticRetry.run(() -> projectRepository.findById(id)
+                .map(current -> {
+                    current.setStatus(status);
+                    Project saved = projectRepository.save(current);
+                    // Broadcast update via WebSocket once the move commits
+                    broadcastMove(saved, name, color);
+                    return saved;
+                })
+                .orElse(null));
         if (project == null) {
             return ResponseEntity.notFound().build();
         }
-        
-        project.setStatus(status);
-        projectRepository.save(project);
-
-        // Use headers or fallback to session
-        if (userName == null) {
-            userName = getOrCreateUserName(session);
-        }
-        if (userColor == null) {
-            userColor = getOrCreateUserColor(session);
-        }
-
-        // Broadcast update via WebSocket
-        ProjectUpdate update = new ProjectUpdate(
-            project.getId(),
-            project.getName(),
-            project.getStatus(),
-            project.getPomodoroStart(),
-            "MOVED",
-            userName,
-            userColor
-        );
-        messagingTemplate.convertAndSend("/topic/project-updates", update);
 
         return ResponseEntity.ok("Status updated");
     }
@@ -218,12 +211,14 @@ public class ProjectController {
     @PostMapping("/projects/{id}/pomodoro/duration")
     public String setPomodoroDuration(@PathVariable long id, 
                                       @RequestParam int duration) {
-        Project project = projectRepository.findById(id).orElse(null);
-        if (project != null) {
-            project.setPomodoroDuration(duration);
-            // Set break proportionally (1:5 ratio - for every 25 min work, 5 min break)
-            project.setBreakDuration(Math.max(5, duration / 5));
-            projectRepository.save(project);
+        // Set break proportionally (1:5 ratio - for every 25 min work, 5 min break); one UPDATE, no load
+        boolean updated = projectRepository.updateDurations(id, duration, Math.max(5, duration / 5)) > 0;
+        if (updated) {
+            // Sent as a timer sync rather than a board event; the board's snapshot still changed
+            boardEventLog.touchForProject(id);
+            // A running timer now has a different target
+            timerEngine.reschedule(TimerStateService.Kind.PROJECT, id);
+            timerSyncPublisher.announce(TimerStateService.Kind.PROJECT, id);
         }
 
         return "redirect:/projects";
@@ -251,106 +246,49 @@ public class ProjectController {
     }
 
     private void updateProjectPomodoro(long id, Authentication auth, HttpSession session, boolean start) {
-        Project project = projectRepository.findById(id).orElse(null);
-        if (project == null) return;
-
-        if (start) {
-            // Auto-move to DOING when timer starts (only if starting work session, not break)
-            if (project.getStatus() == Project.Status.TODO && !project.isBreak()) {
-                project.setStatus(Project.Status.DOING);
-            }
-            project.setPomodoroStart(LocalDateTime.now());
-        } else {
-            LocalDateTime startTime = project.getPomodoroStart();
-            if (startTime != null) {
-                // Calculate elapsed time in seconds
-                long elapsedSeconds = java.time.Duration.between(startTime, LocalDateTime.now()).getSeconds();
-                // Always record at least 1 second if timer was running
-                if (elapsedSeconds < 1) {
-                    elapsedSeconds = 1;
-                }
-                
-                // Only count work time, not break time
-                if (!project.isBreak()) {
-                    project.setTotalSecondsSpent(project.getTotalSecondsSpent() + elapsedSeconds);
-                }
-                
-                // Check if timer naturally completed (elapsed >= target duration)
-                long targetSeconds = project.isBreak() ? project.getBreakDuration() * 60L : project.getPomodoroDuration() * 60L;
-                if (elapsedSeconds >= targetSeconds - 5) { // Within 5 seconds of completion
-                    // Auto-toggle to next cycle
-                    project.setBreak(!project.isBreak());
-                }
-                
-                project.setPomodoroStart(null);
-            }
-        }
-
-        projectRepository.save(project);
-
-        // Broadcast update
         String userName = getOrCreateUserName(session);
         String userColor = getOrCreateUserColor(session);
-        ProjectUpdate update = new ProjectUpdate(
-            project.getId(),
-            project.getName(),
-            project.getStatus(),
-            project.getPomodoroStart(),
-            start ? "TIMER_STARTED" : "TIMER_STOPPED",
-            userName,
-            userColor
-        );
-        messagingTemplate.convertAndSend("/topic/project-updates", update);
+        // Timer change, column move and the broadcast commit together
+        inTransaction(() -> {
+            // Natural completion and the work/break toggle are handled by TimerEngine; stop is a manual stop
+            boolean applied = start
+                ? timerStateService.start(TimerStateService.Kind.PROJECT, id)
+                : timerStateService.stop(TimerStateService.Kind.PROJECT, id);
+            if (start && applied) {
+                // Auto-move to DOING when a work session starts
+                projectRepository.moveToDoingIfTodo(id);
+            }
+            projectRepository.findResponseById(id)
+                .ifPresent(project -> broadcastTimerChange(project, null, start, userName, userColor));
+        });
     }
 
     private void updateSubtaskPomodoro(long id, Authentication auth, HttpSession session, boolean start) {
-        Subtask subtask = subtaskRepository.findById(id).orElse(null);
-        if (subtask == null) return;
-        
-        Task task = subtask.getTask();
-        if (task == null) return;
-        
-        Project project = task.getProject();
-        if (project == null) return;
-
-        if (start) {
-            subtask.setPomodoroStart(LocalDateTime.now());
-        } else {
-            LocalDateTime startTime = subtask.getPomodoroStart();
-            if (startTime != null) {
-                // Calculate elapsed time in seconds
-                long elapsedSeconds = java.time.Duration.between(startTime, LocalDateTime.now()).getSeconds();
-                // Always record at least 1 second if timer was running
-                if (elapsedSeconds < 1) {
-                    elapsedSeconds = 1;
-                }
-                
-                // Add elapsed time to subtask total
-                subtask.setTotalSecondsSpent(subtask.getTotalSecondsSpent() + elapsedSeconds);
-                
-                // Add the SAME elapsed time to project total (subtask time contributes to project)
-                project.setTotalSecondsSpent(project.getTotalSecondsSpent() + elapsedSeconds);
-                
-                subtask.setPomodoroStart(null);
-            }
-        }
+        Long projectId = timerStateService.findProjectId(TimerStateService.Kind.SUBTASK, id).orElse(null);
+        if (projectId == null) return;
 
-        subtaskRepository.save(subtask);
-        projectRepository.save(project);
-
-        // Broadcast project update so all users see correct total
         String userName = getOrCreateUserName(session);
         String userColor = getOrCreateUserColor(session);
-        ProjectUpdate update = new ProjectUpdate(
-            project.getId(),
-            project.getName(),
-            project.getStatus(),
-            project.getPomodoroStart(),
-            start ? "TIMER_STARTED" : "TIMER_STOPPED",
-            userName,
-            userColor
-        );
-        messagingTemplate.convertAndSend("/topic/project-updates", update);
+        inTransaction(() -> {
+            // Stopping also adds the subtask's elapsed time to the project total
+            if (start) {
+                timerStateService.start(TimerStateService.Kind.SUBTASK, id);
+            } else {
+                timerStateService.stop(TimerStateService.Kind.SUBTASK, id);
+            }
+
+            // Broadcast project update so all users see correct total
+            projectRepository.findResponseById(projectId)
+                .ifPresent(project -> broadcastTimerChange(project, id, start, userName, userColor));
+        });
+    }
+
+    // subtaskId is set when the timer was a subtask's; the project's totals come along either way
+    private void broadcastTimerChange(ProjectResponse project, Long subtaskId, boolean start, String userName, String userColor) {
+        BoardEvent event = BoardEvent.projectTimer(
+            start ? BoardEvent.Type.TIMER_STARTED : BoardEvent.Type.TIMER_STOPPED, project);
+        event.setSubtaskId(subtaskId);
+        broadcast(project.getBoardId(), event, userName, userColor);
     }
     @PostMapping("/projects")
     public String createProject(@ModelAttribute Project project,
@@ -365,30 +303,39 @@ public class ProjectController {
             }
         }
         project.setCreatedAt(LocalDateTime.now());
-        projectRepository.save(project);
+        String userName = getOrCreateUserName(session);
+        String userColor = getOrCreateUserColor(session);
+        inTransaction(() -> {
+            projectRepository.save(project);
 
-        // Broadcast update (tolerate disabled security or websocket misconfig)
-        try {
-            String userName = getOrCreateUserName(session);
-            String userColor = getOrCreateUserColor(session);
-            ProjectUpdate update = new ProjectUpdate(
-                project.getId(),
-                project.getName(),
-                project.getStatus(),
-                project.getPomodoroStart(),
-                "CREATED",
-                userName,
-                userColor
-            );
-            messagingTemplate.convertAndSend("/topic/project-updates", update);
-        } catch (Exception ex) {
-            // Swallow to avoid user-facing 500; logging can be added later
-        }
+            // Broadcast update; sent by the outbox after commit, off this request
+            broadcast(boardIdOf(project), BoardEvent.project(BoardEvent.Type.PROJECT_CREATED, project), userName, userColor);
+        });
 
         redirectAttributes.addFlashAttribute("message", "Project created!");
         return "redirect:/projects";
     }
 
+    private void broadcastMove(Project project, String userName, String userColor) {
+        broadcast(boardIdOf(project), BoardEvent.project(BoardEvent.Type.PROJECT_MOVED, project), userName, userColor);
+    }
+
+    // Only clients with the project's board open receive its updates. Must run inside the
+    // transaction making the change: the event is numbered there and sent once that commits
+    private void broadcast(Long boardId, BoardEvent event, String userName, String userColor) {
+        event.setUserName(userName);
+        event.setUserColor(userColor);
+        boardEventLog.enqueue(boardId, event);
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+
+    private Long boardIdOf(Project project) {
+        return project.getBoard() != null ? project.getBoard().getId() : null;
+    }
+
     private String getOrCreateUserName(HttpSession session) {
         String userName = (String) session.getAttribute("userName");
         if (userName == null || userName.isEmpty()) {
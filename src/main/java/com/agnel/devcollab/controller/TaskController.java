@@ -1,9 +1,13 @@
 package com.agnel.devcollab.controller;
 
+import com.agnel.devcollab.dto.TaskResponse;
 import com.agnel.devcollab.entity.Task;
 import com.agnel.devcollab.entity.Project;
 import com.agnel.devcollab.repository.TaskRepository;
 import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.service.BoardEventLog;
+import com.agnel.devcollab.service.OptimisticRetry;
+import com.agnel.devcollab.service.TimerStateService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +26,16 @@ public class TaskController {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    // These endpoints send no board events; touching the board still changes its snapshot ETag
+    @Autowired
+    private BoardEventLog boardEventLog;
+
     // Get all tasks for a project
     @GetMapping
     public ResponseEntity<?> getTasksByProject(@RequestParam Long projectId) {
@@ -57,6 +71,7 @@ public class TaskController {
         }
         
         Task saved = taskRepository.save(task);
+        boardEventLog.touchForProject(project.getId());
         return ResponseEntity.ok(saved);
     }
 
@@ -64,23 +79,29 @@ public class TaskController {
     @PatchMapping("/{id}")
     @SuppressWarnings("null")
     public ResponseEntity<?> updateTask(@PathVariable Long id, @RequestBody TaskUpdateRequest req) {
-        Task task = taskRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
-
-        if (req.getName() != null) task.setName(req.getName());
-        if (req.getDescription() != null) task.setDescription(req.getDescription());
-        if (req.getStatus() != null) task.setStatus(req.getStatus());
-        if (req.getEstimatedPomodoros() != null) task.setEstimatedPomodoros(req.getEstimatedPomodoros());
-
-        Task saved = taskRepository.save(task);
-        return ResponseEntity.ok(saved);
+        optimisticRetry.run(() -> {
+            Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+
+            if (req.getName() != null) task.setName(req.getName());
+            if (req.getDescription() != null) task.setDescription(req.getDescription());
+            if (req.getStatus() != null) task.setStatus(req.getStatus());
+            if (req.getEstimatedPomodoros() != null) task.setEstimatedPomodoros(req.getEstimatedPomodoros());
+
+            touchBoardOf(task);
+            return taskRepository.save(task);
+        });
+        // Re-read in this request's session so the lazy subtasks can still be serialized
+        return ResponseEntity.ok(taskRepository.findById(id).orElseThrow());
     }
 
     // Delete task
     @DeleteMapping("/{id}")
     @SuppressWarnings("null")
     public ResponseEntity<?> deleteTask(@PathVariable Long id) {
+        Long projectId = taskRepository.findResponseById(id).map(TaskResponse::getProjectId).orElse(null);
         taskRepository.deleteById(id);
+        boardEventLog.touchForProject(projectId);
         return ResponseEntity.ok().build();
     }
 
@@ -88,55 +109,54 @@ public class TaskController {
     @PostMapping("/{id}/pomodoro/start")
     @SuppressWarnings("null")
     public ResponseEntity<?> startPomodoro(@PathVariable Long id) {
-        Task task = taskRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
-
-        if (task.getPomodoroStart() != null) {
-            return ResponseEntity.badRequest().body("Timer already running");
+        if (!timerStateService.start(TimerStateService.Kind.TASK, id)) {
+            return rejectTransition(id, "Timer already running");
         }
-
-        task.setPomodoroStart(LocalDateTime.now());
-        task.setBreak(false);
-        Task saved = taskRepository.save(task);
-        return ResponseEntity.ok(saved);
+        touchBoardOfTask(id);
+        return ResponseEntity.ok(taskRepository.findById(id).orElseThrow());
     }
 
-    // Stop Pomodoro timer on task
+    // Stop Pomodoro timer on task; a full work session is counted by TimerEngine, not here
     @PostMapping("/{id}/pomodoro/stop")
     @SuppressWarnings("null")
     public ResponseEntity<?> stopPomodoro(@PathVariable Long id) {
-        Task task = taskRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
-
-        if (task.getPomodoroStart() == null) {
-            return ResponseEntity.badRequest().body("No timer running");
+        if (!timerStateService.stop(TimerStateService.Kind.TASK, id)) {
+            return rejectTransition(id, "No timer running");
         }
-
-        LocalDateTime now = LocalDateTime.now();
-        long secondsElapsed = java.time.Duration.between(task.getPomodoroStart(), now).getSeconds();
-        
-        task.setTotalSecondsSpent(task.getTotalSecondsSpent() + secondsElapsed);
-        task.setPomodoroStart(null);
-        
-        if (!task.isBreak()) {
-            task.setCompletedPomodoros(task.getCompletedPomodoros() + 1);
-            task.incrementCycle();
-        }
-
-        Task saved = taskRepository.save(task);
-        return ResponseEntity.ok(saved);
+        touchBoardOfTask(id);
+        return ResponseEntity.ok(taskRepository.findById(id).orElseThrow());
     }
 
     // Move task status (TODO -> DOING -> DONE, and back)
     @PostMapping("/{id}/move")
     @SuppressWarnings("null")
     public ResponseEntity<?> moveTask(@PathVariable Long id, @RequestParam Task.Status newStatus) {
-        Task task = taskRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
+        optimisticRetry.run(() -> {
+            Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+            task.setStatus(newStatus);
+            touchBoardOf(task);
+            return taskRepository.save(task);
+        });
+        return ResponseEntity.ok(taskRepository.findById(id).orElseThrow());
+    }
 
-        task.setStatus(newStatus);
-        Task saved = taskRepository.save(task);
-        return ResponseEntity.ok(saved);
+    private void touchBoardOf(Task task) {
+        if (task.getProject() != null) {
+            boardEventLog.touchForProject(task.getProject().getId());
+        }
+    }
+
+    private void touchBoardOfTask(Long taskId) {
+        timerStateService.findProjectId(TimerStateService.Kind.TASK, taskId).ifPresent(boardEventLog::touchForProject);
+    }
+
+    // A timer transition that matched no row is either a missing task or the wrong state
+    private ResponseEntity<?> rejectTransition(Long id, String message) {
+        if (!taskRepository.existsById(id)) {
+            throw new RuntimeException("Task not found");
+        }
+        return ResponseEntity.badRequest().body(message);
     }
 }
 
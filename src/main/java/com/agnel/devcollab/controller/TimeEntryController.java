@@ -1,15 +1,10 @@
 package com.agnel.devcollab.controller;
 
+import com.agnel.devcollab.dto.TimeEntryResponse;
 import com.agnel.devcollab.entity.TimeEntry;
-import com.agnel.devcollab.entity.User;
-import com.agnel.devcollab.entity.Project;
-import com.agnel.devcollab.entity.Task;
-import com.agnel.devcollab.entity.Subtask;
 import com.agnel.devcollab.repository.TimeEntryRepository;
-import com.agnel.devcollab.repository.UserRepository;
-import com.agnel.devcollab.repository.ProjectRepository;
-import com.agnel.devcollab.repository.TaskRepository;
-import com.agnel.devcollab.repository.SubtaskRepository;
+import com.agnel.devcollab.service.DailyFocusRollupService;
+import com.agnel.devcollab.service.TimeEntryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -29,16 +24,13 @@ public class TimeEntryController {
     private TimeEntryRepository timeEntryRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private TimeEntryService timeEntryService;
     
     @Autowired
-    private ProjectRepository projectRepository;
-    
-    @Autowired
-    private TaskRepository taskRepository;
-    
-    @Autowired
-    private SubtaskRepository subtaskRepository;
+    private DailyFocusRollupService dailyFocusRollupService;
+
+    // Entries accepted by one batch request
+    public static final int MAX_BATCH = 1000;
 
     // Get all time entries for the current user for a given week
     @GetMapping("/week")
@@ -51,72 +43,51 @@ public class TimeEntryController {
         return ResponseEntity.ok(entries);
     }
 
+    // Per-day, per-project tracked time for the week, read from daily rollups
+    @GetMapping("/week/summary")
+    public ResponseEntity<?> getWeekSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start) {
+        Long userId = 1L; // Default for testing
+        return ResponseEntity.ok(dailyFocusRollupService.findForUser(userId, start, start.plusDays(7)));
+    }
+
     // Create a new time entry
     @PostMapping
-    @SuppressWarnings("null")
     public ResponseEntity<?> create(@RequestBody TimeEntryRequest req) {
-        TimeEntry entry = new TimeEntry();
-        
-        // Set entities from IDs
-        if (req.getUserId() != null) {
-            User user = userRepository.findById(req.getUserId()).orElse(null);
-            entry.setUser(user);
-        }
-        if (req.getProjectId() != null) {
-            Project project = projectRepository.findById(req.getProjectId()).orElse(null);
-            entry.setProject(project);
-        }
-        if (req.getTaskId() != null) {
-            Task task = taskRepository.findById(req.getTaskId()).orElse(null);
-            entry.setTask(task);
-        }
-        if (req.getSubtaskId() != null) {
-            Subtask subtask = subtaskRepository.findById(req.getSubtaskId()).orElse(null);
-            entry.setSubtask(subtask);
+        TimeEntry saved = timeEntryService.create(req.toEntry(), req.toLinks());
+        return ResponseEntity.ok(TimeEntryResponse.from(saved));
+    }
+
+    // Create many entries at once, e.g. an import; inserted in JDBC batches
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(@RequestBody List<TimeEntryRequest> reqs) {
+        if (reqs.size() > MAX_BATCH) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH + " entries per batch");
         }
-        
-        entry.setDescription(req.getDescription());
-        entry.setStart(req.getStart());
-        entry.setEnd(req.getEnd());
-        entry.setTags(req.getTags());
-        entry.setPomodoro(req.isPomodoro());
-        entry.setBillable(req.isBillable());
-        
-        TimeEntry saved = timeEntryRepository.save(entry);
-        return ResponseEntity.ok(saved);
+        List<TimeEntry> saved = timeEntryService.createAll(
+            reqs.stream().map(TimeEntryRequest::toEntry).toList(),
+            reqs.stream().map(TimeEntryRequest::toLinks).toList());
+        return ResponseEntity.ok(saved.stream().map(TimeEntryResponse::from).toList());
     }
 
     // Update an existing time entry (resize, move, edit details)
     @PatchMapping("/{id}")
-    @SuppressWarnings("null")
     public ResponseEntity<?> update(@PathVariable long id, @RequestBody TimeEntryUpdateRequest req) {
-        TimeEntry entry = timeEntryRepository.findById(id)
+        TimeEntry saved = timeEntryService.update(id, entry -> {
+                if (req.getStart() != null) entry.setStart(req.getStart());
+                if (req.getEnd() != null) entry.setEnd(req.getEnd());
+                if (req.getDescription() != null) entry.setDescription(req.getDescription());
+                if (req.getTags() != null) entry.setTags(req.getTags());
+            }, new TimeEntryService.Links(null, req.getProjectId(), req.getTaskId(), req.getSubtaskId()))
             .orElseThrow(() -> new RuntimeException("TimeEntry not found"));
-        
-        if (req.getStart() != null) entry.setStart(req.getStart());
-        if (req.getEnd() != null) entry.setEnd(req.getEnd());
-        if (req.getDescription() != null) entry.setDescription(req.getDescription());
-        if (req.getTags() != null) entry.setTags(req.getTags());
-        if (req.getProjectId() != null) {
-            Project project = projectRepository.findById(req.getProjectId()).orElse(null);
-            entry.setProject(project);
-        }
-        if (req.getTaskId() != null) {
-            Task task = taskRepository.findById(req.getTaskId()).orElse(null);
-            entry.setTask(task);
-        }
-        if (req.getSubtaskId() != null) {
-            Subtask subtask = subtaskRepository.findById(req.getSubtaskId()).orElse(null);
-            entry.setSubtask(subtask);
-        }
-        
-        TimeEntry saved = timeEntryRepository.save(entry);
-        return ResponseEntity.ok(saved);
+        return ResponseEntity.ok(TimeEntryResponse.from(saved));
     }
 
     // Delete a time entry
     @DeleteMapping("/{id}")
     public ResponseEntity<?> delete(@PathVariable long id) {
+        timeEntryRepository.findById(id)
+            .ifPresent(entry -> dailyFocusRollupService.recordTimeEntry(entry, -1));
         timeEntryRepository.deleteById(id);
         return ResponseEntity.ok().build();
     }
@@ -156,6 +127,21 @@ class TimeEntryRequest {
     public void setPomodoro(boolean pomodoro) { this.pomodoro = pomodoro; }
     public boolean isBillable() { return billable; }
     public void setBillable(boolean billable) { this.billable = billable; }
+
+    TimeEntry toEntry() {
+        TimeEntry entry = new TimeEntry();
+        entry.setDescription(description);
+        entry.setStart(start);
+        entry.setEnd(end);
+        entry.setTags(tags);
+        entry.setPomodoro(pomodoro);
+        entry.setBillable(billable);
+        return entry;
+    }
+
+    TimeEntryService.Links toLinks() {
+        return new TimeEntryService.Links(userId, projectId, taskId, subtaskId);
+    }
 }
 
 // DTO for updating time entries
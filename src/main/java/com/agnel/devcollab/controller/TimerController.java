@@ -1,15 +1,10 @@
 package com.agnel.devcollab.controller;
 
+import com.agnel.devcollab.dto.TimeEntryResponse;
 import com.agnel.devcollab.entity.TimeEntry;
-import com.agnel.devcollab.entity.User;
-import com.agnel.devcollab.entity.Project;
-import com.agnel.devcollab.entity.Task;
-import com.agnel.devcollab.entity.Subtask;
 import com.agnel.devcollab.repository.TimeEntryRepository;
-import com.agnel.devcollab.repository.UserRepository;
-import com.agnel.devcollab.repository.ProjectRepository;
-import com.agnel.devcollab.repository.TaskRepository;
-import com.agnel.devcollab.repository.SubtaskRepository;
+import com.agnel.devcollab.service.DailyFocusRollupService;
+import com.agnel.devcollab.service.TimeEntryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,48 +19,25 @@ public class TimerController {
     private TimeEntryRepository timeEntryRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private TimeEntryService timeEntryService;
     
     @Autowired
-    private ProjectRepository projectRepository;
-    
-    @Autowired
-    private TaskRepository taskRepository;
-    
-    @Autowired
-    private SubtaskRepository subtaskRepository;
+    private DailyFocusRollupService dailyFocusRollupService;
 
     @PostMapping("/start")
     @SuppressWarnings("null")
     public ResponseEntity<?> start(@RequestBody TimerStartRequest req) {
         TimeEntry entry = new TimeEntry();
-        
-        // Set entities from IDs if provided
-        if (req.getUserId() != null) {
-            User user = userRepository.findById(req.getUserId()).orElse(null);
-            entry.setUser(user);
-        }
-        if (req.getProjectId() != null) {
-            Project project = projectRepository.findById(req.getProjectId()).orElse(null);
-            entry.setProject(project);
-        }
-        if (req.getTaskId() != null) {
-            Task task = taskRepository.findById(req.getTaskId()).orElse(null);
-            entry.setTask(task);
-        }
-        if (req.getSubtaskId() != null) {
-            Subtask subtask = subtaskRepository.findById(req.getSubtaskId()).orElse(null);
-            entry.setSubtask(subtask);
-        }
-        
         entry.setDescription(req.getDescription());
         entry.setTags(req.getTags());
         entry.setStart(LocalDateTime.now());
         entry.setPomodoro(req.isPomodoro());
         entry.setBillable(req.isBillable());
         
-        TimeEntry saved = timeEntryRepository.save(entry);
-        return ResponseEntity.ok(saved);
+        // Linked by id; one query checks that the ids exist
+        TimeEntry saved = timeEntryService.create(entry, new TimeEntryService.Links(
+            req.getUserId(), req.getProjectId(), req.getTaskId(), req.getSubtaskId()));
+        return ResponseEntity.ok(TimeEntryResponse.from(saved));
     }
 
     @PostMapping("/stop")
@@ -76,9 +48,13 @@ public class TimerController {
         }
         TimeEntry entry = timeEntryRepository.findById(req.getEntryId())
             .orElseThrow(() -> new RuntimeException("TimeEntry not found"));
+        boolean wasRunning = entry.getEnd() == null;
         entry.setEnd(LocalDateTime.now());
         TimeEntry saved = timeEntryRepository.save(entry);
-        return ResponseEntity.ok(saved);
+        if (wasRunning) {
+            dailyFocusRollupService.recordTimeEntry(saved, 1);
+        }
+        return ResponseEntity.ok(TimeEntryResponse.from(saved));
     }
 
     @GetMapping("/active")
@@ -1,13 +1,25 @@
 package com.agnel.devcollab.controller;
 
+import com.agnel.devcollab.config.BoardTopics;
 import com.agnel.devcollab.dto.ChatMessage;
 import com.agnel.devcollab.dto.CursorMove;
+import com.agnel.devcollab.dto.MentionNotification;
 import com.agnel.devcollab.dto.UserPresence;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.service.ChatLog;
+import com.agnel.devcollab.service.CursorAggregator;
+import com.agnel.devcollab.service.DomainEventBus;
+import com.agnel.devcollab.service.NotificationInbox;
+import com.agnel.devcollab.service.PresenceRegistry;
+import com.agnel.devcollab.service.UserHandleIndex;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -18,54 +30,81 @@ import java.util.regex.Matcher;
 @SuppressWarnings("null")
 public class WebSocketController {
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private static final Pattern MENTION_PATTERN = Pattern.compile("@(\\w+)");
+    private final ChatLog chatLog;
+    private final UserHandleIndex userHandleIndex;
+    private final NotificationInbox notificationInbox;
+    private final CursorAggregator cursorAggregator;
+    private final PresenceRegistry presenceRegistry;
+    private final DomainEventBus eventBus;
+    private final ProjectRepository projectRepository;
+    private final BoardRepository boardRepository;
+    // Handles may contain dots and dashes (email local parts) but do not end with one
+    private static final Pattern MENTION_PATTERN = Pattern.compile("@([\\w.-]*\\w)");
 
-    public WebSocketController(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public WebSocketController(ChatLog chatLog, UserHandleIndex userHandleIndex, NotificationInbox notificationInbox,
+                               CursorAggregator cursorAggregator, PresenceRegistry presenceRegistry,
+                               DomainEventBus eventBus, ProjectRepository projectRepository,
+                               BoardRepository boardRepository) {
+        this.chatLog = chatLog;
+        this.userHandleIndex = userHandleIndex;
+        this.notificationInbox = notificationInbox;
+        this.cursorAggregator = cursorAggregator;
+        this.presenceRegistry = presenceRegistry;
+        this.eventBus = eventBus;
+        this.projectRepository = projectRepository;
+        this.boardRepository = boardRepository;
     }
 
-    @MessageMapping("/chat")
-    @SendTo("/topic/chat")
-    public ChatMessage handleChat(ChatMessage chatMessage) {
+    // Destinations are scoped per board/project (see BoardTopics); the path id is authoritative
+    @MessageMapping("/projects/{projectId}/chat")
+    public void handleChat(@DestinationVariable Long projectId, ChatMessage chatMessage, Principal principal) {
+        chatMessage.setProjectId(projectId);
         if (chatMessage.getTimestamp() == null) {
             chatMessage.setTimestamp(LocalDateTime.now());
         }
-        
-        // Check for @mentions and send notifications
+        // Stored before it is broadcast, so the id subscribers see can page history
+        chatLog.append(projectId, chatMessage);
+
+        // Each mentioned account gets the notification on its own queue; nobody else sees it
         String message = chatMessage.getMessage();
         if (message != null) {
-            Set<String> mentionedUsers = extractMentions(message);
-            if (!mentionedUsers.isEmpty()) {
-                // Send notification to mentioned users
-                for (String mentionedUser : mentionedUsers) {
-                    ChatMessage notification = new ChatMessage();
-                    notification.setProjectId(chatMessage.getProjectId());
-                    notification.setMessage("You were mentioned (" + mentionedUser + ") by " + chatMessage.getUserName() + ": " + message);
-                    notification.setUserName("System");
-                    notification.setUserColor("#FF6B6B");
-                    notification.setTimestamp(LocalDateTime.now());
-                    
-                    // Send to a user-specific queue (in a real app, you'd have user-specific queues)
-                    // For now, we'll broadcast to all and let the client filter
-                    messagingTemplate.convertAndSend("/topic/notifications", notification);
-                }
+            Set<String> recipients = new HashSet<>();
+            for (String handle : extractMentions(message)) {
+                userHandleIndex.resolve(handle).ifPresent(recipients::add);
+            }
+            if (principal != null) {
+                recipients.remove(principal.getName());
+            }
+            // The notification carries the message, so only people who can open the board get it
+            if (!recipients.isEmpty()) {
+                Long boardId = projectRepository.findBoardIdById(projectId).orElse(null);
+                recipients.removeIf(email -> boardId == null || !boardRepository.isAccessibleTo(boardId, email));
+            }
+            for (String email : recipients) {
+                notificationInbox.deliver(email, new MentionNotification(projectId, chatMessage.getUserName(),
+                    chatMessage.getUserColor(), message, chatMessage.getTimestamp()));
             }
         }
-        
-        return chatMessage;
+
+        eventBus.publish(BoardTopics.chat(projectId), chatMessage);
     }
 
-    @MessageMapping("/cursor")
-    @SendTo("/topic/cursors")
-    public CursorMove handleCursorMove(CursorMove cursorMove) {
-        return cursorMove;
+    // Not relayed per frame; the aggregator sends each board's latest positions once per tick
+    @MessageMapping("/boards/{boardId}/cursor")
+    public void handleCursorMove(@DestinationVariable Long boardId, CursorMove cursorMove) {
+        cursorAggregator.submit(boardId, cursorMove);
     }
 
-    @MessageMapping("/presence")
-    @SendTo("/topic/presence")
-    public UserPresence handlePresence(UserPresence presence) {
-        return presence;
+    // The registry turns announcements into join/leave deltas; repeated announcements are not re-sent
+    @MessageMapping("/boards/{boardId}/presence")
+    public void handlePresence(@DestinationVariable Long boardId,
+                               @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId,
+                               UserPresence presence) {
+        if (presence.isConnected()) {
+            presenceRegistry.join(boardId, sessionId, presence);
+        } else {
+            presenceRegistry.leave(boardId, sessionId);
+        }
     }
 
     private Set<String> extractMentions(String message) {
@@ -1,51 +1,174 @@
 package com.agnel.devcollab.controller.api;
 
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.BoardResponse;
+import com.agnel.devcollab.dto.BoardSnapshotResponse;
+import com.agnel.devcollab.dto.ColumnResponse;
+import com.agnel.devcollab.dto.UserPresence;
 import com.agnel.devcollab.entity.Board;
 import com.agnel.devcollab.entity.BoardColumn;
 import com.agnel.devcollab.repository.BoardRepository;
 import com.agnel.devcollab.repository.ColumnRepository;
+import com.agnel.devcollab.service.BoardEventLog;
+import com.agnel.devcollab.service.BoardImportService;
+import com.agnel.devcollab.service.BoardSnapshotService;
+import com.agnel.devcollab.service.PresenceRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/boards")
 @SuppressWarnings("null")
 public class BoardRestController {
 
+    public static final String EVENT_SEQ_HEADER = "X-Event-Seq";
+
     @Autowired
     private BoardRepository boardRepository;
 
     @Autowired
     private ColumnRepository columnRepository;
 
-    @GetMapping
-    public List<Board> getAllBoards() {
-        return boardRepository.findAll();
+    @Autowired
+    private BoardSnapshotService boardSnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private BoardEventLog boardEventLog;
+
+    @Autowired
+    private BoardImportService boardImportService;
+
+    // Keyset page ordered by id; two selects per page: boards, then their columns
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BoardResponse>> getAllBoards(@RequestParam(defaultValue = "0") long afterId,
+                                                            @RequestParam(required = false) Integer limit) {
+        ResponseEntity<List<BoardResponse>> page =
+                keysetPager.page(limit, l -> boardRepository.findResponsesAfter(afterId, l), BoardResponse::getId);
+        attachColumns(page.getBody());
+        return page;
+    }
+
+    // Full export, one JSON object per line; columns are loaded per streamed chunk
+    @GetMapping(produces = KeysetPager.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamBoards() {
+        return keysetPager.stream(boardRepository::streamAllResponses, this::attachColumns);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Board> getBoard(@PathVariable long id) {
-        return boardRepository.findById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<BoardResponse> getBoard(@PathVariable long id) {
+        return boardRepository.findResponseById(id)
+                .map(board -> {
+                    board.setColumns(columnRepository.findResponsesByBoardId(id));
+                    return ResponseEntity.ok(board);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Who is online on the board right now; later changes arrive as deltas on its presence topic
+    @GetMapping("/{id}/presence")
+    public ResponseEntity<List<UserPresence>> getPresence(@PathVariable long id, Authentication auth) {
+        if (auth == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!canRead(id, auth)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(presenceRegistry.snapshot(id));
+    }
+
+    // Update events after since, from this node's recent history. 410 Gone means they cannot all be
+    // returned any more and the client should reload the board; X-Event-Seq is the board's latest number
+    @GetMapping("/{id}/events")
+    public ResponseEntity<List<BoardEvent>> getEvents(@PathVariable long id, @RequestParam long since,
+                                                      Authentication auth) {
+        if (auth == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!canRead(id, auth)) {
+            return ResponseEntity.notFound().build();
+        }
+        Long latest = boardRepository.findEventSeqById(id).orElse(null);
+        if (latest == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return boardEventLog.since(id, since, latest)
+                .map(events -> ResponseEntity.ok().header(EVENT_SEQ_HEADER, String.valueOf(latest)).body(events))
+                .orElse(ResponseEntity.status(HttpStatus.GONE).header(EVENT_SEQ_HEADER, String.valueOf(latest)).build());
+    }
+
+    // Full board tree in a fixed number of queries. The ETag is the board's event sequence, which every
+    // change to the tree bumps (see BoardEventLog.touch), so a matching If-None-Match answers 304 after
+    // one select. The sequence is read before the tree: a change committing in between is served under
+    // the older tag, which only costs the client one more full response
+    @GetMapping("/{id}/snapshot")
+    public ResponseEntity<byte[]> getBoardSnapshot(@PathVariable long id, WebRequest request)
+            throws JsonProcessingException {
+        Long seq = boardRepository.findEventSeqById(id).orElse(null);
+        if (seq == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + id + "-" + seq + "\"";
+        if (request.checkNotModified(etag)) {
+            // 304 and the ETag header are already set on the response
+            return null;
+        }
+        var snapshot = boardSnapshotService.snapshot(id).orElse(null);
+        if (snapshot == null) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] body = objectMapper.writeValueAsBytes(snapshot);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @PostMapping
-    public Board createBoard(@RequestBody Board board) {
-        return boardRepository.save(board);
+    public BoardResponse createBoard(@RequestBody Board board) {
+        return toResponse(boardRepository.save(board));
+    }
+
+    // New board from a snapshot (as GET /{id}/snapshot returns), written in batched inserts
+    @PostMapping("/import")
+    public ResponseEntity<?> importBoard(@RequestBody BoardSnapshotResponse snapshot) {
+        try {
+            return ResponseEntity.ok(toResponse(boardImportService.importSnapshot(snapshot)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Board> updateBoard(@PathVariable long id, @RequestBody Board updates) {
+    public ResponseEntity<BoardResponse> updateBoard(@PathVariable long id, @RequestBody Board updates) {
         return boardRepository.findById(id)
                 .map(board -> {
                     if (updates.getName() != null) board.setName(updates.getName());
                     if (updates.getDescription() != null) board.setDescription(updates.getDescription());
                     if (updates.getColor() != null) board.setColor(updates.getColor());
-                    return ResponseEntity.ok(boardRepository.save(board));
+                    Board saved = boardRepository.save(board);
+                    boardEventLog.touch(id);
+                    return ResponseEntity.ok(toResponse(saved));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -60,12 +183,12 @@ public class BoardRestController {
     }
 
     @GetMapping("/{boardId}/columns")
-    public List<BoardColumn> getBoardColumns(@PathVariable long boardId) {
-        return columnRepository.findByBoardIdOrderByPosition(boardId);
+    public List<ColumnResponse> getBoardColumns(@PathVariable long boardId) {
+        return columnRepository.findResponsesByBoardId(boardId);
     }
 
     @PostMapping("/{boardId}/columns")
-    public ResponseEntity<BoardColumn> addColumn(@PathVariable long boardId, @RequestBody BoardColumn column) {
+    public ResponseEntity<ColumnResponse> addColumn(@PathVariable long boardId, @RequestBody BoardColumn column) {
         return boardRepository.findById(boardId)
                 .map(board -> {
                     column.setBoard(board);
@@ -75,7 +198,8 @@ public class BoardRestController {
                         : -1;
                     column.setPosition(maxPosition + 1);
                     BoardColumn saved = columnRepository.save(column);
-                    return ResponseEntity.ok(saved);
+                    boardEventLog.touch(boardId);
+                    return ResponseEntity.ok(ColumnResponse.from(saved));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -87,13 +211,14 @@ public class BoardRestController {
         }
         if (columnRepository.existsById(columnId)) {
             columnRepository.deleteById(columnId);
+            boardEventLog.touch(boardId);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
 
     @PatchMapping("/{boardId}/columns/{columnId}")
-    public ResponseEntity<BoardColumn> updateColumn(@PathVariable long boardId, @PathVariable long columnId, @RequestBody BoardColumn updates) {
+    public ResponseEntity<ColumnResponse> updateColumn(@PathVariable long boardId, @PathVariable long columnId, @RequestBody BoardColumn updates) {
         if (!boardRepository.existsById(boardId)) {
             return ResponseEntity.notFound().build();
         }
@@ -102,20 +227,43 @@ public class BoardRestController {
                     if (updates.getName() != null) column.setName(updates.getName());
                     if (updates.getBgColor() != null) column.setBgColor(updates.getBgColor());
                     if (updates.getPosition() >= 0) column.setPosition(updates.getPosition());
-                    return ResponseEntity.ok(columnRepository.save(column));
+                    BoardColumn saved = columnRepository.save(column);
+                    boardEventLog.touch(boardId);
+                    return ResponseEntity.ok(ColumnResponse.from(saved));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/columns/{columnId}")
-    public ResponseEntity<BoardColumn> updateColumnLegacy(@PathVariable long columnId, @RequestBody BoardColumn updates) {
+    public ResponseEntity<ColumnResponse> updateColumnLegacy(@PathVariable long columnId, @RequestBody BoardColumn updates) {
         return columnRepository.findById(columnId)
                 .map(column -> {
                     if (updates.getName() != null) column.setName(updates.getName());
                     if (updates.getBgColor() != null) column.setBgColor(updates.getBgColor());
                     if (updates.getPosition() >= 0) column.setPosition(updates.getPosition());
-                    return ResponseEntity.ok(columnRepository.save(column));
+                    BoardColumn saved = columnRepository.save(column);
+                    if (saved.getBoard() != null) {
+                        boardEventLog.touch(saved.getBoard().getId());
+                    }
+                    return ResponseEntity.ok(ColumnResponse.from(saved));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    // The same check a subscription to the board's topics goes through; unknown boards are not accessible
+    private boolean canRead(long boardId, Authentication auth) {
+        return boardRepository.isAccessibleTo(boardId, auth.getName());
+    }
+
+    private void attachColumns(List<BoardResponse> boards) {
+        if (boards.isEmpty()) return;
+        Map<Long, List<ColumnResponse>> columnsByBoard = columnRepository
+                .findResponsesByBoardIdIn(boards.stream().map(BoardResponse::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ColumnResponse::getBoardId));
+        boards.forEach(board -> board.setColumns(columnsByBoard.getOrDefault(board.getId(), List.of())));
+    }
+
+    private BoardResponse toResponse(Board board) {
+        return BoardResponse.from(board, columnRepository.findResponsesByBoardId(board.getId()));
+    }
 }
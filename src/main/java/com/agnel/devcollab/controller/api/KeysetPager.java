@@ -0,0 +1,109 @@
+package com.agnel.devcollab.controller.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Shared keyset pagination and NDJSON streaming for the REST list endpoints.
+ * Pages are ordered by id; the last id of a full page is returned in X-Next-Cursor
+ * and passed back as afterId to fetch the next page.
+ */
+@Component
+public class KeysetPager {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON = "application/x-ndjson";
+
+    // Rows handed to the chunk callback at a time while streaming
+    private static final int STREAM_CHUNK = 200;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Run a keyset query and wrap the page, fetching one extra row to detect whether more remain
+     */
+    public <T> ResponseEntity<List<T>> page(Integer requestedLimit, Function<Limit, List<T>> query, Function<T, Long> idOf) {
+        int limit = clamp(requestedLimit);
+        List<T> rows = query.apply(Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return ResponseEntity.ok(rows);
+        }
+        List<T> page = rows.subList(0, limit);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(idOf.apply(page.get(limit - 1))))
+                .body(page);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> query) {
+        return stream(query, chunk -> {});
+    }
+
+    /**
+     * Write every row of a repository stream as one JSON document per line.
+     * The stream is consumed inside a read-only transaction on the response thread,
+     * so only the current chunk is held in memory.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> query, Consumer<List<T>> beforeWrite) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        StreamingResponseBody body = out -> transaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get()) {
+                Iterator<T> iterator = rows.iterator();
+                List<T> chunk = new ArrayList<>(STREAM_CHUNK);
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == STREAM_CHUNK || !iterator.hasNext()) {
+                        beforeWrite.accept(chunk);
+                        writeChunk(out, chunk);
+                        chunk.clear();
+                    }
+                }
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    private <T> void writeChunk(OutputStream out, List<T> chunk) {
+        try {
+            for (T row : chunk) {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write NDJSON row", e);
+        }
+    }
+
+    private static int clamp(Integer requestedLimit) {
+        if (requestedLimit == null || requestedLimit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(requestedLimit, MAX_LIMIT);
+    }
+}
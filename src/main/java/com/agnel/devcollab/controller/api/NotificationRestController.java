@@ -0,0 +1,34 @@
+package com.agnel.devcollab.controller.api;
+
+import com.agnel.devcollab.dto.MentionNotification;
+import com.agnel.devcollab.service.NotificationInbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationRestController {
+
+    @Autowired
+    private NotificationInbox notificationInbox;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    // The caller's own mentions after afterId; a reconnecting client passes the last id it saw
+    @GetMapping
+    public ResponseEntity<List<MentionNotification>> getNotifications(@RequestParam(defaultValue = "0") long afterId,
+                                                                      @RequestParam(required = false) Integer limit,
+                                                                      Authentication auth) {
+        if (auth == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return keysetPager.page(limit, l -> notificationInbox.after(auth.getName(), afterId, l.max()),
+                MentionNotification::getId);
+    }
+}
@@ -3,17 +3,32 @@ package com.agnel.devcollab.controller.api;
 import com.agnel.devcollab.entity.Project;
 import com.agnel.devcollab.entity.Board;
 import com.agnel.devcollab.entity.BoardColumn;
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.ChatMessage;
 import com.agnel.devcollab.dto.CreateProjectRequest;
 import com.agnel.devcollab.dto.ProjectResponse;
 import com.agnel.devcollab.repository.ProjectRepository;
 import com.agnel.devcollab.repository.ColumnRepository;
 import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.service.BoardEventLog;
+import com.agnel.devcollab.service.ChatLog;
+import com.agnel.devcollab.service.OptimisticRetry;
+import com.agnel.devcollab.service.TimerStateService;
+import com.agnel.devcollab.service.TimerStateService.Kind;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/projects")
@@ -29,11 +44,38 @@ public class ProjectRestController {
     @Autowired
     private BoardRepository boardRepository;
 
-    @GetMapping
-    public List<ProjectResponse> getAllProjects() {
-        return projectRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private ChatLog chatLog;
+
+    @Autowired
+    private BoardEventLog boardEventLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Messages shown when a chat opens
+    private static final int CHAT_PAGE_SIZE = 50;
+
+    // Keyset page ordered by id; pass X-Next-Cursor back as afterId for the next page
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProjectResponse>> getAllProjects(@RequestParam(defaultValue = "0") long afterId,
+                                                                @RequestParam(required = false) Integer limit) {
+        return keysetPager.page(limit, page -> projectRepository.findResponsesAfter(afterId, page), ProjectResponse::getId);
+    }
+
+    // Full export, one JSON object per line, without buffering the result set
+    @GetMapping(produces = KeysetPager.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamProjects() {
+        return keysetPager.stream(projectRepository::streamAllResponses);
     }
 
     @GetMapping("/board/{boardId}")
@@ -88,28 +130,14 @@ public class ProjectRestController {
             project.setTotalSecondsSpent(0);
             project.setPausedElapsedSeconds(0);
 
-            Project saved = projectRepository.save(project);
+            // The board hears about it once the project commits
+            Project saved = inTransaction(() -> {
+                Project created = projectRepository.save(project);
+                boardEventLog.enqueue(board.getId(), BoardEvent.project(BoardEvent.Type.PROJECT_CREATED, created));
+                return created;
+            });
             
-            // Convert to response DTO to avoid circular references
-            ProjectResponse response = new ProjectResponse(
-                saved.getId(),
-                saved.getName(),
-                saved.getDescription(),
-                saved.getEstimatedPomodoros(),
-                saved.getBoard().getId(),
-                saved.getBoardColumn().getId(),
-                saved.getStatus().toString(),
-                saved.getCreatedAt()
-            );
-            response.setTotalSecondsSpent(saved.getTotalSecondsSpent());
-            response.setPausedElapsedSeconds(saved.getPausedElapsedSeconds());
-            response.setCompletedPomodoros(saved.getCompletedPomodoros());
-            response.setCurrentCycle(saved.getCurrentCycle());
-            response.setPomodoroDuration(saved.getPomodoroDuration());
-            response.setBreakDuration(saved.getBreakDuration());
-            response.setIsBreak(saved.isBreak());
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(toResponse(saved));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error creating project: " + e.getMessage());
         }
@@ -118,7 +146,7 @@ public class ProjectRestController {
     @PatchMapping("/{id}")
     @SuppressWarnings("null")
     public ResponseEntity<ProjectResponse> updateProject(@PathVariable long id, @RequestBody Project updates) {
-        return projectRepository.findById(id)
+        return optimisticRetry.run(() -> projectRepository.findById(id)
                 .map(project -> {
                     if (updates.getName() != null) project.setName(updates.getName());
                     if (updates.getDescription() != null) project.setDescription(updates.getDescription());
@@ -131,103 +159,93 @@ public class ProjectRestController {
                                 .map(column -> {
                                     project.setBoardColumn(column);
                                     Project saved = projectRepository.save(project);
+                                    broadcast(saved, BoardEvent.Type.PROJECT_MOVED);
                                     return ResponseEntity.ok(toResponse(saved));
                                 })
                                 .orElse(ResponseEntity.notFound().build());
                     }
                     Project saved = projectRepository.save(project);
+                    broadcast(saved, updates.getStatus() != null ? BoardEvent.Type.PROJECT_MOVED : BoardEvent.Type.PROJECT_UPDATED);
                     return ResponseEntity.ok(toResponse(saved));
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProject(@PathVariable long id) {
-        if (projectRepository.existsById(id)) {
+        return inTransaction(() -> {
+            if (!projectRepository.existsById(id)) {
+                return ResponseEntity.notFound().<Void>build();
+            }
+            Long boardId = projectRepository.findBoardIdById(id).orElse(null);
             projectRepository.deleteById(id);
-            return ResponseEntity.ok().build();
-        }
-        return ResponseEntity.notFound().build();
+            boardEventLog.enqueue(boardId, new BoardEvent(BoardEvent.Type.PROJECT_DELETED, id));
+            return ResponseEntity.ok().<Void>build();
+        });
     }
 
     @PostMapping("/{id}/pomodoro/start")
-    public ResponseEntity<?> startPomodoro(@PathVariable long id) {
-        return projectRepository.findById(id)
-                .map(project -> {
-                    // If resuming from pause, adjust start time to account for paused elapsed time
-                    if (project.getPausedElapsedSeconds() > 0) {
-                        project.setPomodoroStart(LocalDateTime.now().minusSeconds(project.getPausedElapsedSeconds()));
-                    } else {
-                        project.setPomodoroStart(LocalDateTime.now());
-                    }
-                    project.setBreak(false);
-                    Project saved = projectRepository.save(project);
-                    return ResponseEntity.ok(toResponse(saved));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProjectResponse> startPomodoro(@PathVariable long id) {
+        return timerTransition(id, BoardEvent.Type.TIMER_STARTED, () -> timerStateService.start(Kind.PROJECT, id));
     }
 
     @PostMapping("/{id}/pomodoro/pause")
-    public ResponseEntity<?> pausePomodoro(@PathVariable long id) {
-        return projectRepository.findById(id)
-                .map(project -> {
-                    if (project.getPomodoroStart() != null) {
-                        // Calculate elapsed seconds and store for resume
-                        long secondsElapsed = java.time.Duration.between(project.getPomodoroStart(), LocalDateTime.now()).getSeconds();
-                        project.setPausedElapsedSeconds(secondsElapsed);
-                        project.setPomodoroStart(null); // Stop the timer
-                    }
-                    Project saved = projectRepository.save(project);
-                    return ResponseEntity.ok(toResponse(saved));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProjectResponse> pausePomodoro(@PathVariable long id) {
+        return timerTransition(id, BoardEvent.Type.TIMER_PAUSED, () -> timerStateService.pause(Kind.PROJECT, id));
     }
 
     @PostMapping("/{id}/pomodoro/stop")
-    public ResponseEntity<?> stopPomodoro(@PathVariable long id) {
-        return projectRepository.findById(id)
-                .map(project -> {
-                    if (project.getPomodoroStart() != null) {
-                        long secondsSpent = java.time.Duration.between(project.getPomodoroStart(), LocalDateTime.now()).getSeconds();
-                        project.setTotalSecondsSpent(project.getTotalSecondsSpent() + secondsSpent);
-                        project.setPomodoroStart(null);
-                        project.setPausedElapsedSeconds(0); // Clear paused state
-                        
-                        // Increment completed pomodoros if session was long enough (e.g., > 1 second for testing)
-                        if (secondsSpent > 1) {
-                            int completed = project.getCompletedPomodoros() != null ? project.getCompletedPomodoros() : 0;
-                            project.setCompletedPomodoros(completed + 1);
-                        }
-                    } else if (project.getPausedElapsedSeconds() > 0) {
-                        // If stopping while paused, add the paused time to total
-                        project.setTotalSecondsSpent(project.getTotalSecondsSpent() + project.getPausedElapsedSeconds());
-                        project.setPausedElapsedSeconds(0);
-                    }
-                    Project saved = projectRepository.save(project);
-                    return ResponseEntity.ok(toResponse(saved));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProjectResponse> stopPomodoro(@PathVariable long id) {
+        return timerTransition(id, BoardEvent.Type.TIMER_STOPPED, () -> timerStateService.stop(Kind.PROJECT, id));
+    }
+
+    // Chat history, oldest first; pass X-Next-Cursor back as before for the previous page.
+    // Readable by whoever may subscribe to the project's chat topic, i.e. see its board
+    @GetMapping("/{id}/chat")
+    public ResponseEntity<List<ChatMessage>> getChatHistory(@PathVariable long id,
+                                                            @RequestParam(required = false) Long before,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            Authentication auth) {
+        if (auth == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Long boardId = projectRepository.findBoardIdById(id).orElse(null);
+        if (boardId == null || !boardRepository.isAccessibleTo(boardId, auth.getName())) {
+            return ResponseEntity.notFound().build();
+        }
+        int pageSize = (limit == null) ? CHAT_PAGE_SIZE : Math.max(1, Math.min(limit, KeysetPager.MAX_LIMIT));
+        List<ChatMessage> page = chatLog.before(id, before, pageSize);
+        if (page.size() == pageSize && page.get(0).getId() > 0) {
+            return ResponseEntity.ok()
+                    .header(KeysetPager.NEXT_CURSOR_HEADER, String.valueOf(page.get(0).getId()))
+                    .body(page);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    // Transitions are single UPDATEs; a transition that did not apply just returns the current state
+    private ResponseEntity<ProjectResponse> timerTransition(long id, BoardEvent.Type type, BooleanSupplier transition) {
+        return inTransaction(() -> {
+            boolean applied = transition.getAsBoolean();
+            Optional<ProjectResponse> project = projectRepository.findResponseById(id);
+            if (applied) {
+                project.ifPresent(current -> boardEventLog.enqueue(current.getBoardId(), BoardEvent.projectTimer(type, current)));
+            }
+            return project.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        });
+    }
+
+    private void broadcast(Project project, BoardEvent.Type type) {
+        if (project.getBoard() != null) {
+            boardEventLog.enqueue(project.getBoard().getId(), BoardEvent.project(type, project));
+        }
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
     }
 
     private ProjectResponse toResponse(Project project) {
-        ProjectResponse response = new ProjectResponse(
-            project.getId(),
-            project.getName(),
-            project.getDescription(),
-            project.getEstimatedPomodoros(),
-            project.getBoard().getId(),
-            project.getBoardColumn().getId(),
-            project.getStatus().toString(),
-            project.getCreatedAt()
-        );
-        response.setTotalSecondsSpent(project.getTotalSecondsSpent());
-        response.setPausedElapsedSeconds(project.getPausedElapsedSeconds());
-        response.setCompletedPomodoros(project.getCompletedPomodoros());
-        response.setCurrentCycle(project.getCurrentCycle());
-        response.setPomodoroDuration(project.getPomodoroDuration());
-        response.setBreakDuration(project.getBreakDuration());
-        response.setIsBreak(project.isBreak());
-        response.setPomodoroStart(project.getPomodoroStart());
-        return response;
+        return ProjectResponse.from(project);
     }
 }
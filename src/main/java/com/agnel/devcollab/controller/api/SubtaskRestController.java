@@ -1,14 +1,26 @@
 package com.agnel.devcollab.controller.api;
 
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.SubtaskResponse;
 import com.agnel.devcollab.entity.Subtask;
 import com.agnel.devcollab.repository.SubtaskRepository;
 import com.agnel.devcollab.repository.TaskRepository;
+import com.agnel.devcollab.service.BoardEventLog;
+import com.agnel.devcollab.service.OptimisticRetry;
+import com.agnel.devcollab.service.TimerStateService;
+import com.agnel.devcollab.service.TimerStateService.Kind;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/subtasks")
@@ -21,85 +33,120 @@ public class SubtaskRestController {
     @Autowired
     private TaskRepository taskRepository;
 
-    @GetMapping
-    public List<Subtask> getAllSubtasks() {
-        return subtaskRepository.findAll();
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private BoardEventLog boardEventLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Keyset page ordered by id; pass X-Next-Cursor back as afterId for the next page
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<SubtaskResponse>> getAllSubtasks(@RequestParam(defaultValue = "0") long afterId,
+                                                   @RequestParam(required = false) Integer limit) {
+        return keysetPager.page(limit, page -> subtaskRepository.findResponsesAfter(afterId, page), SubtaskResponse::getId);
+    }
+
+    // Full export, one JSON object per line, without buffering the result set
+    @GetMapping(produces = KeysetPager.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamSubtasks() {
+        return keysetPager.stream(subtaskRepository::streamAllResponses);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Subtask> getSubtask(@PathVariable long id) {
-        return subtaskRepository.findById(id)
+    public ResponseEntity<SubtaskResponse> getSubtask(@PathVariable long id) {
+        return subtaskRepository.findResponseById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/task/{taskId}")
-    public List<Subtask> getSubtasksByTask(@PathVariable long taskId) {
-        return subtaskRepository.findByTaskId(taskId);
+    public List<SubtaskResponse> getSubtasksByTask(@PathVariable long taskId) {
+        return subtaskRepository.findResponsesByTaskId(taskId);
     }
 
     @PostMapping
     @SuppressWarnings("null")
-    public ResponseEntity<Subtask> createSubtask(@RequestBody Subtask subtask) {
+    public ResponseEntity<SubtaskResponse> createSubtask(@RequestBody Subtask subtask) {
         if (subtask.getTask() == null || subtask.getTask().getId() == null) {
             return ResponseEntity.badRequest().build();
         }
         
-        return taskRepository.findById(subtask.getTask().getId())
+        return inTransaction(() -> taskRepository.findById(subtask.getTask().getId())
                 .map(task -> {
                     subtask.setTask(task);
-                    return ResponseEntity.ok(subtaskRepository.save(subtask));
+                    SubtaskResponse created = SubtaskResponse.from(subtaskRepository.save(subtask));
+                    broadcast(BoardEvent.subtask(BoardEvent.Type.SUBTASK_CREATED, task.getProject().getId(), created));
+                    return ResponseEntity.ok(created);
                 })
-                .orElse(ResponseEntity.badRequest().build());
+                .orElse(ResponseEntity.badRequest().build()));
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Subtask> updateSubtask(@PathVariable long id, @RequestBody Subtask updates) {
-        return subtaskRepository.findById(id)
+    public ResponseEntity<SubtaskResponse> updateSubtask(@PathVariable long id, @RequestBody Subtask updates) {
+        return optimisticRetry.run(() -> subtaskRepository.findById(id)
                 .map(subtask -> {
                     if (updates.getName() != null) subtask.setName(updates.getName());
                     if (updates.getCompleted() != null) subtask.setCompleted(updates.getCompleted());
                     if (updates.getEstimatedPomodoros() != null) subtask.setEstimatedPomodoros(updates.getEstimatedPomodoros());
-                    return ResponseEntity.ok(subtaskRepository.save(subtask));
+                    SubtaskResponse saved = SubtaskResponse.from(subtaskRepository.save(subtask));
+                    broadcast(BoardEvent.subtask(BoardEvent.Type.SUBTASK_UPDATED, subtask.getTask().getProject().getId(), saved));
+                    return ResponseEntity.ok(saved);
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSubtask(@PathVariable long id) {
-        if (subtaskRepository.existsById(id)) {
-            subtaskRepository.deleteById(id);
-            return ResponseEntity.ok().build();
-        }
-        return ResponseEntity.notFound().build();
+        return inTransaction(() -> subtaskRepository.findResponseById(id)
+                .map(subtask -> {
+                    Long projectId = timerStateService.findProjectId(Kind.SUBTASK, id).orElse(null);
+                    subtaskRepository.deleteById(id);
+                    BoardEvent event = new BoardEvent(BoardEvent.Type.SUBTASK_DELETED, projectId);
+                    event.setTaskId(subtask.getTaskId());
+                    event.setSubtaskId(id);
+                    broadcast(event);
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @PostMapping("/{id}/pomodoro/start")
-    public ResponseEntity<Subtask> startPomodoro(@PathVariable long id) {
-        return subtaskRepository.findById(id)
-                .map(subtask -> {
-                    subtask.setPomodoroStart(LocalDateTime.now());
-                    return ResponseEntity.ok(subtaskRepository.save(subtask));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<SubtaskResponse> startPomodoro(@PathVariable long id) {
+        return timerTransition(id, BoardEvent.Type.TIMER_STARTED, () -> timerStateService.start(Kind.SUBTASK, id));
     }
 
     @PostMapping("/{id}/pomodoro/stop")
-    public ResponseEntity<Subtask> stopPomodoro(@PathVariable long id) {
-        return subtaskRepository.findById(id)
-                .map(subtask -> {
-                    if (subtask.getPomodoroStart() != null) {
-                        long secondsSpent = java.time.Duration.between(subtask.getPomodoroStart(), LocalDateTime.now()).getSeconds();
-                        subtask.setTotalSecondsSpent(subtask.getTotalSecondsSpent() + secondsSpent);
-                        subtask.setPomodoroStart(null);
-                        
-                        if (secondsSpent > 1) {
-                            int completed = subtask.getCompletedPomodoros() != null ? subtask.getCompletedPomodoros() : 0;
-                            subtask.setCompletedPomodoros(completed + 1);
-                        }
-                    }
-                    return ResponseEntity.ok(subtaskRepository.save(subtask));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<SubtaskResponse> stopPomodoro(@PathVariable long id) {
+        return timerTransition(id, BoardEvent.Type.TIMER_STOPPED, () -> timerStateService.stop(Kind.SUBTASK, id));
+    }
+
+    // Transitions are single UPDATEs; a transition that did not apply just returns the current state
+    private ResponseEntity<SubtaskResponse> timerTransition(long id, BoardEvent.Type type, BooleanSupplier transition) {
+        return inTransaction(() -> {
+            boolean applied = transition.getAsBoolean();
+            Optional<SubtaskResponse> subtask = subtaskRepository.findResponseById(id);
+            if (applied) {
+                subtask.ifPresent(current -> timerStateService.findProjectId(Kind.SUBTASK, id)
+                        .ifPresent(projectId -> broadcast(BoardEvent.subtask(type, projectId, current))));
+            }
+            return subtask.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        });
+    }
+
+    private void broadcast(BoardEvent event) {
+        boardEventLog.enqueueForProject(event.getProjectId(), event);
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
     }
 }
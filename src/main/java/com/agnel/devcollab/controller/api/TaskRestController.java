@@ -1,14 +1,27 @@
 package com.agnel.devcollab.controller.api;
 
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.TaskResponse;
 import com.agnel.devcollab.entity.Task;
 import com.agnel.devcollab.repository.TaskRepository;
 import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.service.BoardEventLog;
+import com.agnel.devcollab.service.OptimisticRetry;
+import com.agnel.devcollab.service.TimerStateService;
+import com.agnel.devcollab.service.TimerStateService.Kind;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -21,42 +34,67 @@ public class TaskRestController {
     @Autowired
     private ProjectRepository projectRepository;
 
-    @GetMapping
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private BoardEventLog boardEventLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Keyset page ordered by id; pass X-Next-Cursor back as afterId for the next page
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TaskResponse>> getAllTasks(@RequestParam(defaultValue = "0") long afterId,
+                                                   @RequestParam(required = false) Integer limit) {
+        return keysetPager.page(limit, page -> taskRepository.findResponsesAfter(afterId, page), TaskResponse::getId);
+    }
+
+    // Full export, one JSON object per line, without buffering the result set
+    @GetMapping(produces = KeysetPager.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamTasks() {
+        return keysetPager.stream(taskRepository::streamAllResponses);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(@PathVariable long id) {
-        return taskRepository.findById(id)
+    public ResponseEntity<TaskResponse> getTask(@PathVariable long id) {
+        return taskRepository.findResponseById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/project/{projectId}")
-    public List<Task> getTasksByProject(@PathVariable long projectId) {
-        return taskRepository.findByProjectId(projectId);
+    public List<TaskResponse> getTasksByProject(@PathVariable long projectId) {
+        return taskRepository.findResponsesByProjectId(projectId);
     }
 
     @PostMapping
     @SuppressWarnings("null")
-    public ResponseEntity<Task> createTask(@RequestBody Task task) {
+    public ResponseEntity<TaskResponse> createTask(@RequestBody Task task) {
         if (task.getProject() == null || task.getProject().getId() == null) {
             return ResponseEntity.badRequest().build();
         }
         
-        return projectRepository.findById(task.getProject().getId())
+        return inTransaction(() -> projectRepository.findById(task.getProject().getId())
                 .map(project -> {
                     task.setProject(project);
                     task.setCreatedAt(LocalDateTime.now());
-                    return ResponseEntity.ok(taskRepository.save(task));
+                    TaskResponse created = TaskResponse.from(taskRepository.save(task));
+                    broadcast(BoardEvent.task(BoardEvent.Type.TASK_CREATED, created));
+                    return ResponseEntity.ok(created);
                 })
-                .orElse(ResponseEntity.badRequest().build());
+                .orElse(ResponseEntity.badRequest().build()));
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable long id, @RequestBody Task updates) {
-        return taskRepository.findById(id)
+    public ResponseEntity<TaskResponse> updateTask(@PathVariable long id, @RequestBody Task updates) {
+        return optimisticRetry.run(() -> taskRepository.findById(id)
                 .map(task -> {
                     if (updates.getName() != null) task.setName(updates.getName());
                     if (updates.getDescription() != null) task.setDescription(updates.getDescription());
@@ -67,47 +105,53 @@ public class TaskRestController {
                         }
                     }
                     if (updates.getEstimatedPomodoros() != null) task.setEstimatedPomodoros(updates.getEstimatedPomodoros());
-                    return ResponseEntity.ok(taskRepository.save(task));
+                    TaskResponse saved = TaskResponse.from(taskRepository.save(task));
+                    broadcast(BoardEvent.task(BoardEvent.Type.TASK_UPDATED, saved));
+                    return ResponseEntity.ok(saved);
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable long id) {
-        if (taskRepository.existsById(id)) {
-            taskRepository.deleteById(id);
-            return ResponseEntity.ok().build();
-        }
-        return ResponseEntity.notFound().build();
+        return inTransaction(() -> taskRepository.findResponseById(id)
+                .map(task -> {
+                    taskRepository.deleteById(id);
+                    BoardEvent event = new BoardEvent(BoardEvent.Type.TASK_DELETED, task.getProjectId());
+                    event.setTaskId(id);
+                    broadcast(event);
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @PostMapping("/{id}/pomodoro/start")
-    public ResponseEntity<Task> startPomodoro(@PathVariable long id) {
-        return taskRepository.findById(id)
-                .map(task -> {
-                    task.setPomodoroStart(LocalDateTime.now());
-                    task.setBreak(false);
-                    return ResponseEntity.ok(taskRepository.save(task));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<TaskResponse> startPomodoro(@PathVariable long id) {
+        return timerTransition(id, BoardEvent.Type.TIMER_STARTED, () -> timerStateService.start(Kind.TASK, id));
     }
 
     @PostMapping("/{id}/pomodoro/stop")
-    public ResponseEntity<Task> stopPomodoro(@PathVariable long id) {
-        return taskRepository.findById(id)
-                .map(task -> {
-                    if (task.getPomodoroStart() != null) {
-                        long secondsSpent = java.time.Duration.between(task.getPomodoroStart(), LocalDateTime.now()).getSeconds();
-                        task.setTotalSecondsSpent(task.getTotalSecondsSpent() + secondsSpent);
-                        task.setPomodoroStart(null);
-                        
-                        if (secondsSpent > 1) {
-                            int completed = task.getCompletedPomodoros() != null ? task.getCompletedPomodoros() : 0;
-                            task.setCompletedPomodoros(completed + 1);
-                        }
-                    }
-                    return ResponseEntity.ok(taskRepository.save(task));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<TaskResponse> stopPomodoro(@PathVariable long id) {
+        return timerTransition(id, BoardEvent.Type.TIMER_STOPPED, () -> timerStateService.stop(Kind.TASK, id));
+    }
+
+    // Transitions are single UPDATEs; a transition that did not apply just returns the current state
+    private ResponseEntity<TaskResponse> timerTransition(long id, BoardEvent.Type type, BooleanSupplier transition) {
+        return inTransaction(() -> {
+            boolean applied = transition.getAsBoolean();
+            Optional<TaskResponse> task = taskRepository.findResponseById(id);
+            if (applied) {
+                task.ifPresent(current -> broadcast(BoardEvent.task(type, current)));
+            }
+            return task.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        });
+    }
+
+    private void broadcast(BoardEvent event) {
+        boardEventLog.enqueueForProject(event.getProjectId(), event);
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
     }
 }
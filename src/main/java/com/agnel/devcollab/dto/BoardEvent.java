@@ -0,0 +1,150 @@
+package com.agnel.devcollab.dto;
+
+import com.agnel.devcollab.entity.Project;
+import java.time.LocalDateTime;
+
+/**
+ * One change on a board, sent on its updates topic and kept by BoardEventLog for
+ * catch-up. seq numbers a board's events 1, 2, 3 ... so a client that sees a jump
+ * knows it missed some and fetches them from /api/boards/{id}/events?since=.
+ *
+ * Only what the change touched is set; null means unchanged. Timer events carry the
+ * timer's whole state (pomodoroStart, isBreak, totalSecondsSpent), where a null
+ * pomodoroStart means stopped. projectId is always set; taskId and subtaskId are set
+ * when the change, or the timer, belongs to a task or subtask.
+ */
+public class BoardEvent {
+
+    // Bumped when a field changes meaning, so old clients can fall back to reloading
+    public static final int VERSION = 1;
+
+    public enum Type {
+        PROJECT_CREATED, PROJECT_UPDATED, PROJECT_MOVED, PROJECT_DELETED,
+        TIMER_STARTED, TIMER_PAUSED, TIMER_STOPPED, TIMER_COMPLETED, BREAK_ENDED,
+        TASK_CREATED, TASK_UPDATED, TASK_DELETED,
+        SUBTASK_CREATED, SUBTASK_UPDATED, SUBTASK_DELETED
+    }
+
+    private int version = VERSION;
+    private Long boardId;
+    private long seq;
+    private Type type;
+    private Long projectId;
+    private Long taskId;
+    private Long subtaskId;
+    private String name;
+    private String status;
+    private Long columnId;
+    private LocalDateTime pomodoroStart;
+    private Boolean isBreak;
+    private Long totalSecondsSpent;
+    private Boolean completed;
+    private String userName;
+    private String userColor;
+
+    public BoardEvent() {}
+
+    public BoardEvent(Type type, Long projectId) {
+        this.type = type;
+        this.projectId = projectId;
+    }
+
+    // Created, updated, moved: the project's fields that show on its card
+    public static BoardEvent project(Type type, ProjectResponse project) {
+        BoardEvent event = new BoardEvent(type, project.getId());
+        event.setName(project.getName());
+        event.setStatus(project.getStatus());
+        event.setColumnId(project.getBoardColumnId());
+        return event;
+    }
+
+    public static BoardEvent project(Type type, Project project) {
+        BoardEvent event = new BoardEvent(type, project.getId());
+        event.setName(project.getName());
+        event.setStatus(project.getStatus() != null ? project.getStatus().toString() : null);
+        event.setColumnId(project.getBoardColumn() != null ? project.getBoardColumn().getId() : null);
+        return event;
+    }
+
+    // Starting a timer can also move the project, so its column comes along
+    public static BoardEvent projectTimer(Type type, ProjectResponse project) {
+        BoardEvent event = project(type, project);
+        event.setPomodoroStart(project.getPomodoroStart());
+        event.setIsBreak(project.getIsBreak());
+        event.setTotalSecondsSpent(project.getTotalSecondsSpent());
+        return event;
+    }
+
+    // Created, updated and timer events: the task's fields and timer state
+    public static BoardEvent task(Type type, TaskResponse task) {
+        BoardEvent event = new BoardEvent(type, task.getProjectId());
+        event.setTaskId(task.getId());
+        event.setName(task.getName());
+        event.setStatus(task.getStatus());
+        event.setPomodoroStart(task.getPomodoroStart());
+        event.setIsBreak(task.getIsBreak());
+        event.setTotalSecondsSpent(task.getTotalSecondsSpent());
+        return event;
+    }
+
+    public static BoardEvent subtask(Type type, Long projectId, SubtaskResponse subtask) {
+        BoardEvent event = new BoardEvent(type, projectId);
+        event.setTaskId(subtask.getTaskId());
+        event.setSubtaskId(subtask.getId());
+        event.setName(subtask.getName());
+        event.setCompleted(subtask.getCompleted());
+        event.setPomodoroStart(subtask.getPomodoroStart());
+        event.setIsBreak(false);
+        event.setTotalSecondsSpent(subtask.getTotalSecondsSpent());
+        return event;
+    }
+
+    // Getters and Setters
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public Long getBoardId() { return boardId; }
+    public void setBoardId(Long boardId) { this.boardId = boardId; }
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public Long getSubtaskId() { return subtaskId; }
+    public void setSubtaskId(Long subtaskId) { this.subtaskId = subtaskId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getColumnId() { return columnId; }
+    public void setColumnId(Long columnId) { this.columnId = columnId; }
+
+    public LocalDateTime getPomodoroStart() { return pomodoroStart; }
+    public void setPomodoroStart(LocalDateTime pomodoroStart) { this.pomodoroStart = pomodoroStart; }
+
+    public Boolean getIsBreak() { return isBreak; }
+    public void setIsBreak(Boolean isBreak) { this.isBreak = isBreak; }
+
+    public Long getTotalSecondsSpent() { return totalSecondsSpent; }
+    public void setTotalSecondsSpent(Long totalSecondsSpent) { this.totalSecondsSpent = totalSecondsSpent; }
+
+    public Boolean getCompleted() { return completed; }
+    public void setCompleted(Boolean completed) { this.completed = completed; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public String getUserColor() { return userColor; }
+    public void setUserColor(String userColor) { this.userColor = userColor; }
+}
@@ -0,0 +1,63 @@
+package com.agnel.devcollab.dto;
+
+import com.agnel.devcollab.entity.Board;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BoardResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private String color;
+    private Long ownerId;
+    private LocalDateTime createdAt;
+    private List<ColumnResponse> columns = new ArrayList<>();
+
+    public BoardResponse() {}
+
+    public BoardResponse(Long id, String name, String description, String color, Long ownerId, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.color = color;
+        this.ownerId = ownerId;
+        this.createdAt = createdAt;
+    }
+
+    // Columns are supplied separately so callers control how they are loaded
+    public static BoardResponse from(Board board, List<ColumnResponse> columns) {
+        BoardResponse response = new BoardResponse(
+            board.getId(),
+            board.getName(),
+            board.getDescription(),
+            board.getColor(),
+            board.getOwner() != null ? board.getOwner().getId() : null,
+            board.getCreatedAt()
+        );
+        response.setColumns(columns);
+        return response;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getColor() { return color; }
+    public void setColor(String color) { this.color = color; }
+
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public List<ColumnResponse> getColumns() { return columns; }
+    public void setColumns(List<ColumnResponse> columns) { this.columns = columns; }
+}
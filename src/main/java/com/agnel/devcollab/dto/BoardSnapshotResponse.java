@@ -0,0 +1,37 @@
+package com.agnel.devcollab.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Whole board tree as flat lists linked by id (columns are nested in board)
+ */
+public class BoardSnapshotResponse {
+    private BoardResponse board;
+    private List<ProjectResponse> projects = new ArrayList<>();
+    private List<TaskResponse> tasks = new ArrayList<>();
+    private List<SubtaskResponse> subtasks = new ArrayList<>();
+
+    public BoardSnapshotResponse() {}
+
+    public BoardSnapshotResponse(BoardResponse board, List<ProjectResponse> projects,
+                                 List<TaskResponse> tasks, List<SubtaskResponse> subtasks) {
+        this.board = board;
+        this.projects = projects;
+        this.tasks = tasks;
+        this.subtasks = subtasks;
+    }
+
+    // Getters and Setters
+    public BoardResponse getBoard() { return board; }
+    public void setBoard(BoardResponse board) { this.board = board; }
+
+    public List<ProjectResponse> getProjects() { return projects; }
+    public void setProjects(List<ProjectResponse> projects) { this.projects = projects; }
+
+    public List<TaskResponse> getTasks() { return tasks; }
+    public void setTasks(List<TaskResponse> tasks) { this.tasks = tasks; }
+
+    public List<SubtaskResponse> getSubtasks() { return subtasks; }
+    public void setSubtasks(List<SubtaskResponse> subtasks) { this.subtasks = subtasks; }
+}
@@ -3,6 +3,7 @@ package com.agnel.devcollab.dto;
 import java.time.LocalDateTime;
 
 public class ChatMessage {
+    private Long id; // Position in the project's chat log, assigned when stored
     private Long projectId;
     private String message;
     private String userName;
@@ -20,6 +21,9 @@ public class ChatMessage {
     }
 
     // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
     public Long getProjectId() { return projectId; }
     public void setProjectId(Long projectId) { this.projectId = projectId; }
 
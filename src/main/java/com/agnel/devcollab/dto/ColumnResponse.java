@@ -0,0 +1,47 @@
+package com.agnel.devcollab.dto;
+
+import com.agnel.devcollab.entity.BoardColumn;
+
+public class ColumnResponse {
+    private Long id;
+    private String name;
+    private int position;
+    private String bgColor;
+    private Long boardId;
+
+    public ColumnResponse() {}
+
+    public ColumnResponse(Long id, String name, int position, String bgColor, Long boardId) {
+        this.id = id;
+        this.name = name;
+        this.position = position;
+        this.bgColor = bgColor;
+        this.boardId = boardId;
+    }
+
+    public static ColumnResponse from(BoardColumn column) {
+        return new ColumnResponse(
+            column.getId(),
+            column.getName(),
+            column.getPosition(),
+            column.getBgColor(),
+            column.getBoard() != null ? column.getBoard().getId() : null
+        );
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getPosition() { return position; }
+    public void setPosition(int position) { this.position = position; }
+
+    public String getBgColor() { return bgColor; }
+    public void setBgColor(String bgColor) { this.bgColor = bgColor; }
+
+    public Long getBoardId() { return boardId; }
+    public void setBoardId(Long boardId) { this.boardId = boardId; }
+}
@@ -0,0 +1,25 @@
+package com.agnel.devcollab.dto;
+
+import java.util.List;
+
+/**
+ * The latest cursor position of every user who moved on a board since the last tick
+ */
+public class CursorBatch {
+    private Long boardId;
+    private List<CursorMove> cursors;
+
+    public CursorBatch() {}
+
+    public CursorBatch(Long boardId, List<CursorMove> cursors) {
+        this.boardId = boardId;
+        this.cursors = cursors;
+    }
+
+    // Getters and Setters
+    public Long getBoardId() { return boardId; }
+    public void setBoardId(Long boardId) { this.boardId = boardId; }
+
+    public List<CursorMove> getCursors() { return cursors; }
+    public void setCursors(List<CursorMove> cursors) { this.cursors = cursors; }
+}
@@ -0,0 +1,44 @@
+package com.agnel.devcollab.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A chat @mention delivered to the mentioned user only; id orders a user's inbox
+ */
+public class MentionNotification {
+    private Long id;
+    private Long projectId;
+    private String fromUser;
+    private String fromColor;
+    private String message;
+    private LocalDateTime timestamp;
+
+    public MentionNotification() {}
+
+    public MentionNotification(Long projectId, String fromUser, String fromColor, String message, LocalDateTime timestamp) {
+        this.projectId = projectId;
+        this.fromUser = fromUser;
+        this.fromColor = fromColor;
+        this.message = message;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+
+    public String getFromUser() { return fromUser; }
+    public void setFromUser(String fromUser) { this.fromUser = fromUser; }
+
+    public String getFromColor() { return fromColor; }
+    public void setFromColor(String fromColor) { this.fromColor = fromColor; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,41 @@
+package com.agnel.devcollab.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Per-day Pomodoro aggregate computed in the database (one row per day in range)
+ */
+public class PomodoroDailyStats {
+    private LocalDate day;
+    private long totalSessions;
+    private long completedSessions;
+    private long completedMinutes;
+    private long distractions;
+
+    public PomodoroDailyStats() {}
+
+    public PomodoroDailyStats(LocalDate day, Long totalSessions, Long completedSessions,
+                              Long completedMinutes, Long distractions) {
+        this.day = day;
+        this.totalSessions = totalSessions != null ? totalSessions : 0;
+        this.completedSessions = completedSessions != null ? completedSessions : 0;
+        this.completedMinutes = completedMinutes != null ? completedMinutes : 0;
+        this.distractions = distractions != null ? distractions : 0;
+    }
+
+    // Getters and Setters
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public long getTotalSessions() { return totalSessions; }
+    public void setTotalSessions(long totalSessions) { this.totalSessions = totalSessions; }
+
+    public long getCompletedSessions() { return completedSessions; }
+    public void setCompletedSessions(long completedSessions) { this.completedSessions = completedSessions; }
+
+    public long getCompletedMinutes() { return completedMinutes; }
+    public void setCompletedMinutes(long completedMinutes) { this.completedMinutes = completedMinutes; }
+
+    public long getDistractions() { return distractions; }
+    public void setDistractions(long distractions) { this.distractions = distractions; }
+}
@@ -0,0 +1,28 @@
+package com.agnel.devcollab.dto;
+
+/**
+ * Range-wide Pomodoro aggregate used for efficiency scoring
+ */
+public class PomodoroStatsSummary {
+    private long totalSessions;
+    private long completedSessions;
+    private double averageDistractions;
+
+    public PomodoroStatsSummary() {}
+
+    public PomodoroStatsSummary(Long totalSessions, Long completedSessions, Double averageDistractions) {
+        this.totalSessions = totalSessions != null ? totalSessions : 0;
+        this.completedSessions = completedSessions != null ? completedSessions : 0;
+        this.averageDistractions = averageDistractions != null ? averageDistractions : 0.0;
+    }
+
+    // Getters and Setters
+    public long getTotalSessions() { return totalSessions; }
+    public void setTotalSessions(long totalSessions) { this.totalSessions = totalSessions; }
+
+    public long getCompletedSessions() { return completedSessions; }
+    public void setCompletedSessions(long completedSessions) { this.completedSessions = completedSessions; }
+
+    public double getAverageDistractions() { return averageDistractions; }
+    public void setAverageDistractions(double averageDistractions) { this.averageDistractions = averageDistractions; }
+}
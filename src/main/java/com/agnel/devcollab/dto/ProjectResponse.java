@@ -1,5 +1,6 @@
 package com.agnel.devcollab.dto;
 
+import com.agnel.devcollab.entity.Project;
 import java.time.LocalDateTime;
 
 public class ProjectResponse {
@@ -35,6 +36,48 @@ public class ProjectResponse {
         this.createdAt = createdAt;
     }
 
+    // Used by JPQL constructor expressions so list endpoints never load Project entities
+    public ProjectResponse(Long id, String name, String description, Integer estimatedPomodoros,
+                          Long boardId, Long boardColumnId, Project.Status status, LocalDateTime createdAt,
+                          long totalSecondsSpent, long pausedElapsedSeconds, Integer completedPomodoros,
+                          Integer currentCycle, LocalDateTime pomodoroStart, LocalDateTime completedAt,
+                          int pomodoroDuration, int breakDuration, boolean isBreak) {
+        this(id, name, description, estimatedPomodoros, boardId, boardColumnId,
+             status != null ? status.toString() : null, createdAt);
+        this.totalSecondsSpent = totalSecondsSpent;
+        this.pausedElapsedSeconds = pausedElapsedSeconds;
+        this.completedPomodoros = completedPomodoros;
+        this.currentCycle = currentCycle;
+        this.pomodoroStart = pomodoroStart;
+        this.completedAt = completedAt;
+        this.pomodoroDuration = pomodoroDuration;
+        this.breakDuration = breakDuration;
+        this.isBreak = isBreak;
+    }
+
+    public static ProjectResponse from(Project project) {
+        ProjectResponse response = new ProjectResponse(
+            project.getId(),
+            project.getName(),
+            project.getDescription(),
+            project.getEstimatedPomodoros(),
+            project.getBoard().getId(),
+            project.getBoardColumn().getId(),
+            project.getStatus().toString(),
+            project.getCreatedAt()
+        );
+        response.setTotalSecondsSpent(project.getTotalSecondsSpent());
+        response.setPausedElapsedSeconds(project.getPausedElapsedSeconds());
+        response.setCompletedPomodoros(project.getCompletedPomodoros());
+        response.setCurrentCycle(project.getCurrentCycle());
+        response.setPomodoroDuration(project.getPomodoroDuration());
+        response.setBreakDuration(project.getBreakDuration());
+        response.setIsBreak(project.isBreak());
+        response.setPomodoroStart(project.getPomodoroStart());
+        response.setCompletedAt(project.getCompletedAt());
+        return response;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,83 @@
+package com.agnel.devcollab.dto;
+
+import com.agnel.devcollab.entity.Subtask;
+import java.time.LocalDateTime;
+
+public class SubtaskResponse {
+    private Long id;
+    private String name;
+    private Long taskId;
+    private LocalDateTime pomodoroStart;
+    private long totalSecondsSpent;
+    private Integer estimatedPomodoros;
+    private Integer completedPomodoros;
+    private Integer currentCycle;
+    private Boolean completed;
+    private double completionPercentage;
+
+    public SubtaskResponse() {}
+
+    // Used by JPQL constructor expressions so list endpoints never load Subtask entities
+    public SubtaskResponse(Long id, String name, Long taskId, LocalDateTime pomodoroStart, long totalSecondsSpent,
+                           Integer estimatedPomodoros, Integer completedPomodoros, Integer currentCycle, Boolean completed) {
+        this.id = id;
+        this.name = name;
+        this.taskId = taskId;
+        this.pomodoroStart = pomodoroStart;
+        this.totalSecondsSpent = totalSecondsSpent;
+        this.estimatedPomodoros = estimatedPomodoros;
+        this.completedPomodoros = completedPomodoros;
+        this.currentCycle = currentCycle;
+        this.completed = completed;
+        // Same rule as Subtask.getCompletionPercentage
+        if (estimatedPomodoros != null && estimatedPomodoros != 0 && completedPomodoros != null) {
+            this.completionPercentage = Math.min(100.0, (completedPomodoros * 100.0) / estimatedPomodoros);
+        }
+    }
+
+    public static SubtaskResponse from(Subtask subtask) {
+        SubtaskResponse response = new SubtaskResponse();
+        response.setId(subtask.getId());
+        response.setName(subtask.getName());
+        response.setTaskId(subtask.getTask() != null ? subtask.getTask().getId() : null);
+        response.setPomodoroStart(subtask.getPomodoroStart());
+        response.setTotalSecondsSpent(subtask.getTotalSecondsSpent());
+        response.setEstimatedPomodoros(subtask.getEstimatedPomodoros());
+        response.setCompletedPomodoros(subtask.getCompletedPomodoros());
+        response.setCurrentCycle(subtask.getCurrentCycle());
+        response.setCompleted(subtask.getCompleted());
+        response.setCompletionPercentage(subtask.getCompletionPercentage());
+        return response;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public LocalDateTime getPomodoroStart() { return pomodoroStart; }
+    public void setPomodoroStart(LocalDateTime pomodoroStart) { this.pomodoroStart = pomodoroStart; }
+
+    public long getTotalSecondsSpent() { return totalSecondsSpent; }
+    public void setTotalSecondsSpent(long totalSecondsSpent) { this.totalSecondsSpent = totalSecondsSpent; }
+
+    public Integer getEstimatedPomodoros() { return estimatedPomodoros; }
+    public void setEstimatedPomodoros(Integer estimatedPomodoros) { this.estimatedPomodoros = estimatedPomodoros; }
+
+    public Integer getCompletedPomodoros() { return completedPomodoros; }
+    public void setCompletedPomodoros(Integer completedPomodoros) { this.completedPomodoros = completedPomodoros; }
+
+    public Integer getCurrentCycle() { return currentCycle; }
+    public void setCurrentCycle(Integer currentCycle) { this.currentCycle = currentCycle; }
+
+    public Boolean getCompleted() { return completed; }
+    public void setCompleted(Boolean completed) { this.completed = completed; }
+
+    public double getCompletionPercentage() { return completionPercentage; }
+    public void setCompletionPercentage(double completionPercentage) { this.completionPercentage = completionPercentage; }
+}
@@ -0,0 +1,112 @@
+package com.agnel.devcollab.dto;
+
+import com.agnel.devcollab.entity.Task;
+import java.time.LocalDateTime;
+
+public class TaskResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private Long projectId;
+    private String status;
+    private LocalDateTime pomodoroStart;
+    private long totalSecondsSpent;
+    private int pomodoroDuration;
+    private int breakDuration;
+    private boolean isBreak;
+    private Integer estimatedPomodoros;
+    private Integer completedPomodoros;
+    private Integer currentCycle;
+    private LocalDateTime completedAt;
+    private LocalDateTime createdAt;
+
+    public TaskResponse() {}
+
+    // Used by JPQL constructor expressions so list endpoints never load Task entities
+    public TaskResponse(Long id, String name, String description, Long projectId, Task.Status status,
+                        LocalDateTime pomodoroStart, long totalSecondsSpent, int pomodoroDuration, int breakDuration,
+                        boolean isBreak, Integer estimatedPomodoros, Integer completedPomodoros, Integer currentCycle,
+                        LocalDateTime completedAt, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.projectId = projectId;
+        this.status = status != null ? status.toString() : null;
+        this.pomodoroStart = pomodoroStart;
+        this.totalSecondsSpent = totalSecondsSpent;
+        this.pomodoroDuration = pomodoroDuration;
+        this.breakDuration = breakDuration;
+        this.isBreak = isBreak;
+        this.estimatedPomodoros = estimatedPomodoros;
+        this.completedPomodoros = completedPomodoros;
+        this.currentCycle = currentCycle;
+        this.completedAt = completedAt;
+        this.createdAt = createdAt;
+    }
+
+    public static TaskResponse from(Task task) {
+        TaskResponse response = new TaskResponse();
+        response.setId(task.getId());
+        response.setName(task.getName());
+        response.setDescription(task.getDescription());
+        response.setProjectId(task.getProject() != null ? task.getProject().getId() : null);
+        response.setStatus(task.getStatus() != null ? task.getStatus().toString() : null);
+        response.setPomodoroStart(task.getPomodoroStart());
+        response.setTotalSecondsSpent(task.getTotalSecondsSpent());
+        response.setPomodoroDuration(task.getPomodoroDuration());
+        response.setBreakDuration(task.getBreakDuration());
+        response.setIsBreak(task.isBreak());
+        response.setEstimatedPomodoros(task.getEstimatedPomodoros());
+        response.setCompletedPomodoros(task.getCompletedPomodoros());
+        response.setCurrentCycle(task.getCurrentCycle());
+        response.setCompletedAt(task.getCompletedAt());
+        response.setCreatedAt(task.getCreatedAt());
+        return response;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getPomodoroStart() { return pomodoroStart; }
+    public void setPomodoroStart(LocalDateTime pomodoroStart) { this.pomodoroStart = pomodoroStart; }
+
+    public long getTotalSecondsSpent() { return totalSecondsSpent; }
+    public void setTotalSecondsSpent(long totalSecondsSpent) { this.totalSecondsSpent = totalSecondsSpent; }
+
+    public int getPomodoroDuration() { return pomodoroDuration; }
+    public void setPomodoroDuration(int pomodoroDuration) { this.pomodoroDuration = pomodoroDuration; }
+
+    public int getBreakDuration() { return breakDuration; }
+    public void setBreakDuration(int breakDuration) { this.breakDuration = breakDuration; }
+
+    public boolean getIsBreak() { return isBreak; }
+    public void setIsBreak(boolean isBreak) { this.isBreak = isBreak; }
+
+    public Integer getEstimatedPomodoros() { return estimatedPomodoros; }
+    public void setEstimatedPomodoros(Integer estimatedPomodoros) { this.estimatedPomodoros = estimatedPomodoros; }
+
+    public Integer getCompletedPomodoros() { return completedPomodoros; }
+    public void setCompletedPomodoros(Integer completedPomodoros) { this.completedPomodoros = completedPomodoros; }
+
+    public Integer getCurrentCycle() { return currentCycle; }
+    public void setCurrentCycle(Integer currentCycle) { this.currentCycle = currentCycle; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,72 @@
+package com.agnel.devcollab.dto;
+
+import com.agnel.devcollab.entity.TimeEntry;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Linked rows by id only, so a new entry's references never have to be loaded to answer
+public class TimeEntryResponse {
+    private Long id;
+    private Long userId;
+    private Long projectId;
+    private Long taskId;
+    private Long subtaskId;
+    private String description;
+    private Set<String> tags;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean pomodoro;
+    private boolean billable;
+
+    public TimeEntryResponse() {}
+
+    public static TimeEntryResponse from(TimeEntry entry) {
+        TimeEntryResponse response = new TimeEntryResponse();
+        response.setId(entry.getId());
+        response.setUserId(entry.getUser() != null ? entry.getUser().getId() : null);
+        response.setProjectId(entry.getProject() != null ? entry.getProject().getId() : null);
+        response.setTaskId(entry.getTask() != null ? entry.getTask().getId() : null);
+        response.setSubtaskId(entry.getSubtask() != null ? entry.getSubtask().getId() : null);
+        response.setDescription(entry.getDescription());
+        response.setTags(entry.getTags());
+        response.setStart(entry.getStart());
+        response.setEnd(entry.getEnd());
+        response.setPomodoro(entry.isPomodoro());
+        response.setBillable(entry.isBillable());
+        return response;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public Long getSubtaskId() { return subtaskId; }
+    public void setSubtaskId(Long subtaskId) { this.subtaskId = subtaskId; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Set<String> getTags() { return tags; }
+    public void setTags(Set<String> tags) { this.tags = tags; }
+
+    public LocalDateTime getStart() { return start; }
+    public void setStart(LocalDateTime start) { this.start = start; }
+
+    public LocalDateTime getEnd() { return end; }
+    public void setEnd(LocalDateTime end) { this.end = end; }
+
+    public boolean isPomodoro() { return pomodoro; }
+    public void setPomodoro(boolean pomodoro) { this.pomodoro = pomodoro; }
+
+    public boolean isBillable() { return billable; }
+    public void setBillable(boolean billable) { this.billable = billable; }
+}
@@ -2,16 +2,19 @@ package com.agnel.devcollab.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "board")
+@Table(name = "board", indexes = @Index(name = "idx_board_owner_created", columnList = "owner_id, created_at"))
 public class Board {
 
+    // Sequence ids (see TimeEntry): a board and its default columns go out as two batched statements
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_seq")
+    @SequenceGenerator(name = "board_seq", sequenceName = "board_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -25,6 +28,12 @@ public class Board {
     @JoinColumn(name = "owner_id")
     private User owner;
 
+    // Sequence number of the board's latest update event; only bumped by BoardRepository.incrementEventSeq,
+    // never written back from a loaded entity
+    @Column(name = "event_seq", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long eventSeq;
+
     @OneToMany(mappedBy = "board", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnoreProperties("board")
     private List<BoardColumn> columns = new ArrayList<>();
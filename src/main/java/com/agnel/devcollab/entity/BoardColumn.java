@@ -6,11 +6,12 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "board_column")
+@Table(name = "board_column", indexes = @Index(name = "idx_board_column_board_position", columnList = "board_id, position"))
 public class BoardColumn {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_column_seq")
+    @SequenceGenerator(name = "board_column_seq", sequenceName = "board_column_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -0,0 +1,49 @@
+package com.agnel.devcollab.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One broadcast written to the shared database so every app node can deliver it.
+ * Rows are short-lived: peers poll them by id and old rows are purged.
+ */
+@Entity
+@Table(name = "cluster_event", indexes = @Index(name = "idx_cluster_event_created", columnList = "created_at"))
+public class ClusterEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destination;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload; // JSON, as sent to STOMP subscribers
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // === Constructors ===
+    public ClusterEvent() {}
+
+    public ClusterEvent(String destination, String payload) {
+        this.destination = destination;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // === Getters & Setters ===
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = destination; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,123 @@
+package com.agnel.devcollab.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated focus metrics per (user, project, day).
+ * Maintained incrementally when sessions finish; rebuilt from history by DailyFocusRollupService.
+ * Ids are stored as plain columns so rollups never block deleting a project.
+ * Time not tied to a project is stored under NO_PROJECT rather than NULL, because NULLs
+ * compare as distinct and would let concurrent inserts duplicate a unique key.
+ */
+@Entity
+@Table(name = "daily_focus_rollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "project_id", "rollup_day"}),
+       indexes = @Index(name = "idx_daily_focus_rollup_user_day", columnList = "user_id, rollup_day"))
+public class DailyFocusRollup {
+
+    public static final long NO_PROJECT = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId = NO_PROJECT;
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    // Pomodoro metrics: sessions started (completed or not) and distractions cover every
+    // PomodoroLog, the rest only completed ones
+    private long startedSessions = 0;
+    private long completedCycles = 0;
+    private long focusSeconds = 0;
+    private long distractions = 0;
+    private long shortBreaks = 0;
+    private long longBreaks = 0;
+
+    // Time tracking metrics (from finished TimeEntries)
+    private long trackedSeconds = 0;
+
+    // === Constructors ===
+    public DailyFocusRollup() {}
+
+    public DailyFocusRollup(Long userId, Long projectId, LocalDate day) {
+        this.userId = userId;
+        setProjectId(projectId);
+        this.day = day;
+    }
+
+    // Used by backfill aggregation queries
+    public DailyFocusRollup(Long userId, Long projectId, LocalDate day, Long startedSessions, Long completedCycles,
+                            Long focusSeconds, Long distractions, Long shortBreaks, Long longBreaks) {
+        this(userId, projectId, day);
+        this.startedSessions = startedSessions != null ? startedSessions : 0;
+        this.completedCycles = completedCycles != null ? completedCycles : 0;
+        this.focusSeconds = focusSeconds != null ? focusSeconds : 0;
+        this.distractions = distractions != null ? distractions : 0;
+        this.shortBreaks = shortBreaks != null ? shortBreaks : 0;
+        this.longBreaks = longBreaks != null ? longBreaks : 0;
+    }
+
+    // Used by backfill aggregation queries
+    public DailyFocusRollup(Long userId, Long projectId, LocalDate day, Long trackedSeconds) {
+        this(userId, projectId, day);
+        this.trackedSeconds = trackedSeconds != null ? trackedSeconds : 0;
+    }
+
+    // === Getters & Setters ===
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    // Null for time not tied to a project
+    public Long getProjectId() { return projectId == NO_PROJECT ? null : projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId != null ? projectId : NO_PROJECT; }
+
+    /** The stored project_id for a project id that may be null */
+    public static long projectKey(Long projectId) {
+        return projectId != null ? projectId : NO_PROJECT;
+    }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public long getStartedSessions() { return startedSessions; }
+    public void setStartedSessions(long startedSessions) { this.startedSessions = startedSessions; }
+
+    public long getCompletedCycles() { return completedCycles; }
+    public void setCompletedCycles(long completedCycles) { this.completedCycles = completedCycles; }
+
+    public long getFocusSeconds() { return focusSeconds; }
+    public void setFocusSeconds(long focusSeconds) { this.focusSeconds = focusSeconds; }
+
+    public long getDistractions() { return distractions; }
+    public void setDistractions(long distractions) { this.distractions = distractions; }
+
+    public long getShortBreaks() { return shortBreaks; }
+    public void setShortBreaks(long shortBreaks) { this.shortBreaks = shortBreaks; }
+
+    public long getLongBreaks() { return longBreaks; }
+    public void setLongBreaks(long longBreaks) { this.longBreaks = longBreaks; }
+
+    public long getTrackedSeconds() { return trackedSeconds; }
+    public void setTrackedSeconds(long trackedSeconds) { this.trackedSeconds = trackedSeconds; }
+
+    // Merge another row with the same key (used when combining backfill sources)
+    public void add(DailyFocusRollup other) {
+        this.startedSessions += other.startedSessions;
+        this.completedCycles += other.completedCycles;
+        this.focusSeconds += other.focusSeconds;
+        this.distractions += other.distractions;
+        this.shortBreaks += other.shortBreaks;
+        this.longBreaks += other.longBreaks;
+        this.trackedSeconds += other.trackedSeconds;
+    }
+}
@@ -0,0 +1,61 @@
+package com.agnel.devcollab.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A broadcast recorded in the same transaction as the change it announces.
+ * EventOutbox sends it once that transaction has committed and then deletes the row.
+ */
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Events for one destination (one board's or project's topic) are sent in id order
+    @Column(nullable = false)
+    private String destination;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload; // JSON
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // null until a send has failed
+
+    // === Constructors ===
+    public OutboxEvent() {}
+
+    public OutboxEvent(String destination, String payload) {
+        this.destination = destination;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // === Getters & Setters ===
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = destination; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+}
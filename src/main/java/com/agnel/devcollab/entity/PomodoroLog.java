@@ -4,11 +4,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "pomodoro_log")
+@Table(name = "pomodoro_log", indexes = {
+    @Index(name = "idx_pomodoro_log_user_start", columnList = "user_id, start_time"),
+    @Index(name = "idx_pomodoro_log_user_completed", columnList = "user_id, completed"),
+    @Index(name = "idx_pomodoro_log_completed_start", columnList = "completed, start_time"),
+    @Index(name = "idx_pomodoro_log_subtask_start", columnList = "subtask_id, start_time")
+})
 public class PomodoroLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pomodoro_log_seq")
+    @SequenceGenerator(name = "pomodoro_log_seq", sequenceName = "pomodoro_log_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -2,17 +2,30 @@ package com.agnel.devcollab.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
+// Only changed columns are written, so edits leave the timer columns to TimerStateService
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+    @Index(name = "idx_project_owner_created", columnList = "owner_id, created_at"),
+    @Index(name = "idx_project_board", columnList = "board_id"),
+    @Index(name = "idx_project_column", columnList = "column_id")
+})
 public class Project {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "project_seq", allocationSize = 50)
     private Long id;
 
+    // Concurrent edits of the same row fail fast instead of overwriting each other
+    @Version
+    private Long version;
+
     private String name;
     private String description;
 
@@ -45,14 +58,13 @@ public class Project {
         TODO, DOING, DONE
     }
 
-    private LocalDateTime pomodoroStart;
-    private long totalSecondsSpent = 0; // Changed to seconds for accurate HH:MM:SS display
-    private long pausedElapsedSeconds = 0; // Track elapsed seconds when paused for resume
+    // Timer state (start, seconds spent, paused seconds, cycle, break flag)
+    @Embedded
+    private Timeable timer = new Timeable();
     
     // Pomodoro cycle settings
     private int pomodoroDuration = 25; // Work duration in minutes (default 25)
     private int breakDuration = 5; // Break duration in minutes (default 5)
-    private boolean isBreak = false; // Track if current timer is a break
     
     // Track completion and allow reopening
     private LocalDateTime completedAt;
@@ -60,12 +72,14 @@ public class Project {
     // Track Pomodoro cycles at project level
     private Integer estimatedPomodoros = 1;
     private Integer completedPomodoros = 0;
-    private Integer currentCycle = 1;
 
     // === Getters & Setters ===
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -94,15 +108,15 @@ public class Project {
         }
     }
 
-    public LocalDateTime getPomodoroStart() { return pomodoroStart; }
-    public void setPomodoroStart(LocalDateTime start) { this.pomodoroStart = start; }
+    public LocalDateTime getPomodoroStart() { return timer.getPomodoroStart(); }
+    public void setPomodoroStart(LocalDateTime start) { timer.setPomodoroStart(start); }
 
-    public long getTotalSecondsSpent() { return totalSecondsSpent; }
-    public void setTotalSecondsSpent(long seconds) { this.totalSecondsSpent = seconds; }
+    public long getTotalSecondsSpent() { return timer.getTotalSecondsSpent(); }
+    public void setTotalSecondsSpent(long seconds) { timer.setTotalSecondsSpent(seconds); }
     
     // Convenience methods for backward compatibility
-    public long getTotalMinutesSpent() { return totalSecondsSpent / 60; }
-    public void setTotalMinutesSpent(long minutes) { this.totalSecondsSpent = minutes * 60; }
+    public long getTotalMinutesSpent() { return getTotalSecondsSpent() / 60; }
+    public void setTotalMinutesSpent(long minutes) { setTotalSecondsSpent(minutes * 60); }
 
     public List<Task> getTasks() { return tasks; }
     public void setTasks(List<Task> tasks) { this.tasks = tasks; }
@@ -114,7 +128,7 @@ public class Project {
     
     // Get combined time (project's own time + all task times + all subtask times)
     public long getCombinedSecondsSpent() {
-        return totalSecondsSpent + getTotalTaskSeconds();
+        return getTotalSecondsSpent() + getTotalTaskSeconds();
     }
     
     public LocalDateTime getCompletedAt() { return completedAt; }
@@ -130,9 +144,9 @@ public class Project {
         this.completedPomodoros = completedPomodoros; 
     }
     
-    public Integer getCurrentCycle() { return currentCycle; }
+    public Integer getCurrentCycle() { return timer.getCurrentCycle(); }
     public void setCurrentCycle(Integer currentCycle) { 
-        this.currentCycle = currentCycle; 
+        timer.setCurrentCycle(currentCycle); 
     }
 
     // Pomodoro getters/setters
@@ -142,15 +156,15 @@ public class Project {
     public int getBreakDuration() { return breakDuration; }
     public void setBreakDuration(int duration) { this.breakDuration = duration; }
     
-    public boolean isBreak() { return isBreak; }
-    public void setBreak(boolean isBreak) { this.isBreak = isBreak; }
+    public boolean isBreak() { return timer.isBreak(); }
+    public void setBreak(boolean isBreak) { timer.setBreak(isBreak); }
     
-    public long getPausedElapsedSeconds() { return pausedElapsedSeconds; }
-    public void setPausedElapsedSeconds(long seconds) { this.pausedElapsedSeconds = seconds; }
+    public long getPausedElapsedSeconds() { return timer.getPausedElapsedSeconds(); }
+    public void setPausedElapsedSeconds(long seconds) { timer.setPausedElapsedSeconds(seconds); }
     
     // Helper method to get current timer target in seconds
     public long getCurrentTimerTarget() {
-        return (isBreak ? breakDuration : pomodoroDuration) * 60L;
+        return (isBreak() ? breakDuration : pomodoroDuration) * 60L;
     }
     
     public double getCompletionPercentage() {
@@ -159,15 +173,11 @@ public class Project {
     }
     
     public boolean needsLongBreak() {
-        return currentCycle > 4;
+        return getCurrentCycle() > 4;
     }
     
     public void incrementCycle() {
-        if (currentCycle >= 4) {
-            currentCycle = 1; // Reset after long break
-        } else {
-            currentCycle++;
-        }
+        timer.incrementCycle();
     }
     
     // Allow editing at any status
@@ -2,15 +2,23 @@ package com.agnel.devcollab.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_subtask_task_id", columnList = "task_id, id"))
 public class Subtask {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subtask_seq")
+    @SequenceGenerator(name = "subtask_seq", sequenceName = "subtask_seq", allocationSize = 50)
     private Long id;
 
+    // Concurrent edits of the same row fail fast instead of overwriting each other
+    @Version
+    private Long version;
+
     private String name;
 
     @ManyToOne
@@ -18,8 +26,9 @@ public class Subtask {
     @JsonIgnoreProperties({"subtasks", "project"})
     private Task task;
 
-    private LocalDateTime pomodoroStart;
-    private long totalSecondsSpent = 0; // Changed to seconds for accurate HH:MM:SS display
+    // Timer state; subtasks have no breaks, so the break and paused columns stay at their defaults
+    @Embedded
+    private Timeable timer = new Timeable();
     
     // Pomodoro estimation (1-5 Pomodoros, default 1)
     @Column(nullable = false)
@@ -28,9 +37,6 @@ public class Subtask {
     // Track completed Pomodoros for this subtask
     private Integer completedPomodoros = 0;
     
-    // Track current Pomodoro cycle (1-4, resets after long break)
-    private Integer currentCycle = 1;
-    
     // Is subtask marked as completed?
     private Boolean completed = false;
 
@@ -38,17 +44,20 @@ public class Subtask {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
     public Task getTask() { return task; }
     public void setTask(Task task) { this.task = task; }
 
-    public LocalDateTime getPomodoroStart() { return pomodoroStart; }
-    public void setPomodoroStart(LocalDateTime start) { this.pomodoroStart = start; }
+    public LocalDateTime getPomodoroStart() { return timer.getPomodoroStart(); }
+    public void setPomodoroStart(LocalDateTime start) { timer.setPomodoroStart(start); }
 
-    public long getTotalSecondsSpent() { return totalSecondsSpent; }
-    public void setTotalSecondsSpent(long seconds) { this.totalSecondsSpent = seconds; }
+    public long getTotalSecondsSpent() { return timer.getTotalSecondsSpent(); }
+    public void setTotalSecondsSpent(long seconds) { timer.setTotalSecondsSpent(seconds); }
     
     public Integer getEstimatedPomodoros() { return estimatedPomodoros; }
     public void setEstimatedPomodoros(Integer estimatedPomodoros) { 
@@ -60,9 +69,10 @@ public class Subtask {
         this.completedPomodoros = completedPomodoros; 
     }
     
-    public Integer getCurrentCycle() { return currentCycle; }
+    // Current Pomodoro cycle (1-4, resets after long break)
+    public Integer getCurrentCycle() { return timer.getCurrentCycle(); }
     public void setCurrentCycle(Integer currentCycle) { 
-        this.currentCycle = currentCycle; 
+        timer.setCurrentCycle(currentCycle); 
     }
     
     public Boolean getCompleted() { return completed; }
@@ -71,8 +81,8 @@ public class Subtask {
     }
     
     // Convenience methods for backward compatibility
-    public long getTotalMinutesSpent() { return totalSecondsSpent / 60; }
-    public void setTotalMinutesSpent(long minutes) { this.totalSecondsSpent = minutes * 60; }
+    public long getTotalMinutesSpent() { return getTotalSecondsSpent() / 60; }
+    public void setTotalMinutesSpent(long minutes) { setTotalSecondsSpent(minutes * 60); }
     
     // Helper methods
     public double getCompletionPercentage() {
@@ -81,15 +91,11 @@ public class Subtask {
     }
     
     public boolean needsLongBreak() {
-        return currentCycle > 4;
+        return getCurrentCycle() > 4;
     }
     
     public void incrementCycle() {
-        if (currentCycle >= 4) {
-            currentCycle = 1; // Reset after long break
-        } else {
-            currentCycle++;
-        }
+        timer.incrementCycle();
     }
     
     // Allow editing at any status
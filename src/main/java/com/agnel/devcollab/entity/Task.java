@@ -2,17 +2,25 @@ package com.agnel.devcollab.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_task_project_id", columnList = "project_id, id"))
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
+    // Concurrent edits of the same row fail fast instead of overwriting each other
+    @Version
+    private Long version;
+
     private String name;
     private String description;
 
@@ -34,18 +42,16 @@ public class Task {
     }
 
     // Pomodoro timer support at Task level
-    private LocalDateTime pomodoroStart;
-    private long totalSecondsSpent = 0;
+    @Embedded
+    private Timeable timer = new Timeable();
     
     // Pomodoro cycle settings (inherited from Project or customizable)
     private int pomodoroDuration = 25; // Work duration in minutes
     private int breakDuration = 5; // Break duration in minutes
-    private boolean isBreak = false; // Track if current timer is a break
     
     // Track Pomodoro cycles
     private Integer estimatedPomodoros = 1;
     private Integer completedPomodoros = 0;
-    private Integer currentCycle = 1;
     
     // Allow editing even when DONE
     private LocalDateTime completedAt;
@@ -55,6 +61,9 @@ public class Task {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -77,11 +86,11 @@ public class Task {
         }
     }
 
-    public LocalDateTime getPomodoroStart() { return pomodoroStart; }
-    public void setPomodoroStart(LocalDateTime start) { this.pomodoroStart = start; }
+    public LocalDateTime getPomodoroStart() { return timer.getPomodoroStart(); }
+    public void setPomodoroStart(LocalDateTime start) { timer.setPomodoroStart(start); }
 
-    public long getTotalSecondsSpent() { return totalSecondsSpent; }
-    public void setTotalSecondsSpent(long seconds) { this.totalSecondsSpent = seconds; }
+    public long getTotalSecondsSpent() { return timer.getTotalSecondsSpent(); }
+    public void setTotalSecondsSpent(long seconds) { timer.setTotalSecondsSpent(seconds); }
 
     public int getPomodoroDuration() { return pomodoroDuration; }
     public void setPomodoroDuration(int duration) { this.pomodoroDuration = duration; }
@@ -89,8 +98,8 @@ public class Task {
     public int getBreakDuration() { return breakDuration; }
     public void setBreakDuration(int duration) { this.breakDuration = duration; }
 
-    public boolean isBreak() { return isBreak; }
-    public void setBreak(boolean isBreak) { this.isBreak = isBreak; }
+    public boolean isBreak() { return timer.isBreak(); }
+    public void setBreak(boolean isBreak) { timer.setBreak(isBreak); }
 
     public Integer getEstimatedPomodoros() { return estimatedPomodoros; }
     public void setEstimatedPomodoros(Integer estimatedPomodoros) { 
@@ -102,9 +111,9 @@ public class Task {
         this.completedPomodoros = completedPomodoros; 
     }
 
-    public Integer getCurrentCycle() { return currentCycle; }
+    public Integer getCurrentCycle() { return timer.getCurrentCycle(); }
     public void setCurrentCycle(Integer currentCycle) { 
-        this.currentCycle = currentCycle; 
+        timer.setCurrentCycle(currentCycle); 
     }
 
     public LocalDateTime getCompletedAt() { return completedAt; }
@@ -122,12 +131,12 @@ public class Task {
     
     // Get combined time (task's own time + subtask times)
     public long getCombinedSecondsSpent() {
-        return totalSecondsSpent + getTotalSubtaskSeconds();
+        return getTotalSecondsSpent() + getTotalSubtaskSeconds();
     }
     
     // Helper method to get current timer target in seconds
     public long getCurrentTimerTarget() {
-        return (isBreak ? breakDuration : pomodoroDuration) * 60L;
+        return (isBreak() ? breakDuration : pomodoroDuration) * 60L;
     }
     
     public double getCompletionPercentage() {
@@ -136,15 +145,11 @@ public class Task {
     }
     
     public boolean needsLongBreak() {
-        return currentCycle > 4;
+        return getCurrentCycle() > 4;
     }
     
     public void incrementCycle() {
-        if (currentCycle >= 4) {
-            currentCycle = 1; // Reset after long break
-        } else {
-            currentCycle++;
-        }
+        timer.incrementCycle();
     }
     
     // Check if task can be edited (always true now - even DONE tasks are editable)
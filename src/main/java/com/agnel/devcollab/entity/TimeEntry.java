@@ -5,9 +5,17 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_time_entry_user_start", columnList = "user_id, start"),
+    @Index(name = "idx_time_entry_project", columnList = "project_id"),
+    @Index(name = "idx_time_entry_task", columnList = "task_id"),
+    @Index(name = "idx_time_entry_subtask", columnList = "subtask_id")
+})
 public class TimeEntry {
+    // From a sequence, not IDENTITY, so Hibernate can batch inserts; ids are handed out 50 at a time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "time_entry_seq")
+    @SequenceGenerator(name = "time_entry_seq", sequenceName = "time_entry_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,42 @@
+package com.agnel.devcollab.entity;
+
+import jakarta.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+/**
+ * Pomodoro timer state shared by Project, Task and Subtask.
+ * Transitions are applied in the database by TimerStateService; the entities only
+ * expose this state through their own getters so templates and DTOs are unchanged.
+ */
+@Embeddable
+public class Timeable {
+
+    private LocalDateTime pomodoroStart; // Set while a work session or break is running
+    private long totalSecondsSpent = 0;
+    private long pausedElapsedSeconds = 0; // Work seconds kept while paused, restored on resume
+    private Integer currentCycle = 1; // 1-4, resets after the long break
+    private boolean isBreak = false;
+
+    public LocalDateTime getPomodoroStart() { return pomodoroStart; }
+    public void setPomodoroStart(LocalDateTime pomodoroStart) { this.pomodoroStart = pomodoroStart; }
+
+    public long getTotalSecondsSpent() { return totalSecondsSpent; }
+    public void setTotalSecondsSpent(long totalSecondsSpent) { this.totalSecondsSpent = totalSecondsSpent; }
+
+    public long getPausedElapsedSeconds() { return pausedElapsedSeconds; }
+    public void setPausedElapsedSeconds(long pausedElapsedSeconds) { this.pausedElapsedSeconds = pausedElapsedSeconds; }
+
+    public Integer getCurrentCycle() { return currentCycle; }
+    public void setCurrentCycle(Integer currentCycle) { this.currentCycle = currentCycle; }
+
+    public boolean isBreak() { return isBreak; }
+    public void setBreak(boolean isBreak) { this.isBreak = isBreak; }
+
+    public void incrementCycle() {
+        if (currentCycle >= 4) {
+            currentCycle = 1; // Reset after long break
+        } else {
+            currentCycle++;
+        }
+    }
+}
@@ -1,12 +1,62 @@
 package com.agnel.devcollab.repository;
 
 import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.dto.BoardResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BoardRepository extends JpaRepository<Board, Long> {
-    List<Board> findByOwnerId(Long ownerId);
-    List<Board> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
+    @Query("SELECT b FROM Board b WHERE b.owner.id = :ownerId")
+    List<Board> findByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT b FROM Board b WHERE b.owner.id = :ownerId ORDER BY b.createdAt DESC")
+    List<Board> findByOwnerIdOrderByCreatedAtDesc(@Param("ownerId") Long ownerId);
+
+    // Board plus owner in one select (snapshot loading)
+    @Query("SELECT b FROM Board b LEFT JOIN FETCH b.owner WHERE b.id = :id")
+    Optional<Board> findWithOwnerById(@Param("id") Long id);
+
+    // Flat projections for the REST layer; columns are attached by the caller
+    @Query("SELECT new com.agnel.devcollab.dto.BoardResponse(b.id, b.name, b.description, b.color, b.owner.id, b.createdAt) " +
+           "FROM Board b WHERE b.id > :afterId ORDER BY b.id")
+    List<BoardResponse> findResponsesAfter(@Param("afterId") long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT new com.agnel.devcollab.dto.BoardResponse(b.id, b.name, b.description, b.color, b.owner.id, b.createdAt) " +
+           "FROM Board b ORDER BY b.id")
+    Stream<BoardResponse> streamAllResponses();
+
+    @Query("SELECT new com.agnel.devcollab.dto.BoardResponse(b.id, b.name, b.description, b.color, b.owner.id, b.createdAt) " +
+           "FROM Board b WHERE b.id = :id")
+    Optional<BoardResponse> findResponseById(@Param("id") Long id);
+
+    // Unowned boards are shared; otherwise the owner or anyone owning a project on it
+    @Query("SELECT COUNT(b) > 0 FROM Board b LEFT JOIN b.owner o WHERE b.id = :boardId AND " +
+           "(o IS NULL OR o.email = :email OR EXISTS (SELECT p.id FROM Project p WHERE p.board = b AND p.owner.email = :email))")
+    boolean isAccessibleTo(@Param("boardId") Long boardId, @Param("email") String email);
+
+    // Per-board update sequence (see BoardEventLog). The UPDATE holds the board row until commit,
+    // so concurrent writers on one board get their numbers in commit order
+    @Modifying
+    @Query("UPDATE Board b SET b.eventSeq = b.eventSeq + 1 WHERE b.id = :id")
+    int incrementEventSeq(@Param("id") Long id);
+
+    @Query("SELECT b.eventSeq FROM Board b WHERE b.id = :id")
+    Optional<Long> findEventSeqById(@Param("id") Long id);
+
+    // Rows of [board id, event seq]
+    @Query("SELECT b.id, b.eventSeq FROM Board b WHERE b.id IN :ids")
+    List<Object[]> findEventSeqsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,31 @@
+package com.agnel.devcollab.repository;
+
+import com.agnel.devcollab.entity.ClusterEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ClusterEventRepository extends JpaRepository<ClusterEvent, Long> {
+
+    List<ClusterEvent> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Skipped ids whose transactions have committed since
+    List<ClusterEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ClusterEvent e")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClusterEvent e WHERE e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,11 +1,25 @@
 package com.agnel.devcollab.repository;
 
 import com.agnel.devcollab.entity.BoardColumn;
+import com.agnel.devcollab.dto.ColumnResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ColumnRepository extends JpaRepository<BoardColumn, Long> {
-    List<BoardColumn> findByBoardIdOrderByPosition(Long boardId);
+    @Query("SELECT c FROM BoardColumn c WHERE c.board.id = :boardId ORDER BY c.position")
+    List<BoardColumn> findByBoardIdOrderByPosition(@Param("boardId") Long boardId);
+
+    // Flat projections for the REST layer
+    @Query("SELECT new com.agnel.devcollab.dto.ColumnResponse(c.id, c.name, c.position, c.bgColor, c.board.id) " +
+           "FROM BoardColumn c WHERE c.board.id = :boardId ORDER BY c.position")
+    List<ColumnResponse> findResponsesByBoardId(@Param("boardId") Long boardId);
+
+    @Query("SELECT new com.agnel.devcollab.dto.ColumnResponse(c.id, c.name, c.position, c.bgColor, c.board.id) " +
+           "FROM BoardColumn c WHERE c.board.id IN :boardIds ORDER BY c.board.id, c.position")
+    List<ColumnResponse> findResponsesByBoardIdIn(@Param("boardIds") Collection<Long> boardIds);
 }
@@ -0,0 +1,84 @@
+package com.agnel.devcollab.repository;
+
+import com.agnel.devcollab.dto.PomodoroDailyStats;
+import com.agnel.devcollab.entity.DailyFocusRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyFocusRollupRepository extends JpaRepository<DailyFocusRollup, Long> {
+
+    // Pass DailyFocusRollup.projectKey(projectId); rows without a project are stored under NO_PROJECT
+    Optional<DailyFocusRollup> findByUserIdAndProjectIdAndDay(Long userId, Long projectId, LocalDate day);
+
+    List<DailyFocusRollup> findByUserIdAndDayBetweenOrderByDayAsc(Long userId, LocalDate from, LocalDate to);
+
+    // Count a started Pomodoro session on an existing rollup row
+    @Modifying
+    @Query("UPDATE DailyFocusRollup r SET r.startedSessions = r.startedSessions + 1 WHERE r.id = :id")
+    int addStartedSession(@Param("id") Long id);
+
+    // Distractions logged on a session that is still running (pauses)
+    @Modifying
+    @Query("UPDATE DailyFocusRollup r SET r.distractions = r.distractions + :distractions WHERE r.id = :id")
+    int addDistractions(@Param("id") Long id, @Param("distractions") long distractions);
+
+    // Add a completed Pomodoro cycle to an existing rollup row; distractions is the change since the last count
+    @Modifying
+    @Query("UPDATE DailyFocusRollup r SET r.completedCycles = r.completedCycles + 1, " +
+           "r.focusSeconds = r.focusSeconds + :focusSeconds, " +
+           "r.distractions = r.distractions + :distractions, " +
+           "r.shortBreaks = r.shortBreaks + :shortBreaks, " +
+           "r.longBreaks = r.longBreaks + :longBreaks " +
+           "WHERE r.id = :id")
+    int addCompletedCycle(@Param("id") Long id,
+                          @Param("focusSeconds") long focusSeconds,
+                          @Param("distractions") long distractions,
+                          @Param("shortBreaks") long shortBreaks,
+                          @Param("longBreaks") long longBreaks);
+
+    // Add (or subtract, for edits/deletes) tracked time to an existing rollup row
+    @Modifying
+    @Query("UPDATE DailyFocusRollup r SET r.trackedSeconds = r.trackedSeconds + :seconds WHERE r.id = :id")
+    int addTrackedSeconds(@Param("id") Long id, @Param("seconds") long seconds);
+
+    // Per-day Pomodoro buckets for reports, read from rollups instead of raw logs
+    @Query("SELECT new com.agnel.devcollab.dto.PomodoroDailyStats(" +
+           "r.day, SUM(r.startedSessions), SUM(r.completedCycles), SUM(r.focusSeconds) / 60, SUM(r.distractions)) " +
+           "FROM DailyFocusRollup r WHERE r.userId = :userId AND r.day BETWEEN :from AND :to " +
+           "AND (r.startedSessions > 0 OR r.completedCycles > 0) " +
+           "GROUP BY r.day ORDER BY r.day")
+    List<PomodoroDailyStats> findDailyPomodoroStats(@Param("userId") Long userId,
+                                                    @Param("from") LocalDate from,
+                                                    @Param("to") LocalDate to);
+
+    // === Backfill aggregations over raw history ===
+
+    String COMPLETED = "(p.completed = true AND p.endTime IS NOT NULL)";
+
+    @Query("SELECT new com.agnel.devcollab.entity.DailyFocusRollup(" +
+           "u.id, pr.id, CAST(p.startTime AS LocalDate), COUNT(p), " +
+           "SUM(CASE WHEN " + COMPLETED + " THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN " + COMPLETED + " THEN (p.endTime - p.startTime) BY SECOND ELSE 0L END), " +
+           "SUM(COALESCE(p.distractions, 0) * 1L), " +
+           "SUM(CASE WHEN " + COMPLETED + " AND p.cycleNumber < 4 THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN " + COMPLETED + " AND p.cycleNumber >= 4 THEN 1L ELSE 0L END)) " +
+           "FROM PomodoroLog p JOIN p.user u LEFT JOIN p.subtask s LEFT JOIN s.task t LEFT JOIN t.project pr " +
+           "WHERE p.startTime IS NOT NULL " +
+           "GROUP BY u.id, pr.id, CAST(p.startTime AS LocalDate)")
+    List<DailyFocusRollup> aggregatePomodoroHistory();
+
+    @Query("SELECT new com.agnel.devcollab.entity.DailyFocusRollup(" +
+           "u.id, pr.id, CAST(e.start AS LocalDate), SUM((e.end - e.start) BY SECOND)) " +
+           "FROM TimeEntry e JOIN e.user u LEFT JOIN e.project pr " +
+           "WHERE e.start IS NOT NULL AND e.end IS NOT NULL " +
+           "GROUP BY u.id, pr.id, CAST(e.start AS LocalDate)")
+    List<DailyFocusRollup> aggregateTimeEntryHistory();
+}
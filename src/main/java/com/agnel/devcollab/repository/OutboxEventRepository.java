@@ -0,0 +1,26 @@
+package com.agnel.devcollab.repository;
+
+import com.agnel.devcollab.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest first, leaving out every destination that has a row waiting for a retry: that row
+    // holds back its destination's later events, but must not take batch slots from the others
+    @Query("SELECT e FROM OutboxEvent e WHERE e.destination NOT IN " +
+           "(SELECT w.destination FROM OutboxEvent w WHERE w.nextAttemptAt > :now) ORDER BY e.id")
+    List<OutboxEvent> findDispatchable(@Param("now") LocalDateTime now, Limit limit);
+
+    // When the earliest waiting retry is due
+    @Query("SELECT MIN(e.nextAttemptAt) FROM OutboxEvent e WHERE e.nextAttemptAt > :now")
+    Optional<LocalDateTime> findNextAttemptAfter(@Param("now") LocalDateTime now);
+}
@@ -1,7 +1,10 @@
 package com.agnel.devcollab.repository;
 
+import com.agnel.devcollab.dto.PomodoroStatsSummary;
 import com.agnel.devcollab.entity.PomodoroLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,17 +15,33 @@ import java.util.List;
 @Repository
 public interface PomodoroLogRepository extends JpaRepository<PomodoroLog, Long> {
     
-    // Find all logs for a specific subtask
-    List<PomodoroLog> findBySubtaskId(Long subtaskId);
+    // Find all logs for a specific subtask (explicit queries compare the foreign key column;
+    // derived findBy<Association>Id finders outer-join the parent and bypass the index)
+    @Query("SELECT p FROM PomodoroLog p WHERE p.subtask.id = :subtaskId")
+    List<PomodoroLog> findBySubtaskId(@Param("subtaskId") Long subtaskId);
     
     // Find all logs for a user
-    List<PomodoroLog> findByUserId(Long userId);
+    @Query("SELECT p FROM PomodoroLog p WHERE p.user.id = :userId")
+    List<PomodoroLog> findByUserId(@Param("userId") Long userId);
     
     // Find completed Pomodoros
     List<PomodoroLog> findByCompletedTrue();
     
     // Find Pomodoros by user and completion status
-    List<PomodoroLog> findByUserIdAndCompleted(Long userId, boolean completed);
+    @Query("SELECT p FROM PomodoroLog p WHERE p.user.id = :userId AND p.completed = :completed")
+    List<PomodoroLog> findByUserIdAndCompleted(@Param("userId") Long userId, @Param("completed") boolean completed);
+    
+    // Sessions on a subtask that have not completed, newest first
+    @Query("SELECT p FROM PomodoroLog p WHERE p.subtask.id = :subtaskId AND p.completed = false ORDER BY p.startTime DESC")
+    List<PomodoroLog> findOpenBySubtaskId(@Param("subtaskId") Long subtaskId, Limit limit);
+    
+    // Close a session; a second completion, from a retry or a concurrent caller, matches no row
+    @Modifying
+    @Query("UPDATE PomodoroLog p SET p.completed = true, p.endTime = :end WHERE p.id = :id AND p.completed = false")
+    int markCompleted(@Param("id") Long id, @Param("end") LocalDateTime end);
+    
+    // Find sessions that may still be running (used to rebuild the active-session registry)
+    List<PomodoroLog> findByCompletedFalseAndStartTimeAfter(LocalDateTime cutoff);
     
     // Find Pomodoros in a date range for analytics
     @Query("SELECT p FROM PomodoroLog p WHERE p.startTime >= :start AND p.endTime <= :end")
@@ -36,6 +55,18 @@ public interface PomodoroLogRepository extends JpaRepository<PomodoroLog, Long>
         @Param("end") LocalDateTime end
     );
     
+    // Aggregate a user's Pomodoros in a date range (counts + average distractions) in one row
+    @Query("SELECT new com.agnel.devcollab.dto.PomodoroStatsSummary(" +
+           "COUNT(p), " +
+           "SUM(CASE WHEN p.completed = true THEN 1L ELSE 0L END), " +
+           "AVG(COALESCE(p.distractions, 0) * 1.0)) " +
+           "FROM PomodoroLog p WHERE p.user.id = :userId AND p.startTime >= :start AND p.endTime <= :end")
+    PomodoroStatsSummary summarizeByUserIdAndDateRange(
+        @Param("userId") Long userId, 
+        @Param("start") LocalDateTime start, 
+        @Param("end") LocalDateTime end
+    );
+    
     // Get efficiency statistics
     @Query("SELECT AVG(p.distractions) FROM PomodoroLog p WHERE p.user.id = :userId AND p.completed = true")
     Double getAverageDistractionsByUserId(@Param("userId") Long userId);
@@ -1,12 +1,84 @@
 package com.agnel.devcollab.repository;
 
 import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.dto.ProjectResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
-    List<Project> findByOwnerId(Long ownerId);
-    List<Project> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
-    List<Project> findByBoardId(Long boardId);
-    List<Project> findByBoardColumnId(Long boardColumnId);
-}
\ No newline at end of file
+    @Query("SELECT p FROM Project p WHERE p.owner.id = :ownerId")
+    List<Project> findByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT p FROM Project p WHERE p.owner.id = :ownerId ORDER BY p.createdAt DESC")
+    List<Project> findByOwnerIdOrderByCreatedAtDesc(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT p FROM Project p WHERE p.board.id = :boardId")
+    List<Project> findByBoardId(@Param("boardId") Long boardId);
+
+    @Query("SELECT p FROM Project p WHERE p.boardColumn.id = :boardColumnId")
+    List<Project> findByBoardColumnId(@Param("boardColumnId") Long boardColumnId);
+
+    // All projects on a board with their to-one associations fetched in the same select
+    @Query("SELECT p FROM Project p JOIN FETCH p.board JOIN FETCH p.boardColumn LEFT JOIN FETCH p.owner " +
+           "WHERE p.board.id = :boardId ORDER BY p.id")
+    List<Project> findWithAssociationsByBoardId(@Param("boardId") Long boardId);
+
+    // Boards whose STOMP topics a page listens on
+    @Query("SELECT DISTINCT p.board.id FROM Project p WHERE p.owner.id = :ownerId")
+    List<Long> findBoardIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT DISTINCT p.board.id FROM Project p")
+    List<Long> findAllBoardIds();
+
+    @Query("SELECT p.board.id FROM Project p WHERE p.id = :id")
+    Optional<Long> findBoardIdById(@Param("id") Long id);
+
+    // Keyset pages for the Thymeleaf board columns
+    List<Project> findByStatusAndIdGreaterThanOrderByIdAsc(Project.Status status, Long afterId, Limit limit);
+    @Query("SELECT p FROM Project p WHERE p.owner.id = :ownerId AND p.status = :status AND p.id > :afterId ORDER BY p.id")
+    List<Project> findByOwnerIdAndStatusAndIdGreaterThanOrderByIdAsc(@Param("ownerId") Long ownerId, @Param("status") Project.Status status,
+                                                                     @Param("afterId") Long afterId, Limit limit);
+
+    // Flat projections for the REST layer
+    @Query("SELECT new com.agnel.devcollab.dto.ProjectResponse(p.id, p.name, p.description, p.estimatedPomodoros, " +
+           "p.board.id, p.boardColumn.id, p.status, p.createdAt, p.timer.totalSecondsSpent, p.timer.pausedElapsedSeconds, " +
+           "p.completedPomodoros, p.timer.currentCycle, p.timer.pomodoroStart, p.completedAt, p.pomodoroDuration, " +
+           "p.breakDuration, p.timer.isBreak) FROM Project p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProjectResponse> findResponsesAfter(@Param("afterId") long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT new com.agnel.devcollab.dto.ProjectResponse(p.id, p.name, p.description, p.estimatedPomodoros, " +
+           "p.board.id, p.boardColumn.id, p.status, p.createdAt, p.timer.totalSecondsSpent, p.timer.pausedElapsedSeconds, " +
+           "p.completedPomodoros, p.timer.currentCycle, p.timer.pomodoroStart, p.completedAt, p.pomodoroDuration, " +
+           "p.breakDuration, p.timer.isBreak) FROM Project p ORDER BY p.id")
+    Stream<ProjectResponse> streamAllResponses();
+
+    @Query("SELECT new com.agnel.devcollab.dto.ProjectResponse(p.id, p.name, p.description, p.estimatedPomodoros, " +
+           "p.board.id, p.boardColumn.id, p.status, p.createdAt, p.timer.totalSecondsSpent, p.timer.pausedElapsedSeconds, " +
+           "p.completedPomodoros, p.timer.currentCycle, p.timer.pomodoroStart, p.completedAt, p.pomodoroDuration, " +
+           "p.breakDuration, p.timer.isBreak) FROM Project p WHERE p.id = :id")
+    Optional<ProjectResponse> findResponseById(@Param("id") Long id);
+
+    // Starting a timer pulls a TODO card into DOING without loading the project
+    @Transactional
+    @Modifying
+    @Query("UPDATE VERSIONED Project p SET p.status = com.agnel.devcollab.entity.Project.Status.DOING " +
+           "WHERE p.id = :id AND p.status = com.agnel.devcollab.entity.Project.Status.TODO")
+    int moveToDoingIfTodo(@Param("id") Long id);
+
+    // Work and break length only; leaves a running timer's columns to TimerStateService
+    @Transactional
+    @Modifying
+    @Query("UPDATE VERSIONED Project p SET p.pomodoroDuration = :work, p.breakDuration = :rest WHERE p.id = :id")
+    int updateDurations(@Param("id") Long id, @Param("work") int work, @Param("rest") int rest);
+}
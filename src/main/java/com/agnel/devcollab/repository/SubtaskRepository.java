@@ -1,13 +1,47 @@
 package com.agnel.devcollab.repository;
 
 import com.agnel.devcollab.entity.Subtask;
+import com.agnel.devcollab.dto.SubtaskResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubtaskRepository extends JpaRepository<Subtask, Long> {
-    List<Subtask> findByTaskId(Long taskId);
-    List<Subtask> findByTaskIdOrderByIdAsc(Long taskId);
+    @Query("SELECT s FROM Subtask s WHERE s.task.id = :taskId")
+    List<Subtask> findByTaskId(@Param("taskId") Long taskId);
+
+    @Query("SELECT s FROM Subtask s WHERE s.task.id = :taskId ORDER BY s.id")
+    List<Subtask> findByTaskIdOrderByIdAsc(@Param("taskId") Long taskId);
+
+    // Every subtask on a board in one select (snapshot loading)
+    @Query("SELECT s FROM Subtask s JOIN FETCH s.task t WHERE t.project.board.id = :boardId ORDER BY s.id")
+    List<Subtask> findByBoardId(@Param("boardId") Long boardId);
+
+    // Flat projections for the REST layer; no Subtask or Task rows are materialised
+    @Query("SELECT new com.agnel.devcollab.dto.SubtaskResponse(s.id, s.name, s.task.id, s.timer.pomodoroStart, " +
+           "s.timer.totalSecondsSpent, s.estimatedPomodoros, s.completedPomodoros, s.timer.currentCycle, s.completed) FROM Subtask s WHERE s.id > :afterId ORDER BY s.id")
+    List<SubtaskResponse> findResponsesAfter(@Param("afterId") long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT new com.agnel.devcollab.dto.SubtaskResponse(s.id, s.name, s.task.id, s.timer.pomodoroStart, " +
+           "s.timer.totalSecondsSpent, s.estimatedPomodoros, s.completedPomodoros, s.timer.currentCycle, s.completed) FROM Subtask s ORDER BY s.id")
+    Stream<SubtaskResponse> streamAllResponses();
+
+    @Query("SELECT new com.agnel.devcollab.dto.SubtaskResponse(s.id, s.name, s.task.id, s.timer.pomodoroStart, " +
+           "s.timer.totalSecondsSpent, s.estimatedPomodoros, s.completedPomodoros, s.timer.currentCycle, s.completed) FROM Subtask s WHERE s.id = :id")
+    Optional<SubtaskResponse> findResponseById(@Param("id") Long id);
+
+    @Query("SELECT new com.agnel.devcollab.dto.SubtaskResponse(s.id, s.name, s.task.id, s.timer.pomodoroStart, " +
+           "s.timer.totalSecondsSpent, s.estimatedPomodoros, s.completedPomodoros, s.timer.currentCycle, s.completed) FROM Subtask s WHERE s.task.id = :taskId ORDER BY s.id")
+    List<SubtaskResponse> findResponsesByTaskId(@Param("taskId") Long taskId);
 }
\ No newline at end of file
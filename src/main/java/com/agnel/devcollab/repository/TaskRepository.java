@@ -1,13 +1,51 @@
 package com.agnel.devcollab.repository;
 
 import com.agnel.devcollab.entity.Task;
+import com.agnel.devcollab.dto.TaskResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByProjectId(Long projectId);
-    List<Task> findByProjectIdOrderByIdAsc(Long projectId);
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId")
+    List<Task> findByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId ORDER BY t.id")
+    List<Task> findByProjectIdOrderByIdAsc(@Param("projectId") Long projectId);
+
+    // Every task on a board in one select (snapshot loading)
+    @Query("SELECT t FROM Task t JOIN FETCH t.project p WHERE p.board.id = :boardId ORDER BY t.id")
+    List<Task> findByBoardId(@Param("boardId") Long boardId);
+
+    // Flat projections for the REST layer; no Task, Project or Board rows are materialised
+    @Query("SELECT new com.agnel.devcollab.dto.TaskResponse(t.id, t.name, t.description, t.project.id, t.status, " +
+           "t.timer.pomodoroStart, t.timer.totalSecondsSpent, t.pomodoroDuration, t.breakDuration, t.timer.isBreak, " +
+           "t.estimatedPomodoros, t.completedPomodoros, t.timer.currentCycle, t.completedAt, t.createdAt) FROM Task t WHERE t.id > :afterId ORDER BY t.id")
+    List<TaskResponse> findResponsesAfter(@Param("afterId") long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT new com.agnel.devcollab.dto.TaskResponse(t.id, t.name, t.description, t.project.id, t.status, " +
+           "t.timer.pomodoroStart, t.timer.totalSecondsSpent, t.pomodoroDuration, t.breakDuration, t.timer.isBreak, " +
+           "t.estimatedPomodoros, t.completedPomodoros, t.timer.currentCycle, t.completedAt, t.createdAt) FROM Task t ORDER BY t.id")
+    Stream<TaskResponse> streamAllResponses();
+
+    @Query("SELECT new com.agnel.devcollab.dto.TaskResponse(t.id, t.name, t.description, t.project.id, t.status, " +
+           "t.timer.pomodoroStart, t.timer.totalSecondsSpent, t.pomodoroDuration, t.breakDuration, t.timer.isBreak, " +
+           "t.estimatedPomodoros, t.completedPomodoros, t.timer.currentCycle, t.completedAt, t.createdAt) FROM Task t WHERE t.id = :id")
+    Optional<TaskResponse> findResponseById(@Param("id") Long id);
+
+    @Query("SELECT new com.agnel.devcollab.dto.TaskResponse(t.id, t.name, t.description, t.project.id, t.status, " +
+           "t.timer.pomodoroStart, t.timer.totalSecondsSpent, t.pomodoroDuration, t.breakDuration, t.timer.isBreak, " +
+           "t.estimatedPomodoros, t.completedPomodoros, t.timer.currentCycle, t.completedAt, t.createdAt) FROM Task t WHERE t.project.id = :projectId ORDER BY t.id")
+    List<TaskResponse> findResponsesByProjectId(@Param("projectId") Long projectId);
 }
@@ -2,12 +2,27 @@ package com.agnel.devcollab.repository;
 
 import com.agnel.devcollab.entity.TimeEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
-    List<TimeEntry> findByUserId(Long userId);
-    List<TimeEntry> findByProjectId(Long projectId);
-    List<TimeEntry> findByTaskId(Long taskId);
-    List<TimeEntry> findBySubtaskId(Long subtaskId);
-    List<TimeEntry> findByUserIdAndStartBetween(Long userId, java.time.LocalDateTime start, java.time.LocalDateTime end);
+    // Explicit queries compare the foreign key column; derived findBy<Association>Id finders
+    // outer-join the parent table and filter on its id, which bypasses the index
+    @Query("SELECT e FROM TimeEntry e WHERE e.user.id = :userId")
+    List<TimeEntry> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT e FROM TimeEntry e WHERE e.project.id = :projectId")
+    List<TimeEntry> findByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT e FROM TimeEntry e WHERE e.task.id = :taskId")
+    List<TimeEntry> findByTaskId(@Param("taskId") Long taskId);
+
+    @Query("SELECT e FROM TimeEntry e WHERE e.subtask.id = :subtaskId")
+    List<TimeEntry> findBySubtaskId(@Param("subtaskId") Long subtaskId);
+
+    @Query("SELECT e FROM TimeEntry e WHERE e.user.id = :userId AND e.start BETWEEN :start AND :end")
+    List<TimeEntry> findByUserIdAndStartBetween(@Param("userId") Long userId,
+                                                @Param("start") java.time.LocalDateTime start,
+                                                @Param("end") java.time.LocalDateTime end);
 }
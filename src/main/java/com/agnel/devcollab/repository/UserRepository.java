@@ -2,9 +2,15 @@ package com.agnel.devcollab.repository;
 
 import com.agnel.devcollab.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // Name and email of every user, for the @mention handle index
+    @Query("SELECT u.name, u.email FROM User u")
+    List<Object[]> findNamesAndEmails();
 }
\ No newline at end of file
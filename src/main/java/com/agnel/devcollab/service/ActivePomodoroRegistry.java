@@ -0,0 +1,190 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.entity.PomodoroLog;
+import com.agnel.devcollab.repository.PomodoroLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of running Pomodoro sessions, keyed by user id.
+ * Replaces scanning a user's full PomodoroLog history on every start.
+ * Rebuilt from the database at startup; PomodoroService keeps it in sync.
+ */
+@Component
+public class ActivePomodoroRegistry {
+
+    // A session that has not completed within this window is treated as abandoned
+    public static final long STALE_AFTER_MINUTES = 30;
+
+    @Autowired
+    private PomodoroLogRepository pomodoroLogRepository;
+
+    private final ConcurrentHashMap<Long, ActiveSession> sessionsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> usersByProject = new ConcurrentHashMap<>();
+
+    /**
+     * Snapshot of the fields needed to answer "is this user busy" and team visibility queries
+     */
+    public record ActiveSession(Long logId, Long userId, String username, Long subtaskId, String subtaskName,
+                                Long projectId, LocalDateTime startTime, Integer cycleNumber) {
+
+        static ActiveSession of(PomodoroLog log) {
+            Long projectId = null;
+            if (log.getSubtask().getTask() != null && log.getSubtask().getTask().getProject() != null) {
+                projectId = log.getSubtask().getTask().getProject().getId();
+            }
+            return new ActiveSession(
+                log.getId(),
+                log.getUser().getId(),
+                log.getUser().getEmail(),
+                log.getSubtask().getId(),
+                log.getSubtask().getName(),
+                projectId,
+                log.getStartTime(),
+                log.getCycleNumber()
+            );
+        }
+
+        boolean isStale(LocalDateTime now) {
+            return !startTime.isAfter(now.minusMinutes(STALE_AFTER_MINUTES));
+        }
+    }
+
+    /**
+     * Reload every non-completed session still inside the staleness window
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        sessionsByUser.clear();
+        usersByProject.clear();
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(STALE_AFTER_MINUTES);
+        for (PomodoroLog log : pomodoroLogRepository.findByCompletedFalseAndStartTimeAfter(cutoff)) {
+            if (log.getUser() != null && log.getSubtask() != null) {
+                register(log);
+            }
+        }
+    }
+
+    /**
+     * Find the running session for a user, evicting it if it has gone stale
+     */
+    public Optional<ActiveSession> findByUser(Long userId) {
+        ActiveSession session = sessionsByUser.get(userId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (session.isStale(LocalDateTime.now())) {
+            remove(session);
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * Active, non-stale sessions on a project
+     */
+    public List<ActiveSession> findByProject(Long projectId) {
+        Set<Long> userIds = usersByProject.get(projectId);
+        if (userIds == null) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ActiveSession> sessions = new ArrayList<>();
+        for (Long userId : userIds) {
+            ActiveSession session = sessionsByUser.get(userId);
+            if (session == null || !Objects.equals(session.projectId(), projectId)) {
+                continue;
+            }
+            if (session.isStale(now)) {
+                remove(session);
+            } else {
+                sessions.add(session);
+            }
+        }
+        sessions.sort(Comparator.comparing(ActiveSession::startTime).reversed());
+        return sessions;
+    }
+
+    /**
+     * Atomically claim the active slot for a user.
+     * @return false if the user already has a non-stale session
+     */
+    public boolean tryRegister(PomodoroLog log) {
+        ActiveSession candidate = ActiveSession.of(log);
+        LocalDateTime now = LocalDateTime.now();
+        boolean[] claimed = {false};
+        ActiveSession[] replaced = {null};
+        sessionsByUser.compute(candidate.userId(), (userId, existing) -> {
+            if (existing != null && !existing.isStale(now)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            claimed[0] = true;
+            return candidate;
+        });
+        if (claimed[0]) {
+            // Only once the map holds the candidate can unindexProject see the stale session is gone
+            if (replaced[0] != null) {
+                unindexProject(replaced[0]);
+            }
+            indexProject(candidate);
+        }
+        return claimed[0];
+    }
+
+    /**
+     * Record a session unconditionally (startup rebuild, id assignment after save)
+     */
+    public void register(PomodoroLog log) {
+        ActiveSession session = ActiveSession.of(log);
+        ActiveSession previous = sessionsByUser.put(session.userId(), session);
+        if (previous != null) {
+            unindexProject(previous);
+        }
+        indexProject(session);
+    }
+
+    /**
+     * Drop the session belonging to a log, e.g. after it completes
+     */
+    public void unregister(PomodoroLog log) {
+        if (log.getUser() == null) return;
+        ActiveSession session = sessionsByUser.get(log.getUser().getId());
+        if (session != null && Objects.equals(session.logId(), log.getId())) {
+            remove(session);
+        }
+    }
+
+    private void remove(ActiveSession session) {
+        if (sessionsByUser.remove(session.userId(), session)) {
+            unindexProject(session);
+        }
+    }
+
+    private void indexProject(ActiveSession session) {
+        if (session.projectId() != null) {
+            usersByProject.computeIfAbsent(session.projectId(), id -> ConcurrentHashMap.newKeySet())
+                .add(session.userId());
+        }
+    }
+
+    private void unindexProject(ActiveSession session) {
+        if (session.projectId() == null) return;
+        usersByProject.computeIfPresent(session.projectId(), (id, users) -> {
+            // Keep the entry if the user has since started another session on the same project
+            ActiveSession current = sessionsByUser.get(session.userId());
+            if (current == null || !Objects.equals(current.projectId(), id)) {
+                users.remove(session.userId());
+            }
+            return users.isEmpty() ? null : users;
+        });
+    }
+}
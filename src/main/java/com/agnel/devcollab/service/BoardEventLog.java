@@ -0,0 +1,189 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numbers board update events and keeps the latest ones of each board for clients
+ * catching up after a missed frame or a reconnect.
+ *
+ * enqueue() takes the board's next sequence number in the writer's transaction and
+ * queues the event in the EventOutbox, so numbers follow commit order and a rolled back
+ * change leaves no gap. Registered as an interceptor on brokerChannel, the log then
+ * keeps what this node actually sent, up to devcollab.board-events.capacity per
+ * board. A catch-up this node cannot answer in full, because the events were evicted,
+ * predate a restart or were published by another relay node, is refused and the client
+ * reloads the board instead.
+ */
+@Service
+public class BoardEventLog implements ChannelInterceptor {
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Registered from here: WebSocketConfig is built before the messaging template the outbox needs
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    @Value("${devcollab.board-events.capacity:256}")
+    private int capacity;
+
+    private final ConcurrentHashMap<Long, ArrayDeque<BoardEvent>> recent = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        brokerChannel.addInterceptor(this);
+    }
+
+    /**
+     * Number an event and queue it for the board's updates topic, in the transaction making the change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long boardId, BoardEvent event) {
+        if (boardId == null || boardRepository.incrementEventSeq(boardId) == 0) {
+            return;
+        }
+        event.setBoardId(boardId);
+        event.setSeq(boardRepository.findEventSeqById(boardId).orElseThrow());
+        eventOutbox.enqueue(BoardTopics.updates(boardId), event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueForProject(Long projectId, BoardEvent event) {
+        if (projectId != null) {
+            projectRepository.findBoardIdById(projectId).ifPresent(boardId -> enqueue(boardId, event));
+        }
+    }
+
+    /**
+     * Bump the board's sequence for a change that sends no event, so its snapshot ETag
+     * changes and a catch-up across the change is refused and reloads the board instead
+     */
+    @Transactional
+    public void touch(Long boardId) {
+        if (boardId != null) {
+            boardRepository.incrementEventSeq(boardId);
+        }
+    }
+
+    @Transactional
+    public void touchForProject(Long projectId) {
+        if (projectId != null) {
+            projectRepository.findBoardIdById(projectId).ifPresent(this::touch);
+        }
+    }
+
+    /**
+     * Latest sequence number of each board, for a page to start counting from
+     */
+    public Map<Long, Long> latestSeqs(Collection<Long> boardIds) {
+        Map<Long, Long> seqs = new HashMap<>();
+        if (!boardIds.isEmpty()) {
+            for (Object[] row : boardRepository.findEventSeqsByIdIn(boardIds)) {
+                seqs.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return seqs;
+    }
+
+    /**
+     * Events after since, oldest first, given the board's latest committed number.
+     * Empty when this node cannot return every event after since that it has sent;
+     * events committed but not sent yet arrive on the topic as usual.
+     */
+    public Optional<List<BoardEvent>> since(long boardId, long since, long latest) {
+        if (since > latest) {
+            return Optional.empty();
+        }
+        ArrayDeque<BoardEvent> events = recent.get(boardId);
+        List<BoardEvent> missed = new ArrayList<>();
+        long newest = 0;
+        if (events != null) {
+            synchronized (events) {
+                for (BoardEvent event : events) {
+                    if (event.getSeq() > since) {
+                        missed.add(event);
+                    }
+                }
+                newest = events.isEmpty() ? 0 : events.peekLast().getSeq();
+            }
+        }
+        if (missed.isEmpty()) {
+            // Up to date, unless this node never saw the events in between
+            return since == latest || (newest > 0 && since == newest) ? Optional.of(missed) : Optional.empty();
+        }
+        for (int i = 0; i < missed.size(); i++) {
+            if (missed.get(i).getSeq() != since + 1 + i) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(missed);
+    }
+
+    void record(BoardEvent event) {
+        if (event.getBoardId() == null || event.getSeq() <= 0) {
+            return;
+        }
+        ArrayDeque<BoardEvent> events = recent.computeIfAbsent(event.getBoardId(), id -> new ArrayDeque<>());
+        synchronized (events) {
+            // The outbox may send an event again after a failed attempt
+            if (!events.isEmpty() && event.getSeq() <= events.peekLast().getSeq()) {
+                return;
+            }
+            events.addLast(event);
+            while (events.size() > capacity) {
+                events.pollFirst();
+            }
+        }
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        // Subscriptions to the topic pass through here too, with an empty body
+        if (destination != null && destination.startsWith("/topic/boards/") && destination.endsWith("/updates")
+                && message.getPayload() instanceof byte[] json && json.length > 0) {
+            try {
+                record(objectMapper.readValue(json, BoardEvent.class));
+            } catch (Exception e) {
+                // Not a BoardEvent; nothing to keep
+            }
+        }
+        return message;
+    }
+}
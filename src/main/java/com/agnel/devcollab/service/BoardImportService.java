@@ -0,0 +1,130 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.dto.BoardSnapshotResponse;
+import com.agnel.devcollab.dto.ColumnResponse;
+import com.agnel.devcollab.dto.ProjectResponse;
+import com.agnel.devcollab.dto.SubtaskResponse;
+import com.agnel.devcollab.dto.TaskResponse;
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.BoardColumn;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.entity.Subtask;
+import com.agnel.devcollab.entity.Task;
+import com.agnel.devcollab.repository.BoardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates a board with its columns, projects, tasks and subtasks from a snapshot, such
+ * as GET /api/boards/{id}/snapshot returns. The snapshot's ids only link children to
+ * parents; every row gets a new id. Running timers are not carried over.
+ *
+ * The tree is persisted by one cascading save. With sequence ids and ordered inserts
+ * that is one batched INSERT per table per 50 rows rather than a round trip per row.
+ */
+@Service
+public class BoardImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardImportService.class);
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Transactional
+    public Board importSnapshot(BoardSnapshotResponse snapshot) {
+        if (snapshot.getBoard() == null || snapshot.getBoard().getName() == null) {
+            throw new IllegalArgumentException("Board name is required");
+        }
+        Board board = new Board();
+        board.setName(snapshot.getBoard().getName());
+        board.setDescription(snapshot.getBoard().getDescription());
+        board.setColor(snapshot.getBoard().getColor());
+
+        // Keyed by the snapshot's ids; a board without columns keeps the default three
+        Map<Long, BoardColumn> columns = new HashMap<>();
+        if (!snapshot.getBoard().getColumns().isEmpty()) {
+            board.getColumns().clear();
+            for (ColumnResponse c : snapshot.getBoard().getColumns()) {
+                BoardColumn column = new BoardColumn(c.getName(), c.getPosition(), board);
+                if (c.getBgColor() != null) {
+                    column.setBgColor(c.getBgColor());
+                }
+                board.addColumn(column);
+                columns.put(c.getId(), column);
+            }
+        }
+
+        Map<Long, Project> projects = new HashMap<>();
+        for (ProjectResponse p : snapshot.getProjects()) {
+            Project project = new Project();
+            project.setName(p.getName());
+            project.setDescription(p.getDescription());
+            project.setCreatedAt(p.getCreatedAt() != null ? p.getCreatedAt() : LocalDateTime.now());
+            if (p.getStatus() != null) {
+                project.setStatus(Project.Status.valueOf(p.getStatus()));
+            }
+            if (p.getCompletedAt() != null) project.setCompletedAt(p.getCompletedAt());
+            if (p.getEstimatedPomodoros() != null) project.setEstimatedPomodoros(p.getEstimatedPomodoros());
+            if (p.getCompletedPomodoros() != null) project.setCompletedPomodoros(p.getCompletedPomodoros());
+            if (p.getTotalSecondsSpent() != null) project.setTotalSecondsSpent(p.getTotalSecondsSpent());
+            if (p.getPomodoroDuration() != null) project.setPomodoroDuration(p.getPomodoroDuration());
+            if (p.getBreakDuration() != null) project.setBreakDuration(p.getBreakDuration());
+            project.setBoard(board);
+            BoardColumn column = columns.getOrDefault(p.getBoardColumnId(), board.getColumns().get(0));
+            column.addProject(project);
+            board.getProjects().add(project);
+            projects.put(p.getId(), project);
+        }
+
+        Map<Long, Task> tasks = new HashMap<>();
+        for (TaskResponse t : snapshot.getTasks()) {
+            Project project = projects.get(t.getProjectId());
+            if (project == null) {
+                throw new IllegalArgumentException("Task " + t.getId() + " refers to project " + t.getProjectId() + " not in the import");
+            }
+            Task task = new Task();
+            task.setName(t.getName());
+            task.setDescription(t.getDescription());
+            task.setCreatedAt(t.getCreatedAt() != null ? t.getCreatedAt() : LocalDateTime.now());
+            if (t.getStatus() != null) {
+                task.setStatus(Task.Status.valueOf(t.getStatus()));
+            }
+            if (t.getCompletedAt() != null) task.setCompletedAt(t.getCompletedAt());
+            task.setTotalSecondsSpent(t.getTotalSecondsSpent());
+            if (t.getPomodoroDuration() > 0) task.setPomodoroDuration(t.getPomodoroDuration());
+            if (t.getBreakDuration() > 0) task.setBreakDuration(t.getBreakDuration());
+            if (t.getEstimatedPomodoros() != null) task.setEstimatedPomodoros(t.getEstimatedPomodoros());
+            if (t.getCompletedPomodoros() != null) task.setCompletedPomodoros(t.getCompletedPomodoros());
+            task.setProject(project);
+            project.getTasks().add(task);
+            tasks.put(t.getId(), task);
+        }
+
+        for (SubtaskResponse s : snapshot.getSubtasks()) {
+            Task task = tasks.get(s.getTaskId());
+            if (task == null) {
+                throw new IllegalArgumentException("Subtask " + s.getId() + " refers to task " + s.getTaskId() + " not in the import");
+            }
+            Subtask subtask = new Subtask();
+            subtask.setName(s.getName());
+            subtask.setTotalSecondsSpent(s.getTotalSecondsSpent());
+            if (s.getEstimatedPomodoros() != null) subtask.setEstimatedPomodoros(s.getEstimatedPomodoros());
+            if (s.getCompletedPomodoros() != null) subtask.setCompletedPomodoros(s.getCompletedPomodoros());
+            if (s.getCompleted() != null) subtask.setCompleted(s.getCompleted());
+            subtask.setTask(task);
+            task.getSubtasks().add(subtask);
+        }
+
+        Board saved = boardRepository.save(board);
+        logger.info("Imported board {}: {} projects, {} tasks, {} subtasks",
+            saved.getId(), projects.size(), tasks.size(), snapshot.getSubtasks().size());
+        return saved;
+    }
+}
@@ -0,0 +1,52 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.dto.*;
+import com.agnel.devcollab.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loads a whole board (columns, projects, tasks, subtasks) as flat DTOs.
+ * Uses one select per level, so the query count is fixed regardless of board size.
+ */
+@Service
+public class BoardSnapshotService {
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Transactional(readOnly = true)
+    public Optional<BoardSnapshotResponse> snapshot(long boardId) {
+        return boardRepository.findWithOwnerById(boardId).map(board -> {
+            List<ColumnResponse> columns = columnRepository.findByBoardIdOrderByPosition(boardId).stream()
+                .map(ColumnResponse::from)
+                .toList();
+            List<ProjectResponse> projects = projectRepository.findWithAssociationsByBoardId(boardId).stream()
+                .map(ProjectResponse::from)
+                .toList();
+            List<TaskResponse> tasks = taskRepository.findByBoardId(boardId).stream()
+                .map(TaskResponse::from)
+                .toList();
+            List<SubtaskResponse> subtasks = subtaskRepository.findByBoardId(boardId).stream()
+                .map(SubtaskResponse::from)
+                .toList();
+            return new BoardSnapshotResponse(BoardResponse.from(board, columns), projects, tasks, subtasks);
+        });
+    }
+}
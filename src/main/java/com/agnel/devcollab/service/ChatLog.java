@@ -0,0 +1,341 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.dto.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Append-only chat history on local disk, one log per project, kept out of JPA.
+ *
+ * A project's log is a run of pre-sized, memory-mapped segment files named after the
+ * id of their first message. A record is [int length][ChatMessage JSON]; the length is
+ * written last, so a torn append reads as the end of the log. A message's id is its
+ * position in the project log. Every INDEX_INTERVAL-th id is kept in a sparse index,
+ * so a page read seeks once and then scans forward sequentially.
+ *
+ * Mappings are only released when they are garbage collected, so each project keeps
+ * the read-only maps of its most recently paged sealed segments instead of mapping
+ * them per read, and a project log unused for idle-ms is flushed and dropped; it is
+ * reopened from disk on its next use.
+ */
+@Service
+public class ChatLog {
+
+    private static final int INDEX_INTERVAL = 64;
+    private static final String SEGMENT_SUFFIX = ".log";
+    // Sealed segments kept mapped per project for paging back through history
+    private static final int MAPPED_SEGMENTS = 4;
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatLog.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${devcollab.chat.dir:data/chat}")
+    private String directory;
+
+    @Value("${devcollab.chat.segment-bytes:8388608}")
+    private int segmentBytes;
+
+    @Value("${devcollab.chat.idle-ms:600000}")
+    private long idleMs;
+
+    private final ConcurrentHashMap<Long, ProjectLog> logs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-log-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        long interval = Math.max(1000, idleMs / 4);
+        sweeper.scheduleWithFixedDelay(this::closeIdleQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Store a message and give it the next id of its project's log */
+    public ChatMessage append(long projectId, ChatMessage message) {
+        message.setProjectId(projectId);
+        return withLog(projectId, log -> log.append(message));
+    }
+
+    /** Up to limit messages older than beforeId (newest page when null), oldest first */
+    public List<ChatMessage> before(long projectId, Long beforeId, int limit) {
+        return withLog(projectId, log -> log.page(beforeId, limit));
+    }
+
+    /** Flush mapped segments to disk; logs reopen from disk on next use */
+    public void close() {
+        logs.forEach((id, log) -> {
+            log.close();
+            logs.remove(id, log);
+        });
+    }
+
+    /** Close the logs of projects unused for longer than idle-ms; returns how many were closed */
+    public int closeIdle() {
+        long unusedSince = System.currentTimeMillis() - idleMs;
+        int closed = 0;
+        for (Map.Entry<Long, ProjectLog> entry : logs.entrySet()) {
+            if (entry.getValue().closeIfUnusedSince(unusedSince)) {
+                logs.remove(entry.getKey(), entry.getValue());
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+        close();
+    }
+
+    private void closeIdleQuietly() {
+        try {
+            closeIdle();
+        } catch (Exception e) {
+            logger.warn("Chat log sweep failed", e);
+        }
+    }
+
+    // A log closed between lookup and use answers null; the retry reopens it from disk
+    private <T> T withLog(long projectId, Function<ProjectLog, T> operation) {
+        while (true) {
+            T result = operation.apply(logs.computeIfAbsent(projectId,
+                id -> new ProjectLog(Paths.get(directory, String.valueOf(id)))));
+            if (result != null) {
+                return result;
+            }
+        }
+    }
+
+    // Where a record starts: the segment (by first id) and the byte offset inside it
+    private record Position(long segment, int offset) {}
+
+    private final class ProjectLog {
+
+        private final Path dir;
+        // First id -> segment file
+        private final TreeMap<Long, Path> segments = new TreeMap<>();
+        private final TreeMap<Long, Position> index = new TreeMap<>();
+        // First id -> read-only map of a sealed segment, least recently paged first
+        private final LinkedHashMap<Long, ByteBuffer> mapped = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ByteBuffer> eldest) {
+                return size() > MAPPED_SEGMENTS;
+            }
+        };
+        private MappedByteBuffer tail;
+        private long tailSegment;
+        private int tailOffset;
+        private long nextId;
+        private long lastUsed = System.currentTimeMillis();
+        private boolean closed;
+
+        ProjectLog(Path dir) {
+            this.dir = dir;
+            if (!Files.isDirectory(dir)) {
+                return;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> {
+                        String name = file.getFileName().toString();
+                        segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+                    });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read chat log " + dir, e);
+            }
+            // Rebuild the sparse index and find the end of the log with one sequential pass
+            for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+                nextId = segment.getKey();
+                ByteBuffer buffer = map(segment.getValue(), FileChannel.MapMode.READ_ONLY);
+                int offset = 0;
+                int length;
+                while ((length = recordLength(buffer, offset)) > 0) {
+                    if (nextId % INDEX_INTERVAL == 0) {
+                        index.put(nextId, new Position(segment.getKey(), offset));
+                    }
+                    nextId++;
+                    offset += Integer.BYTES + length;
+                }
+                tailSegment = segment.getKey();
+                tailOffset = offset;
+            }
+            if (!segments.isEmpty()) {
+                tail = map(segments.get(tailSegment), FileChannel.MapMode.READ_WRITE);
+            }
+        }
+
+        synchronized ChatMessage append(ChatMessage message) {
+            if (closed) {
+                return null;
+            }
+            lastUsed = System.currentTimeMillis();
+            message.setId(nextId);
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(message);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot serialize chat message", e);
+            }
+            int size = Integer.BYTES + json.length;
+            if (size > segmentBytes) {
+                throw new IllegalArgumentException("Chat message too large");
+            }
+            if (tail == null || tailOffset + size > segmentBytes) {
+                roll();
+            }
+            tail.put(tailOffset + Integer.BYTES, json);
+            tail.putInt(tailOffset, json.length);
+            if (nextId % INDEX_INTERVAL == 0) {
+                index.put(nextId, new Position(tailSegment, tailOffset));
+            }
+            tailOffset += size;
+            nextId++;
+            return message;
+        }
+
+        synchronized List<ChatMessage> page(Long beforeId, int limit) {
+            if (closed) {
+                return null;
+            }
+            lastUsed = System.currentTimeMillis();
+            long to = (beforeId == null) ? nextId : Math.min(beforeId, nextId);
+            long from = Math.max(0, to - limit);
+            List<ChatMessage> messages = new ArrayList<>();
+            Map.Entry<Long, Position> start = index.floorEntry(from);
+            if (from >= to || start == null) {
+                return messages;
+            }
+            long id = start.getKey();
+            long segment = start.getValue().segment();
+            int offset = start.getValue().offset();
+            ByteBuffer buffer = buffer(segment);
+            while (id < to) {
+                int length = recordLength(buffer, offset);
+                if (length <= 0) {
+                    // End of this segment; the next one starts at the following id
+                    Long next = segments.higherKey(segment);
+                    if (next == null) {
+                        break;
+                    }
+                    segment = next;
+                    buffer = buffer(segment);
+                    offset = 0;
+                    continue;
+                }
+                if (id >= from) {
+                    byte[] json = new byte[length];
+                    buffer.get(offset + Integer.BYTES, json);
+                    messages.add(read(json));
+                }
+                id++;
+                offset += Integer.BYTES + length;
+            }
+            return messages;
+        }
+
+        synchronized void flush() {
+            if (tail != null) {
+                tail.force();
+            }
+        }
+
+        // Flush and drop every mapping; later calls answer null so the caller reopens the log
+        synchronized void close() {
+            flush();
+            closed = true;
+            tail = null;
+            mapped.clear();
+        }
+
+        synchronized boolean closeIfUnusedSince(long time) {
+            if (closed || lastUsed >= time) {
+                return false;
+            }
+            close();
+            return true;
+        }
+
+        // Seal the current segment and start a new one named after the next id
+        private void roll() {
+            flush();
+            try {
+                Files.createDirectories(dir);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create chat log " + dir, e);
+            }
+            Path file = dir.resolve(nextId + SEGMENT_SUFFIX);
+            segments.put(nextId, file);
+            tail = map(file, FileChannel.MapMode.READ_WRITE);
+            tailSegment = nextId;
+            tailOffset = 0;
+        }
+
+        // Absolute reads only, so cached maps can be shared by every page read of this log
+        private ByteBuffer buffer(long segment) {
+            if (segment == tailSegment && tail != null) {
+                return tail.duplicate();
+            }
+            return mapped.computeIfAbsent(segment, first -> map(segments.get(first), FileChannel.MapMode.READ_ONLY));
+        }
+
+        // Writable maps pre-size the file to a full segment; unused space reads as zero lengths
+        private MappedByteBuffer map(Path file, FileChannel.MapMode mode) {
+            try (FileChannel channel = mode == FileChannel.MapMode.READ_WRITE
+                    ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = mode == FileChannel.MapMode.READ_WRITE ? segmentBytes : channel.size();
+                return channel.map(mode, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map chat segment " + file, e);
+            }
+        }
+
+        private ChatMessage read(byte[] json) {
+            try {
+                return objectMapper.readValue(json, ChatMessage.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupt chat record in " + dir, e);
+            }
+        }
+    }
+
+    // Length of the record at offset, or 0 at the end of the written part of a segment
+    private static int recordLength(ByteBuffer buffer, int offset) {
+        if (offset + Integer.BYTES > buffer.limit()) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        return (length > 0 && offset + Integer.BYTES + length <= buffer.limit()) ? length : 0;
+    }
+}
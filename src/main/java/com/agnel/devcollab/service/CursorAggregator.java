@@ -0,0 +1,112 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.dto.CursorBatch;
+import com.agnel.devcollab.dto.CursorMove;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces cursor moves per board and sends them as one CursorBatch per tick.
+ * Between ticks only the latest position of each user is kept, so broker work is
+ * bounded by tick rate times active boards instead of by mouse event rate.
+ */
+@Service
+public class CursorAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CursorAggregator.class);
+
+    private record Latest(CursorMove move, long receivedAt) {}
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${devcollab.cursor.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    // A position that waited this long behind a slow flush is superseded on the client anyway
+    @Value("${devcollab.cursor.stale-after-ms:500}")
+    private long staleAfterMs;
+
+    // Boards with moves since the last tick; each board's map is taken out whole on flush
+    private final ConcurrentHashMap<Long, Map<String, Latest>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cursor-aggregator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        // Fixed delay: a slow flush pushes the next tick back instead of queueing ticks behind it
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Record a move; it replaces any earlier move of the same user not yet flushed
+     */
+    public void submit(long boardId, CursorMove move) {
+        if (move.getUserId() == null) {
+            return;
+        }
+        Latest latest = new Latest(move, System.nanoTime());
+        // The inner map is only touched inside compute/remove, which lock the board's entry
+        pending.compute(boardId, (id, moves) -> {
+            Map<String, Latest> target = (moves != null) ? moves : new HashMap<>();
+            target.put(move.getUserId(), latest);
+            return target;
+        });
+    }
+
+    /**
+     * Send one batch per board with pending moves, dropping stale ones.
+     * Returns the number of batches sent.
+     */
+    public int flush() {
+        long staleBefore = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(staleAfterMs);
+        int batches = 0;
+        for (Long boardId : pending.keySet()) {
+            Map<String, Latest> moves = pending.remove(boardId);
+            if (moves == null) {
+                continue;
+            }
+            List<CursorMove> fresh = moves.values().stream()
+                .filter(latest -> latest.receivedAt() - staleBefore >= 0)
+                .map(Latest::move)
+                .toList();
+            if (!fresh.isEmpty()) {
+                messagingTemplate.convertAndSend(BoardTopics.cursors(boardId), new CursorBatch(boardId, fresh));
+                batches++;
+            }
+        }
+        return batches;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // Keep ticking; the next batch carries newer positions anyway
+            logger.warn("Cursor flush failed", e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.entity.DailyFocusRollup;
+import com.agnel.devcollab.entity.PomodoroLog;
+import com.agnel.devcollab.entity.PomodoroLog.BreakType;
+import com.agnel.devcollab.entity.TimeEntry;
+import com.agnel.devcollab.repository.DailyFocusRollupRepository;
+import com.agnel.devcollab.repository.PomodoroLogRepository;
+import com.agnel.devcollab.repository.TimeEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Maintains DailyFocusRollup rows so analytics read a few rows per day
+ * instead of recomputing from raw pomodoro_log and TimeEntry history.
+ */
+@Service
+public class DailyFocusRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyFocusRollupService.class);
+
+    @Autowired
+    private DailyFocusRollupRepository rollupRepository;
+
+    @Autowired
+    private PomodoroLogRepository pomodoroLogRepository;
+
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Count a Pomodoro session when it starts, whether or not it is ever completed
+     */
+    @Transactional
+    public void recordStartedSession(PomodoroLog log) {
+        if (log.getUser() == null || log.getStartTime() == null) return;
+
+        DailyFocusRollup rollup = findOrCreate(log.getUser().getId(), projectId(log), log.getStartTime().toLocalDate());
+        rollupRepository.addStartedSession(rollup.getId());
+    }
+
+    /**
+     * Add distractions logged on a session that has not completed yet
+     */
+    @Transactional
+    public void recordDistractions(PomodoroLog log, int distractions) {
+        if (log.getUser() == null || log.getStartTime() == null || distractions == 0) return;
+
+        DailyFocusRollup rollup = findOrCreate(log.getUser().getId(), projectId(log), log.getStartTime().toLocalDate());
+        rollupRepository.addDistractions(rollup.getId(), distractions);
+    }
+
+    /**
+     * Add a completed Pomodoro cycle to its (user, project, day) row.
+     * addedDistractions is how far completing changed the log's count, since pauses were counted already.
+     */
+    @Transactional
+    public void recordCompletedCycle(PomodoroLog log, BreakType breakType, int addedDistractions) {
+        if (log.getUser() == null || log.getStartTime() == null || log.getEndTime() == null) return;
+
+        DailyFocusRollup rollup = findOrCreate(log.getUser().getId(), projectId(log), log.getStartTime().toLocalDate());
+        rollupRepository.addCompletedCycle(
+            rollup.getId(),
+            ChronoUnit.SECONDS.between(log.getStartTime(), log.getEndTime()),
+            addedDistractions,
+            breakType == BreakType.SHORT ? 1 : 0,
+            breakType == BreakType.LONG ? 1 : 0
+        );
+    }
+
+    /**
+     * Add a finished time entry's duration to its row.
+     * Pass direction -1 to retract an entry before it is edited or deleted.
+     */
+    @Transactional
+    public void recordTimeEntry(TimeEntry entry, int direction) {
+        if (entry.getUser() == null || entry.getStart() == null || entry.getEnd() == null) return;
+
+        Long projectId = entry.getProject() != null ? entry.getProject().getId() : null;
+        long seconds = ChronoUnit.SECONDS.between(entry.getStart(), entry.getEnd());
+
+        DailyFocusRollup rollup = findOrCreate(entry.getUser().getId(), projectId, entry.getStart().toLocalDate());
+        rollupRepository.addTrackedSeconds(rollup.getId(), seconds * direction);
+    }
+
+    /**
+     * Add many new entries, with one rollup update per (user, project, day) they fall on
+     */
+    @Transactional
+    public void recordTimeEntries(Collection<TimeEntry> entries) {
+        Map<List<Object>, Long> seconds = new LinkedHashMap<>();
+        for (TimeEntry entry : entries) {
+            if (entry.getUser() == null || entry.getStart() == null || entry.getEnd() == null) continue;
+            Long projectId = entry.getProject() != null ? entry.getProject().getId() : null;
+            List<Object> key = Arrays.asList(entry.getUser().getId(), projectId, entry.getStart().toLocalDate());
+            seconds.merge(key, ChronoUnit.SECONDS.between(entry.getStart(), entry.getEnd()), Long::sum);
+        }
+        seconds.forEach((key, total) -> {
+            DailyFocusRollup rollup = findOrCreate((Long) key.get(0), (Long) key.get(1), (LocalDate) key.get(2));
+            rollupRepository.addTrackedSeconds(rollup.getId(), total);
+        });
+    }
+
+    /**
+     * Rollup rows for a user between two days (inclusive)
+     */
+    public List<DailyFocusRollup> findForUser(Long userId, LocalDate from, LocalDate to) {
+        return rollupRepository.findByUserIdAndDayBetweenOrderByDayAsc(userId, from, to);
+    }
+
+    /**
+     * Backfill job: rebuild every rollup row from raw history
+     * @return number of rollup rows written
+     */
+    @Transactional
+    public int rebuild() {
+        Map<List<Object>, DailyFocusRollup> merged = new LinkedHashMap<>();
+        List<DailyFocusRollup> rows = new ArrayList<>(rollupRepository.aggregatePomodoroHistory());
+        rows.addAll(rollupRepository.aggregateTimeEntryHistory());
+        for (DailyFocusRollup row : rows) {
+            List<Object> key = Arrays.asList(row.getUserId(), row.getProjectId(), row.getDay());
+            DailyFocusRollup existing = merged.putIfAbsent(key, row);
+            if (existing != null) {
+                existing.add(row);
+            }
+        }
+
+        rollupRepository.deleteAllInBatch();
+        rollupRepository.saveAll(merged.values());
+        return merged.size();
+    }
+
+    /**
+     * Run the backfill once at startup when history exists but no rollups do
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0
+                && (pomodoroLogRepository.count() > 0 || timeEntryRepository.count() > 0)) {
+            int rows = rebuild();
+            logger.info("Backfilled {} daily focus rollup rows", rows);
+        }
+    }
+
+    private static Long projectId(PomodoroLog log) {
+        if (log.getSubtask() != null && log.getSubtask().getTask() != null
+                && log.getSubtask().getTask().getProject() != null) {
+            return log.getSubtask().getTask().getProject().getId();
+        }
+        return null;
+    }
+
+    // The row is inserted in its own transaction: when a concurrent writer creates it first the
+    // unique constraint fails only that insert, and the caller's transaction re-reads the winner's row
+    private DailyFocusRollup findOrCreate(Long userId, Long projectId, LocalDate day) {
+        long projectKey = DailyFocusRollup.projectKey(projectId);
+        Optional<DailyFocusRollup> existing = rollupRepository.findByUserIdAndProjectIdAndDay(userId, projectKey, day);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        TransactionTemplate insert = new TransactionTemplate(transactionManager);
+        insert.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            insert.executeWithoutResult(status -> rollupRepository.save(new DailyFocusRollup(userId, projectId, day)));
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race; the other writer's row is committed now
+        }
+        return rollupRepository.findByUserIdAndProjectIdAndDay(userId, projectKey, day)
+            .orElseThrow(() -> new IllegalStateException("Daily focus rollup row missing after insert"));
+    }
+}
@@ -0,0 +1,14 @@
+package com.agnel.devcollab.service;
+
+/**
+ * Carries board, timer and chat broadcasts to the STOMP subscribers of every app node.
+ * Publishers name a destination (see BoardTopics); each node delivers events to its
+ * own clients in publish order.
+ *
+ * devcollab.events.transport picks the implementation: local (single node, or nodes
+ * behind the broker relay, which already fans out) or jdbc (nodes sharing a database).
+ */
+public interface DomainEventBus {
+
+    void publish(String destination, Object payload);
+}
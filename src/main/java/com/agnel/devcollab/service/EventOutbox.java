@@ -0,0 +1,185 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.entity.OutboxEvent;
+import com.agnel.devcollab.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox in front of the DomainEventBus. enqueue() stores the event with
+ * the caller's entity change, so it exists exactly when the change committed; a
+ * background dispatcher then sends pending rows in batches, retrying failures with
+ * back-off while keeping each destination's events in order. A destination waiting for
+ * a retry is left out of the batch query, so it cannot crowd out the others.
+ *
+ * Rows are sent in id order. For board topics that is commit order, since writers to a
+ * board queue on its sequence UPDATE (see BoardEventLog); other destinations carry
+ * independent notifications, whose order is only as good as their ids.
+ *
+ * The dispatcher wakes on commit, at startup and when a retry is due, so an idle outbox
+ * costs no queries. With several nodes on one database, enable dispatch on one node
+ * only and give it a poll interval so it also sees the other nodes' commits.
+ */
+@Service
+public class EventOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventOutbox.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${devcollab.outbox.dispatch:true}")
+    private boolean dispatch;
+
+    // 0 = no polling; only needed when other nodes write to this node's outbox
+    @Value("${devcollab.outbox.poll-interval-ms:0}")
+    private long pollIntervalMs;
+
+    @Value("${devcollab.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${devcollab.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Earliest retry wake-up already scheduled, so repeated drains do not stack duplicates
+    private LocalDateTime retryScheduledAt;
+
+    @PostConstruct
+    public void start() {
+        if (dispatch) {
+            // Rows committed before a restart
+            dispatcher.execute(this::drainQuietly);
+            if (pollIntervalMs > 0) {
+                dispatcher.scheduleWithFixedDelay(this::drainQuietly, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Record an event in the current transaction; it is sent after that transaction commits
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String destination, Object payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(destination, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event for " + destination + " is not serializable", e);
+        }
+        if (dispatch && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.execute(EventOutbox.this::drainQuietly);
+                }
+            });
+        }
+    }
+
+    /**
+     * Send one batch of due events. Returns the number sent.
+     */
+    public synchronized int drain() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findDispatchable(now, Limit.of(batchSize));
+        // A destination whose earlier event failed in this round sends nothing more in it
+        Set<String> blocked = new HashSet<>();
+        List<Long> done = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        LocalDateTime nextRetry = outboxEventRepository.findNextAttemptAfter(now).orElse(null);
+        for (OutboxEvent event : batch) {
+            if (blocked.contains(event.getDestination())) {
+                continue;
+            }
+            try {
+                eventBus.publish(event.getDestination(), objectMapper.readTree(event.getPayload()));
+                done.add(event.getId());
+            } catch (Exception e) {
+                event.setAttempts(event.getAttempts() + 1);
+                if (event.getAttempts() >= maxAttempts) {
+                    // Give up so one poison event cannot stall its board forever
+                    logger.warn("Outbox dropping event {} for {} after {} attempts",
+                        event.getId(), event.getDestination(), event.getAttempts(), e);
+                    done.add(event.getId());
+                } else {
+                    event.setNextAttemptAt(now.plusNanos(backOffMillis(event.getAttempts()) * 1_000_000));
+                    failed.add(event);
+                    blocked.add(event.getDestination());
+                    nextRetry = earliest(nextRetry, event.getNextAttemptAt());
+                }
+            }
+        }
+        if (!failed.isEmpty()) {
+            outboxEventRepository.saveAll(failed);
+        }
+        if (!done.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(done);
+        }
+        if (dispatch && nextRetry != null
+                && (retryScheduledAt == null || !retryScheduledAt.isAfter(now) || nextRetry.isBefore(retryScheduledAt))) {
+            retryScheduledAt = nextRetry;
+            long delayMs = Math.max(1, Duration.between(LocalDateTime.now(), nextRetry).toMillis());
+            dispatcher.schedule(this::drainQuietly, delayMs, TimeUnit.MILLISECONDS);
+        }
+        return done.size();
+    }
+
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
+    // 200 ms, 400 ms, 800 ms ... capped at 30 s
+    private static long backOffMillis(int attempts) {
+        return Math.min(30_000L, 100L << Math.min(attempts, 20));
+    }
+
+    private void drainQuietly() {
+        try {
+            // Keep going while batches make progress so a backlog is not spread over many polls;
+            // a batch cut short by a failing destination is followed by one without it
+            while (drain() > 0) {
+                // next batch
+            }
+        } catch (Exception e) {
+            logger.warn("Outbox dispatch failed", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.agnel.devcollab.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hands events straight to this node's broker, on the publishing thread.
+ */
+@Service
+@ConditionalOnProperty(name = "devcollab.events.transport", havingValue = "local", matchIfMissing = true)
+public class InMemoryDomainEventBus implements DomainEventBus {
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public void publish(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+    }
+}
@@ -0,0 +1,174 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.entity.ClusterEvent;
+import com.agnel.devcollab.repository.ClusterEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node bus over the shared database: publishing inserts a cluster_event row,
+ * and every node (the publisher included) polls new rows in id order and sends them
+ * to its local broker. All nodes therefore deliver the same events in the same order.
+ *
+ * IDENTITY ids are handed out at insert but become visible at commit, so a missing id
+ * may be a transaction still in flight. Later events wait for it up to gap-timeout-ms;
+ * after that they are delivered and the missing id is remembered and looked up again on
+ * every poll until retention-ms, so a late commit is delivered out of order rather than
+ * lost. Ids that never show up were rolled back.
+ */
+@Service
+@ConditionalOnProperty(name = "devcollab.events.transport", havingValue = "jdbc")
+public class JdbcDomainEventBus implements DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcDomainEventBus.class);
+
+    @Autowired
+    private ClusterEventRepository clusterEventRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${devcollab.events.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    @Value("${devcollab.events.batch-size:500}")
+    private int batchSize;
+
+    // How long a missing id may hold back later ones before they are delivered past it
+    @Value("${devcollab.events.gap-timeout-ms:2000}")
+    private long gapTimeoutMs;
+
+    @Value("${devcollab.events.retention-ms:600000}")
+    private long retentionMs;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "domain-event-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Missing ids remembered at once; more than this many open gaps means ids jumped, not commits lagging
+    private static final int MAX_TRACKED_GAPS = 1000;
+
+    // Only touched on the poller thread
+    private long lastDelivered;
+    private long gapSince;
+    private long lastPurge;
+    // Skipped id -> when it was skipped
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+    @PostConstruct
+    public void start() {
+        // Events published before this node started are not replayed
+        lastDelivered = clusterEventRepository.findMaxId();
+        poller.scheduleWithFixedDelay(this::pollQuietly, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    @Override
+    public void publish(String destination, Object payload) {
+        try {
+            // Inside a caller's transaction the row, and so the broadcast, only exists once it commits
+            clusterEventRepository.save(new ClusterEvent(destination, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event for " + destination + " is not serializable", e);
+        }
+    }
+
+    /**
+     * Deliver skipped events that have committed since, then new events in id order.
+     * Returns the number delivered.
+     */
+    public synchronized int poll() {
+        long now = System.currentTimeMillis();
+        int delivered = deliverLateCommits(now);
+        List<ClusterEvent> events = clusterEventRepository.findByIdGreaterThanOrderByIdAsc(lastDelivered, Limit.of(batchSize));
+        for (ClusterEvent event : events) {
+            // A lower id may belong to a transaction that has not committed yet; wait for it a little
+            if (event.getId() != lastDelivered + 1) {
+                if (gapSince == 0) {
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeoutMs) {
+                    break;
+                }
+                for (long missing = lastDelivered + 1; missing < event.getId() && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+                    gaps.put(missing, now);
+                }
+            }
+            gapSince = 0;
+            deliver(event);
+            lastDelivered = event.getId();
+            delivered++;
+        }
+        purgeExpired();
+        return delivered;
+    }
+
+    // Skipped ids are looked up again until their rows would have been purged anyway
+    private int deliverLateCommits(long now) {
+        gaps.values().removeIf(skippedAt -> now - skippedAt > retentionMs);
+        if (gaps.isEmpty()) {
+            return 0;
+        }
+        int delivered = 0;
+        for (ClusterEvent event : clusterEventRepository.findByIdInOrderByIdAsc(gaps.keySet())) {
+            gaps.remove(event.getId());
+            deliver(event);
+            delivered++;
+        }
+        return delivered;
+    }
+
+    private void deliver(ClusterEvent event) {
+        // Already JSON; sent as-is instead of going through the message converter again
+        messagingTemplate.send(event.getDestination(), MessageBuilder
+            .withPayload(event.getPayload().getBytes(StandardCharsets.UTF_8))
+            .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+            .build());
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge >= 60_000) {
+            lastPurge = now;
+            clusterEventRepository.deleteCreatedBefore(LocalDateTime.now().minusNanos(retentionMs * 1_000_000));
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (Exception e) {
+            logger.warn("Domain event poll failed", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.dto.MentionNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user mention notifications. Each one is pushed to the user's own
+ * /user/queue/notifications when they are connected and kept in a bounded inbox,
+ * oldest dropped first, so a user who was offline can page through what they missed.
+ *
+ * The inbox lives in this node's memory: it is empty after a restart, and with several
+ * nodes behind the broker relay a user only finds the mentions raised on the node that
+ * serves their REST call. Live delivery is unaffected; the relay routes /user destinations
+ * to whichever node holds the session. Callers are expected to have checked that the
+ * recipient may read the project the mention came from.
+ */
+@Service
+public class NotificationInbox {
+
+    public static final String QUEUE = "/queue/notifications";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SimpUserRegistry userRegistry;
+
+    @Value("${devcollab.notifications.inbox-size:100}")
+    private int inboxSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+    // User email -> newest notifications, oldest first
+    private final ConcurrentHashMap<String, Deque<MentionNotification>> inboxes = new ConcurrentHashMap<>();
+
+    public void deliver(String email, MentionNotification notification) {
+        notification.setId(sequence.incrementAndGet());
+        Deque<MentionNotification> inbox = inboxes.computeIfAbsent(email, key -> new ArrayDeque<>());
+        synchronized (inbox) {
+            inbox.addLast(notification);
+            while (inbox.size() > inboxSize) {
+                inbox.removeFirst();
+            }
+        }
+        if (userRegistry.getUser(email) != null) {
+            messagingTemplate.convertAndSendToUser(email, QUEUE, notification);
+        }
+    }
+
+    /** Up to limit notifications with an id above afterId, oldest first */
+    public List<MentionNotification> after(String email, long afterId, int limit) {
+        Deque<MentionNotification> inbox = inboxes.get(email);
+        if (inbox == null) {
+            return List.of();
+        }
+        synchronized (inbox) {
+            return inbox.stream()
+                .filter(notification -> notification.getId() > afterId)
+                .limit(limit)
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.agnel.devcollab.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a read-modify-save when another writer bumped the row's @Version first.
+ * Each attempt runs in its own transaction and persistence context, so the retry
+ * reads the committed row instead of the stale copy an open-in-view session holds.
+ *
+ * Only edits bump @Version (timer transitions leave it alone), so a conflict means two
+ * edits of the same row. The retries sleep on the request thread, so they are held to a
+ * short budget; an edit still conflicting after that answers 409 Conflict.
+ */
+@Component
+public class OptimisticRetry {
+
+    // How long an edit keeps retrying before the conflict is reported to the caller
+    private static final long BUDGET_MILLIS = 1_000;
+
+    // Upper bound on a single pause, so late attempts still poll the row often
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public <T> T run(Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BUDGET_MILLIS);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Edited concurrently, try again", e);
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Random, growing pause so a burst of writers does not collide again in lockstep
+    private static void backOff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, 10L << Math.min(attempt, 5));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying an optimistic update", e);
+        }
+    }
+}
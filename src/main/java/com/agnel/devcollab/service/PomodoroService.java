@@ -1,15 +1,26 @@
 package com.agnel.devcollab.service;
 
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.PomodoroDailyStats;
+import com.agnel.devcollab.dto.PomodoroStatsSummary;
+import com.agnel.devcollab.dto.SubtaskResponse;
 import com.agnel.devcollab.entity.PomodoroLog;
 import com.agnel.devcollab.entity.PomodoroLog.BreakType;
 import com.agnel.devcollab.entity.Subtask;
 import com.agnel.devcollab.entity.User;
+import com.agnel.devcollab.repository.DailyFocusRollupRepository;
 import com.agnel.devcollab.repository.PomodoroLogRepository;
+import com.agnel.devcollab.repository.SubtaskRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -29,7 +40,25 @@ public class PomodoroService {
     private PomodoroLogRepository pomodoroLogRepository;
     
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private DailyFocusRollupRepository dailyFocusRollupRepository;
+    
+    @Autowired
+    private EventOutbox eventOutbox;
+    
+    @Autowired
+    private ActivePomodoroRegistry activePomodoroRegistry;
+    
+    @Autowired
+    private DailyFocusRollupService dailyFocusRollupService;
+    
+    @Autowired
+    private TimerStateService timerStateService;
+    
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+    
+    @Autowired
+    private BoardEventLog boardEventLog;
 
     // ========== PILLAR 1: TASK ALIGNMENT ==========
     
@@ -39,12 +68,6 @@ public class PomodoroService {
      */
     @Transactional
     public PomodoroLog startPomodoroOnSubtask(Subtask subtask, User user) {
-        // Check if there's already an active Pomodoro for this user
-        Optional<PomodoroLog> activeLog = findActivePomodoro(user.getId());
-        if (activeLog.isPresent()) {
-            throw new IllegalStateException("User already has an active Pomodoro session");
-        }
-        
         PomodoroLog log = new PomodoroLog();
         log.setSubtask(subtask);
         log.setUser(user);
@@ -55,13 +78,32 @@ public class PomodoroService {
         log.setBreakType(BreakType.NONE);
         log.setDistractions(0);
         
-        // Set Pomodoro start time on subtask
-        subtask.setPomodoroStart(LocalDateTime.now());
+        // Claim the user's active slot (atomic check against the in-memory registry)
+        if (!activePomodoroRegistry.tryRegister(log)) {
+            throw new IllegalStateException("User already has an active Pomodoro session");
+        }
+        // From here on a failure must give the slot back, or the user stays blocked until it goes stale
+        releaseOnRollback(log);
         
-        PomodoroLog saved = pomodoroLogRepository.save(log);
+        PomodoroLog saved;
+        boolean started;
+        try {
+            // Start the subtask timer
+            started = timerStateService.start(TimerStateService.Kind.SUBTASK, subtask.getId());
+            saved = pomodoroLogRepository.save(log);
+        } catch (RuntimeException e) {
+            activePomodoroRegistry.unregister(log);
+            throw e;
+        }
+        activePomodoroRegistry.register(saved);
+        dailyFocusRollupService.recordStartedSession(saved);
         
         // Broadcast to team via WebSocket
         broadcastPomodoroStart(subtask, user);
+        if (started) {
+            subtaskRepository.findResponseById(subtask.getId())
+                .ifPresent(current -> broadcastTimerChange(BoardEvent.Type.TIMER_STARTED, current));
+        }
         
         return saved;
     }
@@ -97,45 +139,83 @@ public class PomodoroService {
     // ========== PILLAR 2: TIMER MECHANICS ==========
     
     /**
-     * Complete a Pomodoro cycle (25 minutes work)
+     * Complete a Pomodoro cycle (25 minutes work).
+     * A session is completed once; completing it again is refused.
      */
     @Transactional
     public Map<String, Object> completeCycle(long logId, int distractions, String notes) {
         PomodoroLog log = pomodoroLogRepository.findById(logId)
             .orElseThrow(() -> new IllegalArgumentException("PomodoroLog not found"));
         
-        log.setEndTime(LocalDateTime.now());
+        LocalDateTime end = LocalDateTime.now();
+        // Guarded, so of two concurrent completions only one gets past here
+        if (log.isCompleted() || pomodoroLogRepository.markCompleted(logId, end) == 0) {
+            throw new IllegalStateException("Pomodoro already completed");
+        }
+        
+        // Pauses already counted their distractions in the rollup
+        int counted = log.getDistractions() != null ? log.getDistractions() : 0;
+        log.setEndTime(end);
         log.setCompleted(true);
         log.setDistractions(distractions);
         log.setNotes(notes);
         
-        Subtask subtask = log.getSubtask();
-        
-        // Update subtask progress
-        subtask.setCompletedPomodoros(subtask.getCompletedPomodoros() + 1);
-        subtask.incrementCycle();
-        
-        // Clear active timer
-        subtask.setPomodoroStart(null);
+        long subtaskId = log.getSubtask().getId();
         
-        // Calculate total time spent
+        // Record the session on the subtask (progress, cycle, time) and clear its timer in one update.
+        // Only a running timer is counted: one TimerEngine already completed, or a paused or stopped
+        // one, has had its time recorded
         long duration = ChronoUnit.SECONDS.between(log.getStartTime(), log.getEndTime());
-        subtask.setTotalSecondsSpent(subtask.getTotalSecondsSpent() + duration);
+        boolean counted = timerStateService.completeWork(TimerStateService.Kind.SUBTASK, subtaskId, null, duration, null);
         
         pomodoroLogRepository.save(log);
+        unregisterAfterCommit(log);
+        
+        // The subtask loaded with the log predates that update, so read its progress back
+        SubtaskResponse progress = subtaskRepository.findResponseById(subtaskId)
+            .orElseThrow(() -> new IllegalArgumentException("Subtask not found"));
+        if (counted) {
+            broadcastTimerChange(BoardEvent.Type.TIMER_COMPLETED, progress);
+        }
         
         // Determine break type
-        BreakType breakType = determineBreakType(subtask.getCurrentCycle());
+        BreakType breakType = determineBreakType(progress.getCurrentCycle());
+        // A client may report fewer distractions than its pauses already counted
+        dailyFocusRollupService.recordCompletedCycle(log, breakType, Math.max(0, distractions - counted));
         
         Map<String, Object> result = new HashMap<>();
         result.put("breakType", breakType);
-        result.put("cycleNumber", subtask.getCurrentCycle());
-        result.put("completionPercentage", subtask.getCompletionPercentage());
-        result.put("needsLongBreak", subtask.needsLongBreak());
+        result.put("cycleNumber", progress.getCurrentCycle());
+        result.put("completionPercentage", progress.getCompletionPercentage());
+        result.put("needsLongBreak", progress.getCurrentCycle() > 4);
         
         return result;
     }
     
+    /**
+     * Close the newest open session on a subtask whose timer TimerEngine completed, in the
+     * engine's transaction. The timer and project were counted by that completion already,
+     * so only the log, the user's active slot and the daily rollup are settled here
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void completeTimedSession(long subtaskId, LocalDateTime end) {
+        for (PomodoroLog log : pomodoroLogRepository.findOpenBySubtaskId(subtaskId, Limit.of(1))) {
+            // A timer started before its log (or backdated) still closes at or after the log's start
+            LocalDateTime closedAt = end.isBefore(log.getStartTime()) ? log.getStartTime() : end;
+            if (pomodoroLogRepository.markCompleted(log.getId(), closedAt) == 0) {
+                return;
+            }
+            log.setEndTime(closedAt);
+            log.setCompleted(true);
+            unregisterAfterCommit(log);
+            
+            int cycle = subtaskRepository.findResponseById(subtaskId)
+                .map(SubtaskResponse::getCurrentCycle)
+                .orElse(1);
+            dailyFocusRollupService.recordCompletedCycle(log, determineBreakType(cycle), 0);
+        }
+    }
+    
     /**
      * Pause a Pomodoro with reason tracking
      */
@@ -148,6 +228,9 @@ public class PomodoroService {
             throw new IllegalStateException("Cannot pause a completed Pomodoro");
         }
         
+        // Pausing keeps the session active; the registry only tracks start time and ownership,
+        // so it stays valid until completeCycle or the staleness window removes it
+        
         // Increment distraction count
         log.setDistractions(log.getDistractions() + 1);
         
@@ -157,6 +240,7 @@ public class PomodoroService {
         log.setNotes(currentNotes + "\n[" + timestamp + "] PAUSED: " + reason);
         
         pomodoroLogRepository.save(log);
+        dailyFocusRollupService.recordDistractions(log, 1);
     }
     
     /**
@@ -186,24 +270,31 @@ public class PomodoroService {
         message.put("projectId", subtask.getTask().getProject().getId());
         message.put("timestamp", LocalDateTime.now().toString());
         
-        messagingTemplate.convertAndSend("/topic/pomodoro/" + subtask.getTask().getProject().getId(), message);
+        eventOutbox.enqueue(BoardTopics.pomodoro(subtask.getTask().getProject().getId()), message);
+    }
+    
+    /**
+     * Numbered event on the subtask's board, as SubtaskRestController sends for its timer
+     * transitions, so catch-ups and snapshot ETags see the change
+     */
+    private void broadcastTimerChange(BoardEvent.Type type, SubtaskResponse subtask) {
+        timerStateService.findProjectId(TimerStateService.Kind.SUBTASK, subtask.getId())
+            .ifPresent(projectId -> boardEventLog.enqueueForProject(projectId, BoardEvent.subtask(type, projectId, subtask)));
     }
     
     /**
      * Get active Pomodoros for a project (team visibility)
      */
     public List<Map<String, Object>> getActiveTeamPomodoros(Long projectId) {
-        List<PomodoroLog> recentLogs = pomodoroLogRepository.findRecentByProjectId(projectId);
-        
-        return recentLogs.stream()
-            .filter(log -> !log.isCompleted() && log.getStartTime().isAfter(LocalDateTime.now().minusMinutes(30)))
-            .map(log -> {
+        LocalDateTime now = LocalDateTime.now();
+        return activePomodoroRegistry.findByProject(projectId).stream()
+            .map(session -> {
                 Map<String, Object> info = new HashMap<>();
-                info.put("subtaskName", log.getSubtask().getName());
-                info.put("username", log.getUser().getEmail());
-                info.put("startedAt", log.getStartTime());
-                info.put("cycleNumber", log.getCycleNumber());
-                info.put("minutesElapsed", ChronoUnit.MINUTES.between(log.getStartTime(), LocalDateTime.now()));
+                info.put("subtaskName", session.subtaskName());
+                info.put("username", session.username());
+                info.put("startedAt", session.startTime());
+                info.put("cycleNumber", session.cycleNumber());
+                info.put("minutesElapsed", ChronoUnit.MINUTES.between(session.startTime(), now));
                 return info;
             })
             .collect(Collectors.toList());
@@ -216,19 +307,20 @@ public class PomodoroService {
      * Based on: completion rate, average distractions, estimate accuracy
      */
     public double calculateEfficiencyScore(Long userId, LocalDateTime start, LocalDateTime end) {
-        List<PomodoroLog> logs = pomodoroLogRepository.findByUserIdAndDateRange(userId, start, end);
-        
-        if (logs.isEmpty()) return 0.0;
+        PomodoroStatsSummary summary = pomodoroLogRepository.summarizeByUserIdAndDateRange(userId, start, end);
+        return efficiencyScore(summary.getTotalSessions(), summary.getCompletedSessions(), summary.getAverageDistractions());
+    }
+    
+    /**
+     * Efficiency score from pre-aggregated counts (shared by reports and range queries)
+     */
+    private double efficiencyScore(long total, long completed, double avgDistractions) {
+        if (total == 0) return 0.0;
         
         // Completion rate (40% weight)
-        long completed = logs.stream().filter(PomodoroLog::isCompleted).count();
-        double completionRate = (completed * 1.0 / logs.size()) * 40;
+        double completionRate = (completed * 1.0 / total) * 40;
         
         // Low distraction score (30% weight)
-        double avgDistractions = logs.stream()
-            .mapToInt(PomodoroLog::getDistractions)
-            .average()
-            .orElse(0.0);
         double distractionScore = Math.max(0, 30 - (avgDistractions * 5));
         
         // Estimate accuracy (30% weight)
@@ -239,45 +331,65 @@ public class PomodoroService {
     }
     
     /**
-     * Generate weekly report for a user
+     * Generate weekly report for a user: the last seven calendar days, today included.
+     * Reads per-day buckets from the daily rollup table; totals are folded from those few rows.
      */
     public Map<String, Object> generateWeeklyReport(Long userId) {
-        LocalDateTime weekStart = LocalDateTime.now().minusDays(7);
-        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
         
-        List<PomodoroLog> weekLogs = pomodoroLogRepository.findByUserIdAndDateRange(userId, weekStart, now);
+        List<PomodoroDailyStats> days = dailyFocusRollupRepository.findDailyPomodoroStats(userId, today.minusDays(6), today);
         
-        Map<String, Object> report = new HashMap<>();
-        report.put("totalPomodoros", weekLogs.size());
-        report.put("completedPomodoros", weekLogs.stream().filter(PomodoroLog::isCompleted).count());
-        report.put("totalMinutes", weekLogs.stream()
-            .filter(PomodoroLog::isCompleted)
-            .mapToLong(PomodoroLog::getDurationMinutes)
-            .sum());
-        report.put("averageDistractions", weekLogs.stream()
-            .mapToInt(PomodoroLog::getDistractions)
-            .average()
-            .orElse(0.0));
-        report.put("efficiencyScore", calculateEfficiencyScore(userId, weekStart, now));
+        long total = 0;
+        long completed = 0;
+        long minutes = 0;
+        long distractions = 0;
+        Map<String, Long> dailyCount = new HashMap<>();
+        for (PomodoroDailyStats day : days) {
+            total += day.getTotalSessions();
+            completed += day.getCompletedSessions();
+            minutes += day.getCompletedMinutes();
+            distractions += day.getDistractions();
+            dailyCount.put(day.getDay().toString(), day.getTotalSessions());
+        }
+        double avgDistractions = total > 0 ? (double) distractions / total : 0.0;
         
-        // Daily breakdown
-        Map<String, Long> dailyCount = weekLogs.stream()
-            .collect(Collectors.groupingBy(
-                log -> log.getStartTime().toLocalDate().toString(),
-                Collectors.counting()
-            ));
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalPomodoros", total);
+        report.put("completedPomodoros", completed);
+        report.put("totalMinutes", minutes);
+        report.put("averageDistractions", avgDistractions);
+        report.put("efficiencyScore", efficiencyScore(total, completed, avgDistractions));
         report.put("dailyBreakdown", dailyCount);
         
         return report;
     }
     
+    // The session stays active if completing it rolls back
+    private void unregisterAfterCommit(PomodoroLog log) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            activePomodoroRegistry.unregister(log);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                activePomodoroRegistry.unregister(log);
+            }
+        });
+    }
+
     /**
-     * Find active Pomodoro for a user
+     * Undo a registry claim if the surrounding transaction does not commit
      */
-    private Optional<PomodoroLog> findActivePomodoro(Long userId) {
-        List<PomodoroLog> userLogs = pomodoroLogRepository.findByUserId(userId);
-        return userLogs.stream()
-            .filter(log -> !log.isCompleted() && log.getStartTime().isAfter(LocalDateTime.now().minusMinutes(30)))
-            .findFirst();
+    private void releaseOnRollback(PomodoroLog log) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    activePomodoroRegistry.unregister(log);
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,189 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.dto.UserPresence;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Who is online on each board, kept by the server instead of echoed between clients.
+ *
+ * A STOMP session joins a board by announcing itself on /app/boards/{id}/presence and
+ * leaves when it says so, disconnects, or goes silent: every inbound frame, STOMP
+ * heartbeats included, counts as a sign of life. Subscribers only receive join/leave
+ * deltas; late joiners read the roster from GET /api/boards/{id}/presence.
+ */
+@Service
+public class PresenceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceRegistry.class);
+
+    // A session's last sign of life and the boards it joined
+    private static final class Session {
+        volatile long lastSeen = System.currentTimeMillis();
+        final Set<Long> boards = ConcurrentHashMap.newKeySet();
+    }
+
+    // Lazy: the broker configuration that creates the template registers this registry's heartbeat hook
+    @Lazy
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${devcollab.presence.timeout-ms:45000}")
+    private long timeoutMs;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    // Board id -> session id -> who that session announced; a user may have several sessions
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<String, UserPresence>> boards = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "presence-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        long interval = Math.max(1000, timeoutMs / 3);
+        sweeper.scheduleWithFixedDelay(this::evictIdleQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessions.computeIfAbsent(sessionId, id -> new Session());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    /** Record a sign of life; only sessions that connected are tracked */
+    public void touch(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            session.lastSeen = System.currentTimeMillis();
+        }
+    }
+
+    /** Add a session to a board; subscribers hear about it only when the user was not there yet */
+    public void join(long boardId, String sessionId, UserPresence presence) {
+        if (sessionId == null || presence.getUserId() == null) {
+            return;
+        }
+        Session session = sessions.computeIfAbsent(sessionId, id -> new Session());
+        session.lastSeen = System.currentTimeMillis();
+        session.boards.add(boardId);
+
+        UserPresence member = new UserPresence(presence.getUserId(), presence.getUserName(), presence.getUserColor(), true);
+        boolean[] joined = new boolean[1];
+        boards.compute(boardId, (id, members) -> {
+            ConcurrentHashMap<String, UserPresence> target = (members != null) ? members : new ConcurrentHashMap<>();
+            joined[0] = !containsUser(target, member.getUserId());
+            target.put(sessionId, member);
+            return target;
+        });
+        if (joined[0]) {
+            messagingTemplate.convertAndSend(BoardTopics.presence(boardId), member);
+        }
+    }
+
+    /** Remove a session from a board; subscribers hear about it once the user's last session is gone */
+    public void leave(long boardId, String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            session.boards.remove(boardId);
+        }
+        UserPresence[] left = new UserPresence[1];
+        boards.computeIfPresent(boardId, (id, members) -> {
+            UserPresence gone = members.remove(sessionId);
+            if (gone != null && !containsUser(members, gone.getUserId())) {
+                left[0] = gone;
+            }
+            return members.isEmpty() ? null : members;
+        });
+        if (left[0] != null) {
+            UserPresence member = left[0];
+            messagingTemplate.convertAndSend(BoardTopics.presence(boardId),
+                new UserPresence(member.getUserId(), member.getUserName(), member.getUserColor(), false));
+        }
+    }
+
+    /** Drop a session from every board it joined */
+    public void disconnect(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session != null) {
+            session.boards.forEach(boardId -> leave(boardId, sessionId));
+        }
+    }
+
+    /** Everyone currently on a board, one entry per user */
+    public List<UserPresence> snapshot(long boardId) {
+        Map<String, UserPresence> members = boards.get(boardId);
+        if (members == null) {
+            return List.of();
+        }
+        Map<String, UserPresence> byUser = new LinkedHashMap<>();
+        members.values().forEach(member -> byUser.putIfAbsent(member.getUserId(), member));
+        return new ArrayList<>(byUser.values());
+    }
+
+    /** Boards with at least one session on them */
+    public Set<Long> activeBoards() {
+        return Set.copyOf(boards.keySet());
+    }
+
+    /** Disconnect sessions silent for longer than the timeout; returns how many were dropped */
+    public int evictIdle() {
+        long silentSince = System.currentTimeMillis() - timeoutMs;
+        List<String> idle = sessions.entrySet().stream()
+            .filter(entry -> entry.getValue().lastSeen < silentSince)
+            .map(Map.Entry::getKey)
+            .toList();
+        idle.forEach(this::disconnect);
+        return idle.size();
+    }
+
+    private void evictIdleQuietly() {
+        try {
+            evictIdle();
+        } catch (Exception e) {
+            logger.warn("Presence sweep failed", e);
+        }
+    }
+
+    private static boolean containsUser(Map<String, UserPresence> members, String userId) {
+        return members.values().stream().anyMatch(member -> member.getUserId().equals(userId));
+    }
+}
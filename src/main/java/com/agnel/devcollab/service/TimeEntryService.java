@@ -0,0 +1,157 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.entity.Subtask;
+import com.agnel.devcollab.entity.Task;
+import com.agnel.devcollab.entity.TimeEntry;
+import com.agnel.devcollab.entity.User;
+import com.agnel.devcollab.repository.TimeEntryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Writes time entries without loading the rows they point at.
+ *
+ * An entry's user, project, task and subtask are set as getReference proxies, which
+ * only carry the id. Which of the requested ids exist is checked with one UNION query
+ * however many entries and links there are; an id that does not exist leaves the link
+ * empty, as the findById(...).orElse(null) lookups this replaces did.
+ */
+@Service
+public class TimeEntryService {
+
+    /** Ids to link an entry to; a null id leaves that link as it is */
+    public record Links(Long userId, Long projectId, Long taskId, Long subtaskId) {}
+
+    // Entity, its position in the UNION and how Links names its id
+    private enum Target {
+        USER(User.class, Links::userId),
+        PROJECT(Project.class, Links::projectId),
+        TASK(Task.class, Links::taskId),
+        SUBTASK(Subtask.class, Links::subtaskId);
+
+        private final Class<?> entity;
+        private final Function<Links, Long> id;
+
+        Target(Class<?> entity, Function<Links, Long> id) {
+            this.entity = entity;
+            this.id = id;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+
+    @Autowired
+    private DailyFocusRollupService dailyFocusRollupService;
+
+    /**
+     * Insert an entry: one INSERT and at most one read to check its links
+     */
+    @Transactional
+    public TimeEntry create(TimeEntry entry, Links links) {
+        link(List.of(entry), List.of(links));
+        TimeEntry saved = timeEntryRepository.save(entry);
+        dailyFocusRollupService.recordTimeEntry(saved, 1);
+        return saved;
+    }
+
+    /**
+     * Insert many entries, links[i] belonging to entries[i]. The inserts go out in JDBC
+     * batches and the rollups are updated once per (user, project, day).
+     */
+    @Transactional
+    public List<TimeEntry> createAll(List<TimeEntry> entries, List<Links> links) {
+        link(entries, links);
+        List<TimeEntry> saved = timeEntryRepository.saveAll(entries);
+        dailyFocusRollupService.recordTimeEntries(saved);
+        return saved;
+    }
+
+    /**
+     * Edit an entry and relink it; its old duration is taken out of the rollups first
+     */
+    @Transactional
+    public Optional<TimeEntry> update(long id, Consumer<TimeEntry> edit, Links links) {
+        return timeEntryRepository.findById(id).map(entry -> {
+            dailyFocusRollupService.recordTimeEntry(entry, -1);
+            edit.accept(entry);
+            link(List.of(entry), List.of(links));
+            TimeEntry saved = timeEntryRepository.save(entry);
+            dailyFocusRollupService.recordTimeEntry(saved, 1);
+            return saved;
+        });
+    }
+
+    // Point entries at the rows named by their links, checking them with one query
+    private void link(List<TimeEntry> entries, List<Links> links) {
+        if (entries.size() != links.size()) {
+            throw new IllegalArgumentException("Expected links for " + entries.size() + " entries, got " + links.size());
+        }
+        Map<Target, Set<Long>> existing = findExisting(links);
+        for (int i = 0; i < entries.size(); i++) {
+            TimeEntry entry = entries.get(i);
+            Links link = links.get(i);
+            if (link.userId() != null) {
+                entry.setUser(reference(existing, Target.USER, link.userId(), User.class));
+            }
+            if (link.projectId() != null) {
+                entry.setProject(reference(existing, Target.PROJECT, link.projectId(), Project.class));
+            }
+            if (link.taskId() != null) {
+                entry.setTask(reference(existing, Target.TASK, link.taskId(), Task.class));
+            }
+            if (link.subtaskId() != null) {
+                entry.setSubtask(reference(existing, Target.SUBTASK, link.subtaskId(), Subtask.class));
+            }
+        }
+    }
+
+    private Map<Target, Set<Long>> findExisting(List<Links> links) {
+        Map<Target, Set<Long>> requested = new HashMap<>();
+        for (Target target : Target.values()) {
+            Set<Long> ids = new HashSet<>();
+            links.stream().map(target.id).filter(Objects::nonNull).forEach(ids::add);
+            if (!ids.isEmpty()) {
+                requested.put(target, ids);
+            }
+        }
+        Map<Target, Set<Long>> existing = new HashMap<>();
+        if (requested.isEmpty()) {
+            return existing;
+        }
+        // Only the kinds asked for, so no branch needs an empty IN list
+        List<String> branches = new ArrayList<>();
+        requested.keySet().forEach(target -> branches.add("SELECT " + target.ordinal() + ", e.id FROM "
+            + target.entity.getSimpleName() + " e WHERE e.id IN :" + target.name().toLowerCase()));
+        TypedQuery<Object[]> query = entityManager.createQuery(String.join(" UNION ALL ", branches), Object[].class);
+        requested.forEach((target, ids) -> query.setParameter(target.name().toLowerCase(), ids));
+        for (Object[] row : query.getResultList()) {
+            Target target = Target.values()[((Number) row[0]).intValue()];
+            existing.computeIfAbsent(target, t -> new HashSet<>()).add(((Number) row[1]).longValue());
+        }
+        return existing;
+    }
+
+    private <T> T reference(Map<Target, Set<Long>> existing, Target target, long id, Class<T> type) {
+        return existing.getOrDefault(target, Set.of()).contains(id) ? entityManager.getReference(type, id) : null;
+    }
+}
@@ -0,0 +1,194 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.service.TimerStateService.Kind;
+import com.agnel.devcollab.service.TimerStateService.TimerState;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns every running Project/Task/Subtask timer and completes it on the server
+ * when it reaches its current target, instead of waiting for a client stop call.
+ *
+ * Project and Task timers move work -> break -> idle; Subtask timers have no break
+ * and simply stop, closing the PomodoroLog session running on them. The transitions
+ * themselves are applied by TimerStateService, whose state events keep the schedule
+ * here in step; completions are pushed to the project's board topic.
+ * Running timers are rescheduled from pomodoroStart at startup.
+ */
+@Service
+public class TimerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerEngine.class);
+
+    public record TimerKey(Kind kind, long id) {}
+
+    // The start a completion was scheduled for identifies it, since a restart schedules a new one
+    private record Pending(LocalDateTime start, ScheduledFuture<?> future) {}
+
+    private static final String SYSTEM_USER = "Timer";
+    private static final String SYSTEM_COLOR = "#6c757d";
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private BoardEventLog boardEventLog;
+
+    @Autowired
+    private PomodoroService pomodoroService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<TimerKey, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public TimerEngine() {
+        AtomicInteger threadCount = new AtomicInteger();
+        scheduler = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "timer-engine-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Cancelled timers leave the queue immediately so pause/stop churn does not accumulate
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Reschedule every timer that was running when the application stopped.
+     * Overdue timers fire immediately and catch up through their transitions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        timerStateService.findRunning().forEach(this::schedule);
+        logger.info("TimerEngine recovered {} running timers", pending.size());
+    }
+
+    /**
+     * Follow a transition once it has committed, so a completion never races the write it depends on
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimerStateChanged(TimerState state) {
+        schedule(state);
+    }
+
+    /**
+     * Reschedule a timer from its stored state, e.g. after its durations changed
+     */
+    public void reschedule(Kind kind, long id) {
+        timerStateService.find(kind, id).ifPresentOrElse(this::schedule, () -> cancel(kind, id));
+    }
+
+    public void cancel(Kind kind, long id) {
+        Pending removed = pending.remove(new TimerKey(kind, id));
+        if (removed != null) {
+            removed.future().cancel(false);
+        }
+    }
+
+    public boolean isScheduled(Kind kind, long id) {
+        return pending.containsKey(new TimerKey(kind, id));
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Schedule completion at start + target seconds, replacing any earlier schedule for the same timer.
+     * A null start means the timer is not running, so any pending completion is cancelled.
+     */
+    private void schedule(TimerState state) {
+        TimerKey key = new TimerKey(state.kind(), state.id());
+        LocalDateTime start = state.start();
+        if (start == null) {
+            cancel(key.kind(), key.id());
+            return;
+        }
+        LocalDateTime due = start.plusSeconds(state.targetSeconds());
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), due).toMillis());
+        ScheduledFuture<?> future = scheduler.schedule(() -> fire(key, start, state.isBreak(), state.targetSeconds()),
+            delayMillis, TimeUnit.MILLISECONDS);
+        Pending entry = new Pending(start, future);
+        Pending previous = pending.put(key, entry);
+        if (previous != null && previous.future() != future) {
+            previous.future().cancel(false);
+        }
+        // An overdue timer may already have fired before it was recorded
+        if (future.isDone()) {
+            pending.remove(key, entry);
+        }
+    }
+
+    private void fire(TimerKey key, LocalDateTime expectedStart, boolean isBreak, long targetSeconds) {
+        try {
+            // Both transitions are guarded by expectedStart, so a pause, stop or restart in between wins.
+            // The transition and its board event commit together
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                if (isBreak) {
+                    if (timerStateService.endBreak(key.kind(), key.id(), expectedStart)) {
+                        broadcast(key, BoardEvent.Type.BREAK_ENDED);
+                    }
+                } else {
+                    // The break starts when the work session ended, not when this task ran
+                    LocalDateTime due = expectedStart.plusSeconds(targetSeconds);
+                    if (timerStateService.completeWork(key.kind(), key.id(), expectedStart, targetSeconds, due)) {
+                        if (key.kind() == Kind.SUBTASK) {
+                            // The session's log is closed here, so a later /complete is refused, not counted again
+                            pomodoroService.completeTimedSession(key.id(), due);
+                        }
+                        broadcast(key, BoardEvent.Type.TIMER_COMPLETED);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("TimerEngine failed to complete {}", key, e);
+        } finally {
+            // Drop our own entry unless the completion already scheduled the next phase
+            pending.computeIfPresent(key, (k, entry) -> entry.start() == expectedStart ? null : entry);
+        }
+    }
+
+    // Completions are announced on the project the timer's time counts towards
+    private void broadcast(TimerKey key, BoardEvent.Type type) {
+        timerStateService.findProjectId(key.kind(), key.id())
+            .flatMap(projectRepository::findResponseById)
+            .ifPresent(project -> {
+                BoardEvent event = BoardEvent.projectTimer(type, project);
+                if (key.kind() == Kind.TASK) {
+                    event.setTaskId(key.id());
+                } else if (key.kind() == Kind.SUBTASK) {
+                    event.setSubtaskId(key.id());
+                }
+                event.setUserName(SYSTEM_USER);
+                event.setUserColor(SYSTEM_COLOR);
+                boardEventLog.enqueue(project.getBoardId(), event);
+            });
+    }
+}
@@ -0,0 +1,217 @@
+package com.agnel.devcollab.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The one Pomodoro state machine for Project, Task and Subtask timers.
+ * Every transition is a single guarded UPDATE on the Timeable columns, so no entity
+ * is loaded to start, pause, stop or complete a timer. A transition that does not
+ * apply to the current state matches no row and returns false.
+ *
+ * Transitions do not bump @Version. The entities are @DynamicUpdate and edits never
+ * write the timer columns, so an edit racing a burst of timer deltas neither loses
+ * them nor has to retry around them.
+ *
+ * Each applied transition publishes the timer's new TimerState; TimerEngine picks it
+ * up after commit to schedule or cancel the automatic completion.
+ */
+@Service
+public class TimerStateService {
+
+    public enum Kind {
+        PROJECT("Project"), TASK("Task"), SUBTASK("Subtask");
+
+        private final String entity;
+
+        Kind(String entity) { this.entity = entity; }
+    }
+
+    /** Where a timer stands; start is null while it is idle or paused */
+    public record TimerState(Kind kind, long id, LocalDateTime start, boolean isBreak, long targetSeconds) {}
+
+    // Seconds of work a timer has run; banked pause time counts when it is not running
+    private static final String ELAPSED_WORK =
+        "CASE WHEN e.timer.pomodoroStart IS NULL THEN e.timer.pausedElapsedSeconds " +
+        "WHEN e.timer.isBreak = true THEN 0 ELSE ((:now - e.timer.pomodoroStart) BY SECOND) END";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Start a work session, resuming a paused one or cutting a running break short.
+     * A work session that is already running is left alone.
+     */
+    @Transactional
+    public boolean start(Kind kind, long id) {
+        int rows = entityManager.createQuery("UPDATE " + kind.entity + " e SET " +
+                "e.timer.pomodoroStart = :now - (e.timer.pausedElapsedSeconds) SECOND, " +
+                "e.timer.pausedElapsedSeconds = 0, e.timer.isBreak = false " +
+                "WHERE e.id = :id AND (e.timer.pomodoroStart IS NULL OR e.timer.isBreak = true)")
+            .setParameter("now", now())
+            .setParameter("id", id)
+            .executeUpdate();
+        return publish(rows, kind, id, true);
+    }
+
+    /** Pause a running work session, banking its elapsed seconds for the next start */
+    @Transactional
+    public boolean pause(Kind kind, long id) {
+        int rows = entityManager.createQuery("UPDATE " + kind.entity + " e SET " +
+                "e.timer.pausedElapsedSeconds = ((:now - e.timer.pomodoroStart) BY SECOND), " +
+                "e.timer.pomodoroStart = null " +
+                "WHERE e.id = :id AND e.timer.pomodoroStart IS NOT NULL AND e.timer.isBreak = false")
+            .setParameter("now", now())
+            .setParameter("id", id)
+            .executeUpdate();
+        return publish(rows, kind, id, false);
+    }
+
+    /**
+     * Stop the timer early and record the work time spent, including banked pause time.
+     * Break time is not recorded; only TimerEngine counts a completed pomodoro.
+     * Subtask time also counts towards its project.
+     */
+    @Transactional
+    public boolean stop(Kind kind, long id) {
+        LocalDateTime now = now();
+        if (kind == Kind.SUBTASK) {
+            // Credit the project first, while the subtask still holds its start
+            entityManager.createQuery("UPDATE Project p SET p.timer.totalSecondsSpent = p.timer.totalSecondsSpent + " +
+                    "(SELECT " + ELAPSED_WORK + " FROM Subtask e WHERE e.id = :id) " +
+                    "WHERE p.id = (SELECT e.task.project.id FROM Subtask e WHERE e.id = :id)")
+                .setParameter("now", now)
+                .setParameter("id", id)
+                .executeUpdate();
+        }
+        int rows = entityManager.createQuery("UPDATE " + kind.entity + " e SET " +
+                "e.timer.totalSecondsSpent = e.timer.totalSecondsSpent + " + ELAPSED_WORK + ", " +
+                "e.timer.pomodoroStart = null, e.timer.pausedElapsedSeconds = 0, e.timer.isBreak = false " +
+                "WHERE e.id = :id AND (e.timer.pomodoroStart IS NOT NULL OR e.timer.pausedElapsedSeconds > 0)")
+            .setParameter("now", now)
+            .setParameter("id", id)
+            .executeUpdate();
+        return publish(rows, kind, id, false);
+    }
+
+    /**
+     * Finish a work session of the given length. Project and Task timers go straight into
+     * a break starting at breakStart; Subtask timers have no break and go idle.
+     * expectedStart guards against a pause, stop or restart since the completion was
+     * scheduled; null completes whatever work session is running, and nothing when the
+     * timer is idle, paused or was completed already.
+     */
+    @Transactional
+    public boolean completeWork(Kind kind, long id, LocalDateTime expectedStart, long seconds, LocalDateTime breakStart) {
+        boolean takesBreak = kind != Kind.SUBTASK;
+        var query = entityManager.createQuery("UPDATE " + kind.entity + " e SET " +
+                "e.timer.totalSecondsSpent = e.timer.totalSecondsSpent + :seconds, " +
+                "e.completedPomodoros = COALESCE(e.completedPomodoros, 0) + 1, " +
+                "e.timer.currentCycle = CASE WHEN e.timer.currentCycle >= 4 THEN 1 ELSE e.timer.currentCycle + 1 END, " +
+                "e.timer.pausedElapsedSeconds = 0, e.timer.isBreak = :takesBreak, e.timer.pomodoroStart = :next " +
+                "WHERE e.id = :id AND e.timer.isBreak = false" +
+                (expectedStart != null ? " AND e.timer.pomodoroStart = :expected" : " AND e.timer.pomodoroStart IS NOT NULL"))
+            .setParameter("seconds", seconds)
+            .setParameter("takesBreak", takesBreak)
+            .setParameter("next", takesBreak ? breakStart : null)
+            .setParameter("id", id);
+        if (expectedStart != null) {
+            query.setParameter("expected", expectedStart);
+        }
+        int rows = query.executeUpdate();
+        if (rows > 0 && kind == Kind.SUBTASK) {
+            entityManager.createQuery("UPDATE Project p SET p.timer.totalSecondsSpent = p.timer.totalSecondsSpent + :seconds " +
+                    "WHERE p.id = (SELECT s.task.project.id FROM Subtask s WHERE s.id = :id)")
+                .setParameter("seconds", seconds)
+                .setParameter("id", id)
+                .executeUpdate();
+        }
+        return publish(rows, kind, id, takesBreak);
+    }
+
+    /** End a running break; the timer stays idle until the next start */
+    @Transactional
+    public boolean endBreak(Kind kind, long id, LocalDateTime expectedStart) {
+        int rows = entityManager.createQuery("UPDATE " + kind.entity + " e SET " +
+                "e.timer.isBreak = false, e.timer.pomodoroStart = null " +
+                "WHERE e.id = :id AND e.timer.isBreak = true AND e.timer.pomodoroStart = :expected")
+            .setParameter("expected", expectedStart)
+            .setParameter("id", id)
+            .executeUpdate();
+        return publish(rows, kind, id, false);
+    }
+
+    public Optional<TimerState> find(Kind kind, long id) {
+        return entityManager.createQuery(stateQuery(kind) + " WHERE e.id = :id", Object[].class)
+            .setParameter("id", id)
+            .getResultList().stream()
+            .findFirst()
+            .map(row -> toState(kind, row));
+    }
+
+    /** Every timer with a running work session or break */
+    public List<TimerState> findRunning() {
+        return Arrays.stream(Kind.values())
+            .flatMap(kind -> entityManager.createQuery(stateQuery(kind) + " WHERE e.timer.pomodoroStart IS NOT NULL", Object[].class)
+                .getResultList().stream()
+                .map(row -> toState(kind, row)))
+            .toList();
+    }
+
+    /** The project a timer's time counts towards */
+    public Optional<Long> findProjectId(Kind kind, long id) {
+        String path = switch (kind) {
+            case PROJECT -> "e.id";
+            case TASK -> "e.project.id";
+            case SUBTASK -> "e.task.project.id";
+        };
+        return entityManager.createQuery("SELECT " + path + " FROM " + kind.entity + " e WHERE e.id = :id", Long.class)
+            .setParameter("id", id)
+            .getResultList().stream()
+            .filter(Objects::nonNull)
+            .findFirst();
+    }
+
+    private boolean publish(int rows, Kind kind, long id, boolean running) {
+        if (rows == 0) {
+            return false;
+        }
+        TimerState state = running ? find(kind, id).orElseThrow() : new TimerState(kind, id, null, false, 0);
+        eventPublisher.publishEvent(state);
+        return true;
+    }
+
+    // Start, break flag and current target in minutes; subtasks use their task's work length
+    private static String stateQuery(Kind kind) {
+        return switch (kind) {
+            case PROJECT, TASK -> "SELECT e.id, e.timer.pomodoroStart, e.timer.isBreak, " +
+                "CASE WHEN e.timer.isBreak = true THEN e.breakDuration ELSE e.pomodoroDuration END FROM " + kind.entity + " e";
+            case SUBTASK -> "SELECT e.id, e.timer.pomodoroStart, e.timer.isBreak, COALESCE(t.pomodoroDuration, 25) " +
+                "FROM Subtask e LEFT JOIN e.task t";
+        };
+    }
+
+    private static TimerState toState(Kind kind, Object[] row) {
+        return new TimerState(kind, ((Number) row[0]).longValue(), (LocalDateTime) row[1],
+            (Boolean) row[2], ((Number) row[3]).longValue() * 60);
+    }
+
+    // Match the TIMESTAMP precision so a stored start compares equal to the one we wrote
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,156 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.service.TimerStateService.Kind;
+import com.agnel.devcollab.service.TimerStateService.TimerState;
+import com.agnel.devcollab.ws.ServerClock;
+import com.agnel.devcollab.ws.TimerSyncMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes every timer transition to the board's timers topic as a TimerSyncMessage
+ * stamped with server time, so pages count down against the server instead of their
+ * own clock or a poll.
+ *
+ * Transitions go out through the DomainEventBus once they have committed, in a
+ * transaction of their own: the writer's has finished, so the jdbc transport's insert
+ * would otherwise join it and never be committed. The clock
+ * beacon is per node: every devcollab.timer-sync.beacon-interval-ms each board with a
+ * session on this node gets a CLOCK message, which is all a client needs to keep its
+ * offset to server time current.
+ */
+@Service
+public class TimerSyncPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerSyncPublisher.class);
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${devcollab.timer-sync.beacon-interval-ms:30000}")
+    private long beaconIntervalMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timer-sync-beacon");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::beaconQuietly, beaconIntervalMs, beaconIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Send a transition once it has committed, so clients never see a state that is rolled back
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimerStateChanged(TimerState state) {
+        publish(state, state.start() != null ? TimerSyncMessage.Action.START : TimerSyncMessage.Action.STOP);
+    }
+
+    /**
+     * Resend a timer's current state, e.g. after its durations changed
+     */
+    public void announce(Kind kind, long id) {
+        timerStateService.find(kind, id).ifPresent(state -> publish(state,
+            state.start() != null ? TimerSyncMessage.Action.UPDATE : TimerSyncMessage.Action.STOP));
+    }
+
+    /**
+     * Send a clock beacon to every board with a session on this node; returns how many got one
+     */
+    public int beacon() {
+        int boards = 0;
+        for (Long boardId : presenceRegistry.activeBoards()) {
+            TimerSyncMessage clock = new TimerSyncMessage();
+            clock.setAction(TimerSyncMessage.Action.CLOCK);
+            clock.setBoardId(boardId);
+            clock.setServerTime(ServerClock.millis());
+            messagingTemplate.convertAndSend(BoardTopics.timers(boardId), clock);
+            boards++;
+        }
+        return boards;
+    }
+
+    private void publish(TimerState state, TimerSyncMessage.Action action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            Long projectId = timerStateService.findProjectId(state.kind(), state.id()).orElse(null);
+            Long boardId = projectId != null ? projectRepository.findBoardIdById(projectId).orElse(null) : null;
+            if (boardId != null) {
+                domainEventBus.publish(BoardTopics.timers(boardId), toMessage(state, action, boardId, projectId));
+            }
+        });
+    }
+
+    static TimerSyncMessage toMessage(TimerState state, TimerSyncMessage.Action action, Long boardId, Long projectId) {
+        TimerSyncMessage message = new TimerSyncMessage();
+        message.setAction(action);
+        message.setBoardId(boardId);
+        message.setProjectId(projectId);
+        switch (state.kind()) {
+            case TASK -> message.setTaskId(state.id());
+            case SUBTASK -> message.setSubtaskId(state.id());
+            default -> { }
+        }
+        message.setIsBreak(state.isBreak());
+        if (state.start() != null) {
+            LocalDateTime end = state.start().plusSeconds(state.targetSeconds());
+            message.setStart(state.start());
+            message.setEnd(end);
+            message.setTargetSeconds(state.targetSeconds());
+            message.setRemainingMillis(Math.max(0, Duration.between(LocalDateTime.now(), end).toMillis()));
+        }
+        message.setServerTime(ServerClock.millis());
+        return message;
+    }
+
+    private void beaconQuietly() {
+        try {
+            beacon();
+        } catch (Exception e) {
+            // The next beacon is as good as this one
+            logger.warn("Clock beacon failed", e);
+        }
+    }
+}
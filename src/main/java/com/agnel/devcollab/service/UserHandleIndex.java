@@ -0,0 +1,54 @@
+package com.agnel.devcollab.service;
+
+import com.agnel.devcollab.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves @mention handles to account emails, which are also the STOMP principal names.
+ * A user answers to the local part of their email and to their name without spaces,
+ * case-insensitively. The index is built from one query and rebuilt after a registration.
+ */
+@Service
+public class UserHandleIndex {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Null until first use or after invalidate()
+    private volatile Map<String, String> emailsByHandle;
+
+    public Optional<String> resolve(String handle) {
+        return Optional.ofNullable(index().get(handle.toLowerCase()));
+    }
+
+    public void invalidate() {
+        emailsByHandle = null;
+    }
+
+    private Map<String, String> index() {
+        Map<String, String> index = emailsByHandle;
+        if (index == null) {
+            List<Object[]> users = userRepository.findNamesAndEmails();
+            index = new HashMap<>();
+            // Email handles are unique, so they win over a clashing display name
+            for (Object[] user : users) {
+                String email = (String) user[1];
+                int at = email.indexOf('@');
+                index.put((at < 0 ? email : email.substring(0, at)).toLowerCase(), email);
+            }
+            for (Object[] user : users) {
+                if (user[0] != null) {
+                    index.putIfAbsent(((String) user[0]).replaceAll("\\s+", "").toLowerCase(), (String) user[1]);
+                }
+            }
+            emailsByHandle = index;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,352 @@
+package com.agnel.devcollab.ws;
+
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.CursorBatch;
+import com.agnel.devcollab.dto.CursorMove;
+import com.agnel.devcollab.dto.UserPresence;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-layout binary encoding of the high-frequency board frames, used instead of JSON
+ * for sessions that ask for it (see CompactFrameInterceptor).
+ *
+ * A frame is one kind byte followed by the kind's fields in a fixed order. Numbers are
+ * unsigned varints, nullable ones stored as value + 1 with 0 for null; coordinates are
+ * 32-bit floats; date-times are epoch millis; nullable booleans are 0 null, 1 false,
+ * 2 true. Strings start with a varint tag:
+ * 0 null, 1 literal (length + UTF-8), 2 definition (length + UTF-8, which also takes the
+ * next dictionary id on both ends) and n >= 3 a reference to dictionary id n - 3. User
+ * ids, names, colors and statuses are therefore sent once per session, then as one byte.
+ */
+public final class CompactFrameCodec {
+
+    public static final MimeType MIME_TYPE = new MimeType("application", "octet-stream", Map.of("codec", "compact-v1"));
+
+    static final byte CURSOR_BATCH = 1;
+    static final byte USER_PRESENCE = 2;
+    static final byte BOARD_EVENT = 3;
+    static final byte TIMER_SYNC = 4;
+
+    private static final int NULL = 0;
+    private static final int LITERAL = 1;
+    private static final int DEFINE = 2;
+    private static final int FIRST_REF = 3;
+
+    private static final BoardEvent.Type[] EVENT_TYPES = BoardEvent.Type.values();
+    private static final TimerSyncMessage.Action[] TIMER_ACTIONS = TimerSyncMessage.Action.values();
+
+    private CompactFrameCodec() {}
+
+    /**
+     * Strings already defined on one session, in definition order. The encoder and the
+     * decoder each keep one; frames must be decoded in the order they were encoded.
+     */
+    public static final class Dictionary {
+
+        // Past this, new strings go out as literals so a session's table stays bounded
+        static final int MAX_ENTRIES = 4096;
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        public int size() {
+            return strings.size();
+        }
+    }
+
+    public static byte[] encode(Object payload, Dictionary dictionary) {
+        Writer out = new Writer(dictionary);
+        if (payload instanceof CursorBatch batch) {
+            out.put(CURSOR_BATCH);
+            out.nullableLong(batch.getBoardId());
+            List<CursorMove> cursors = batch.getCursors() != null ? batch.getCursors() : List.of();
+            out.varint(cursors.size());
+            for (CursorMove move : cursors) {
+                out.string(move.getUserId(), true);
+                out.string(move.getUserName(), true);
+                out.string(move.getUserColor(), true);
+                out.float32((float) move.getX());
+                out.float32((float) move.getY());
+                out.nullableLong(move.getProjectId());
+            }
+        } else if (payload instanceof UserPresence presence) {
+            out.put(USER_PRESENCE);
+            out.string(presence.getUserId(), true);
+            out.string(presence.getUserName(), true);
+            out.string(presence.getUserColor(), true);
+            out.put((byte) (presence.isConnected() ? 1 : 0));
+        } else if (payload instanceof BoardEvent event) {
+            out.put(BOARD_EVENT);
+            out.varint(event.getVersion());
+            out.nullableLong(event.getBoardId());
+            out.varint(event.getSeq());
+            out.varint(event.getType() != null ? event.getType().ordinal() + 1 : 0);
+            out.nullableLong(event.getProjectId());
+            out.nullableLong(event.getTaskId());
+            out.nullableLong(event.getSubtaskId());
+            out.string(event.getName(), true);
+            out.string(event.getStatus(), true);
+            out.nullableLong(event.getColumnId());
+            out.dateTime(event.getPomodoroStart());
+            out.nullableBoolean(event.getIsBreak());
+            out.nullableLong(event.getTotalSecondsSpent());
+            out.nullableBoolean(event.getCompleted());
+            out.string(event.getUserName(), true);
+            out.string(event.getUserColor(), true);
+        } else if (payload instanceof TimerSyncMessage timer) {
+            out.put(TIMER_SYNC);
+            out.varint(timer.getAction() != null ? timer.getAction().ordinal() + 1 : 0);
+            out.nullableLong(timer.getEntryId());
+            out.nullableLong(timer.getUserId());
+            out.nullableLong(timer.getSubtaskId());
+            // Free text: not worth a dictionary slot
+            out.string(timer.getDescription(), false);
+            out.dateTime(timer.getStart());
+            out.dateTime(timer.getEnd());
+            out.nullableLong(timer.getBoardId());
+            out.nullableLong(timer.getProjectId());
+            out.nullableLong(timer.getTaskId());
+            out.nullableBoolean(timer.getIsBreak());
+            out.nullableLong(timer.getTargetSeconds());
+            out.varint(timer.getServerTime());
+            out.nullableLong(timer.getRemainingMillis());
+        } else {
+            throw new IllegalArgumentException("No compact encoding for " + payload.getClass().getSimpleName());
+        }
+        return out.toByteArray();
+    }
+
+    public static Object decode(byte[] frame, Dictionary dictionary) {
+        Reader in = new Reader(frame, dictionary);
+        byte kind = in.get();
+        switch (kind) {
+            case CURSOR_BATCH -> {
+                Long boardId = in.nullableLong();
+                int count = (int) in.varint();
+                List<CursorMove> cursors = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String userId = in.string();
+                    String userName = in.string();
+                    String userColor = in.string();
+                    double x = in.float32();
+                    double y = in.float32();
+                    cursors.add(new CursorMove(userId, userName, userColor, x, y, in.nullableLong()));
+                }
+                return new CursorBatch(boardId, cursors);
+            }
+            case USER_PRESENCE -> {
+                return new UserPresence(in.string(), in.string(), in.string(), in.get() == 1);
+            }
+            case BOARD_EVENT -> {
+                BoardEvent event = new BoardEvent();
+                event.setVersion((int) in.varint());
+                event.setBoardId(in.nullableLong());
+                event.setSeq(in.varint());
+                int type = (int) in.varint();
+                event.setType(type == 0 ? null : EVENT_TYPES[type - 1]);
+                event.setProjectId(in.nullableLong());
+                event.setTaskId(in.nullableLong());
+                event.setSubtaskId(in.nullableLong());
+                event.setName(in.string());
+                event.setStatus(in.string());
+                event.setColumnId(in.nullableLong());
+                event.setPomodoroStart(in.dateTime());
+                event.setIsBreak(in.nullableBoolean());
+                event.setTotalSecondsSpent(in.nullableLong());
+                event.setCompleted(in.nullableBoolean());
+                event.setUserName(in.string());
+                event.setUserColor(in.string());
+                return event;
+            }
+            case TIMER_SYNC -> {
+                TimerSyncMessage timer = new TimerSyncMessage();
+                int action = (int) in.varint();
+                timer.setAction(action == 0 ? null : TIMER_ACTIONS[action - 1]);
+                timer.setEntryId(in.nullableLong());
+                timer.setUserId(in.nullableLong());
+                timer.setSubtaskId(in.nullableLong());
+                timer.setDescription(in.string());
+                timer.setStart(in.dateTime());
+                timer.setEnd(in.dateTime());
+                timer.setBoardId(in.nullableLong());
+                timer.setProjectId(in.nullableLong());
+                timer.setTaskId(in.nullableLong());
+                timer.setIsBreak(in.nullableBoolean());
+                timer.setTargetSeconds(in.nullableLong());
+                timer.setServerTime(in.varint());
+                timer.setRemainingMillis(in.nullableLong());
+                return timer;
+            }
+            default -> throw new IllegalArgumentException("Unknown compact frame kind " + kind);
+        }
+    }
+
+    private static final class Writer {
+
+        private final Dictionary dictionary;
+        private byte[] buffer = new byte[64];
+        private int length;
+
+        Writer(Dictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        void put(byte value) {
+            ensure(1);
+            buffer[length++] = value;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void nullableLong(Long value) {
+            varint(value == null ? 0 : value + 1);
+        }
+
+        void nullableBoolean(Boolean value) {
+            varint(value == null ? 0 : value ? 2 : 1);
+        }
+
+        void float32(float value) {
+            int bits = Float.floatToIntBits(value);
+            ensure(4);
+            buffer[length++] = (byte) (bits >>> 24);
+            buffer[length++] = (byte) (bits >>> 16);
+            buffer[length++] = (byte) (bits >>> 8);
+            buffer[length++] = (byte) bits;
+        }
+
+        void dateTime(LocalDateTime value) {
+            nullableLong(value == null ? null : value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+
+        void string(String value, boolean intern) {
+            if (value == null) {
+                varint(NULL);
+                return;
+            }
+            if (intern) {
+                Integer id = dictionary.ids.get(value);
+                if (id != null) {
+                    varint(FIRST_REF + id);
+                    return;
+                }
+                if (dictionary.strings.size() < Dictionary.MAX_ENTRIES) {
+                    dictionary.ids.put(value, dictionary.strings.size());
+                    dictionary.strings.add(value);
+                    varint(DEFINE);
+                    utf8(value);
+                    return;
+                }
+            }
+            varint(LITERAL);
+            utf8(value);
+        }
+
+        private void utf8(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] frame;
+        private final Dictionary dictionary;
+        private int position;
+
+        Reader(byte[] frame, Dictionary dictionary) {
+            this.frame = frame;
+            this.dictionary = dictionary;
+        }
+
+        byte get() {
+            return frame[position++];
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = frame[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        Long nullableLong() {
+            long value = varint();
+            return value == 0 ? null : value - 1;
+        }
+
+        Boolean nullableBoolean() {
+            long value = varint();
+            return value == 0 ? null : value == 2;
+        }
+
+        float float32() {
+            int bits = (frame[position] & 0xFF) << 24 | (frame[position + 1] & 0xFF) << 16
+                | (frame[position + 2] & 0xFF) << 8 | (frame[position + 3] & 0xFF);
+            position += 4;
+            return Float.intBitsToFloat(bits);
+        }
+
+        LocalDateTime dateTime() {
+            Long millis = nullableLong();
+            return millis == null ? null
+                : LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+        }
+
+        String string() {
+            int tag = (int) varint();
+            if (tag == NULL) {
+                return null;
+            }
+            if (tag >= FIRST_REF) {
+                return dictionary.strings.get(tag - FIRST_REF);
+            }
+            String value = utf8();
+            if (tag == DEFINE) {
+                dictionary.ids.put(value, dictionary.strings.size());
+                dictionary.strings.add(value);
+            }
+            return value;
+        }
+
+        private String utf8() {
+            int length = (int) varint();
+            String value = new String(frame, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.agnel.devcollab.ws;
+
+/**
+ * Milliseconds on a clock that never goes backwards: the wall clock read once at
+ * startup, advanced by System.nanoTime. Timer sync messages are stamped with it, so a
+ * client's offset estimate is not thrown off when the host's wall clock is adjusted.
+ */
+public final class ServerClock {
+
+    private static final long EPOCH_MILLIS = System.currentTimeMillis();
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    private ServerClock() {}
+
+    public static long millis() {
+        return EPOCH_MILLIS + (System.nanoTime() - ORIGIN_NANOS) / 1_000_000;
+    }
+}
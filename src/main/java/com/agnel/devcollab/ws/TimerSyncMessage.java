@@ -2,8 +2,21 @@ package com.agnel.devcollab.ws;
 
 import java.time.LocalDateTime;
 
+/**
+ * A timer's state as the server sees it, sent on the board's timers topic.
+ *
+ * serverTime is ServerClock.millis() when the message was built and remainingMillis
+ * the time left in the running work session or break, so a client renders the
+ * countdown against serverTime + remainingMillis converted with its clock offset,
+ * instead of trusting its own clock. CLOCK messages carry only serverTime and are
+ * what clients estimate that offset from.
+ *
+ * projectId is set on every timer message; taskId or subtaskId too when the timer is
+ * theirs. START means running (isBreak tells work from break), STOP idle or paused and
+ * UPDATE a running timer whose target changed.
+ */
 public class TimerSyncMessage {
-    public enum Action { START, STOP, UPDATE }
+    public enum Action { START, STOP, UPDATE, CLOCK }
     private Action action;
     private Long entryId;
     private Long userId;
@@ -11,6 +24,13 @@ public class TimerSyncMessage {
     private String description;
     private LocalDateTime start;
     private LocalDateTime end;
+    private Long boardId;
+    private Long projectId;
+    private Long taskId;
+    private Boolean isBreak;
+    private Long targetSeconds;
+    private long serverTime;
+    private Long remainingMillis;
     // getters/setters
     public Action getAction() { return action; }
     public void setAction(Action action) { this.action = action; }
@@ -26,4 +46,18 @@ public class TimerSyncMessage {
     public void setStart(LocalDateTime start) { this.start = start; }
     public LocalDateTime getEnd() { return end; }
     public void setEnd(LocalDateTime end) { this.end = end; }
+    public Long getBoardId() { return boardId; }
+    public void setBoardId(Long boardId) { this.boardId = boardId; }
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+    public Boolean getIsBreak() { return isBreak; }
+    public void setIsBreak(Boolean isBreak) { this.isBreak = isBreak; }
+    public Long getTargetSeconds() { return targetSeconds; }
+    public void setTargetSeconds(Long targetSeconds) { this.targetSeconds = targetSeconds; }
+    public long getServerTime() { return serverTime; }
+    public void setServerTime(long serverTime) { this.serverTime = serverTime; }
+    public Long getRemainingMillis() { return remainingMillis; }
+    public void setRemainingMillis(Long remainingMillis) { this.remainingMillis = remainingMillis; }
 }
@@ -0,0 +1,166 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.PomodoroLog;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.entity.Subtask;
+import com.agnel.devcollab.entity.Task;
+import com.agnel.devcollab.entity.User;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.PomodoroLogRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.repository.SubtaskRepository;
+import com.agnel.devcollab.repository.TaskRepository;
+import com.agnel.devcollab.repository.UserRepository;
+import com.agnel.devcollab.service.ActivePomodoroRegistry;
+import com.agnel.devcollab.service.ActivePomodoroRegistry.ActiveSession;
+import com.agnel.devcollab.service.PomodoroService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One running session per user, a stale one can be taken over, the project index
+ * follows the user's current session, completing only releases the slot once it
+ * commits, a start that fails gives the slot back, and a restart reloads what is
+ * still running.
+ */
+@SpringBootTest(properties = {
+    "devcollab.outbox.dispatch=false",
+    "spring.datasource.url=jdbc:h2:mem:active-pomodoro-test"
+})
+class ActivePomodoroRegistryTests {
+
+    @Autowired
+    private ActivePomodoroRegistry registry;
+
+    @Autowired
+    private PomodoroService pomodoroService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Autowired
+    private PomodoroLogRepository pomodoroLogRepository;
+
+    @Test
+    void claimsTakeoverIndexAndRebuild() {
+        Board board = new Board();
+        board.setName("Focus");
+        board = boardRepository.save(board);
+        Subtask onA = subtask(board, "A");
+        Subtask onB = subtask(board, "B");
+        long projectA = onA.getTask().getProject().getId();
+        long projectB = onB.getTask().getProject().getId();
+        User ann = user("ann@example.com");
+        User bob = user("bob@example.com");
+        LocalDateTime now = LocalDateTime.now();
+
+        // Claim: the first session wins, a second one for the same user is refused
+        PomodoroLog first = log(ann, onA, now);
+        assertTrue(registry.tryRegister(first));
+        assertEquals(first.getId(), registry.findByUser(ann.getId()).orElseThrow().logId());
+        assertEquals(Set.of(ann.getId()), indexed(projectA));
+        PomodoroLog second = log(ann, onB, now);
+        assertFalse(registry.tryRegister(second));
+
+        // Stale takeover: the old session's project no longer lists the user
+        registry.register(log(ann, onA, now.minusMinutes(ActivePomodoroRegistry.STALE_AFTER_MINUTES + 1)));
+        assertTrue(registry.tryRegister(second));
+        assertNull(indexed(projectA), "stale session unindexed");
+        assertEquals(Set.of(ann.getId()), indexed(projectB));
+        assertEquals(second.getId(), registry.findByProject(projectB).get(0).logId());
+
+        // Completing releases the slot only if the completion commits
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            pomodoroService.completeCycle(second.getId(), 0, "");
+            status.setRollbackOnly();
+        });
+        assertEquals(second.getId(), registry.findByUser(ann.getId()).map(ActiveSession::logId).orElse(null));
+        pomodoroService.completeCycle(second.getId(), 0, "");
+        assertTrue(registry.findByUser(ann.getId()).isEmpty());
+        assertNull(indexed(projectB));
+
+        // Rebuild: only sessions that are neither completed nor stale come back
+        first.setCompleted(true);
+        pomodoroLogRepository.save(first);
+        PomodoroLog bobs = log(bob, onA, now);
+        PomodoroLog anns = log(ann, onB, now);
+        registry.rebuild();
+        assertEquals(bobs.getId(), registry.findByUser(bob.getId()).orElseThrow().logId());
+        assertEquals(anns.getId(), registry.findByUser(ann.getId()).orElseThrow().logId());
+        assertEquals(Set.of(bob.getId()), indexed(projectA));
+        assertEquals(Set.of(ann.getId()), indexed(projectB));
+    }
+
+    @Test
+    void failedStartReleasesTheClaim() {
+        User cid = user("cid@example.com");
+        // Never saved, so starting its timer fails after the user's slot was claimed
+        Subtask unsaved = new Subtask();
+        unsaved.setName("Unsaved");
+        assertThrows(RuntimeException.class, () -> pomodoroService.startPomodoroOnSubtask(unsaved, cid));
+        assertTrue(registry.findByUser(cid.getId()).isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> indexed(long projectId) {
+        return ((Map<Long, Set<Long>>) ReflectionTestUtils.getField(registry, "usersByProject")).get(projectId);
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private Subtask subtask(Board board, String name) {
+        Project project = new Project();
+        project.setName(name);
+        project.setBoard(board);
+        project.setBoardColumn(board.getColumns().get(0));
+        project = projectRepository.save(project);
+        Task task = new Task();
+        task.setName(name);
+        task.setProject(project);
+        task = taskRepository.save(task);
+        Subtask subtask = new Subtask();
+        subtask.setName(name);
+        subtask.setTask(task);
+        return subtaskRepository.save(subtask);
+    }
+
+    private PomodoroLog log(User user, Subtask subtask, LocalDateTime start) {
+        PomodoroLog log = new PomodoroLog(subtask, user);
+        log.setStartTime(start);
+        log.setCompleted(false);
+        return pomodoroLogRepository.save(log);
+    }
+}
@@ -0,0 +1,180 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.PomodoroLog;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.entity.Subtask;
+import com.agnel.devcollab.entity.Task;
+import com.agnel.devcollab.entity.User;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.repository.SubtaskRepository;
+import com.agnel.devcollab.repository.TaskRepository;
+import com.agnel.devcollab.repository.UserRepository;
+import com.agnel.devcollab.service.BoardEventLog;
+import com.agnel.devcollab.service.EventOutbox;
+import com.agnel.devcollab.service.PomodoroService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Board changes become numbered events with no gaps from rolled back writes, and a
+ * client can fetch the ones after its last number until they fall out of the buffer.
+ * Starting and completing a Pomodoro session on a subtask are board changes too.
+ */
+@SpringBootTest(properties = {
+    "devcollab.outbox.dispatch=false",
+    "devcollab.board-events.capacity=3",
+    // Own database: dispatchers of other cached test contexts would otherwise send these events
+    "spring.datasource.url=jdbc:h2:mem:board-events-test"
+})
+@AutoConfigureMockMvc
+class BoardEventLogTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PomodoroService pomodoroService;
+
+    @Autowired
+    private BoardEventLog boardEventLog;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @WithMockUser
+    void numbersBoardChangesAndServesCatchUp() throws Exception {
+        Board board = new Board();
+        board.setName("Events");
+        board = boardRepository.save(board);
+        Project project = new Project();
+        project.setName("Launch");
+        project.setBoard(board);
+        project.setBoardColumn(board.getColumns().get(0));
+        project = projectRepository.save(project);
+        long boardId = board.getId();
+        long projectId = project.getId();
+
+        mockMvc.perform(patch("/api/projects/" + projectId)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"DOING\"}"));
+        // A rolled back change does not use up a number
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            boardEventLog.enqueue(boardId, new BoardEvent(BoardEvent.Type.PROJECT_UPDATED, projectId));
+            status.setRollbackOnly();
+        });
+        JsonNode task = objectMapper.readTree(mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Write docs\",\"project\":{\"id\":" + projectId + "}}"))
+            .andReturn().getResponse().getContentAsString());
+        mockMvc.perform(delete("/api/tasks/" + task.get("id").asLong()));
+        mockMvc.perform(post("/api/projects/" + projectId + "/pomodoro/start"));
+        assertEquals(4L, boardRepository.findEventSeqById(boardId).orElseThrow());
+
+        // Sent in order; the buffer keeps the last three
+        assertEquals(4, eventOutbox.drain());
+
+        MockHttpServletResponse caughtUp = mockMvc.perform(get("/api/boards/" + boardId + "/events?since=1"))
+            .andReturn().getResponse();
+        assertEquals(200, caughtUp.getStatus());
+        assertEquals("4", caughtUp.getHeader("X-Event-Seq"));
+        JsonNode missed = objectMapper.readTree(caughtUp.getContentAsString());
+        assertEquals(3, missed.size());
+        assertEquals(2, missed.get(0).get("seq").asLong());
+        assertEquals("TASK_CREATED", missed.get(0).get("type").asText());
+        assertEquals("Write docs", missed.get(0).get("name").asText());
+        assertEquals("TASK_DELETED", missed.get(1).get("type").asText());
+        assertEquals("TIMER_STARTED", missed.get(2).get("type").asText());
+        assertFalse(missed.get(2).get("pomodoroStart").isNull());
+
+        assertEquals("[]", mockMvc.perform(get("/api/boards/" + boardId + "/events?since=4"))
+            .andReturn().getResponse().getContentAsString());
+        // Evicted, or ahead of the board: the client has to reload
+        assertEquals(410, mockMvc.perform(get("/api/boards/" + boardId + "/events?since=0"))
+            .andReturn().getResponse().getStatus());
+        assertEquals(410, mockMvc.perform(get("/api/boards/" + boardId + "/events?since=9"))
+            .andReturn().getResponse().getStatus());
+        assertEquals(404, mockMvc.perform(get("/api/boards/999999/events?since=0"))
+            .andReturn().getResponse().getStatus());
+        assertEquals(401, mockMvc.perform(get("/api/boards/" + boardId + "/events?since=1").with(anonymous()))
+            .andReturn().getResponse().getStatus());
+    }
+
+    @Test
+    @WithMockUser
+    void pomodoroSessionsAreBoardEvents() throws Exception {
+        Board board = new Board();
+        board.setName("Sessions");
+        board = boardRepository.save(board);
+        Project project = new Project();
+        project.setName("Focus");
+        project.setBoard(board);
+        project.setBoardColumn(board.getColumns().get(0));
+        project = projectRepository.save(project);
+        Task task = new Task();
+        task.setName("Focus");
+        task.setProject(project);
+        task = taskRepository.save(task);
+        Subtask subtask = new Subtask();
+        subtask.setName("Focus");
+        subtask.setTask(task);
+        subtask = subtaskRepository.save(subtask);
+        User user = new User();
+        user.setName("Focused");
+        user.setEmail("focused@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+        long boardId = board.getId();
+
+        PomodoroLog log = pomodoroService.startPomodoroOnSubtask(subtask, user);
+        pomodoroService.completeCycle(log.getId(), 0, "");
+        assertEquals(2L, boardRepository.findEventSeqById(boardId).orElseThrow());
+        eventOutbox.drain();
+
+        JsonNode events = objectMapper.readTree(mockMvc.perform(get("/api/boards/" + boardId + "/events?since=0"))
+            .andReturn().getResponse().getContentAsString());
+        assertEquals(2, events.size());
+        assertEquals("TIMER_STARTED", events.get(0).get("type").asText());
+        assertFalse(events.get(0).get("pomodoroStart").isNull());
+        assertEquals("TIMER_COMPLETED", events.get(1).get("type").asText());
+        assertEquals(subtask.getId().longValue(), events.get(1).get("subtaskId").asLong());
+        assertTrue(events.get(1).get("pomodoroStart").isNull());
+    }
+}
@@ -0,0 +1,105 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.DevcollabApplication;
+import com.agnel.devcollab.dto.BoardResponse;
+import com.agnel.devcollab.dto.BoardSnapshotResponse;
+import com.agnel.devcollab.dto.ColumnResponse;
+import com.agnel.devcollab.dto.ProjectResponse;
+import com.agnel.devcollab.dto.SubtaskResponse;
+import com.agnel.devcollab.dto.TaskResponse;
+import com.agnel.devcollab.service.BoardImportService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows per second written by BoardImportService, one JDBC statement per row and then in
+ * ordered batches of 50. The unbatched run stands in for the IDENTITY ids used before,
+ * which made Hibernate send every INSERT on its own. Not run by the build; start main()
+ * from the IDE, or after mvn test-compile:
+ *
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *       com.agnel.devcollab.devcollab.BoardImportBenchmark [boards] [projects per board]
+ *
+ * Each project has 10 tasks with 5 subtasks each.
+ */
+public class BoardImportBenchmark {
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int projects = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        BoardSnapshotResponse snapshot = snapshot(projects, 10, 5);
+        int rows = 1 + snapshot.getBoard().getColumns().size() + snapshot.getProjects().size()
+            + snapshot.getTasks().size() + snapshot.getSubtasks().size();
+        run("unbatched", List.of("--spring.jpa.properties.hibernate.jdbc.batch_size=1",
+            "--spring.jpa.properties.hibernate.order_inserts=false"), snapshot, rows, boards);
+        run("batched", List.of(), snapshot, rows, boards);
+    }
+
+    private static void run(String mode, List<String> settings, BoardSnapshotResponse snapshot, int rows, int boards) {
+        List<String> arguments = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--spring.datasource.url=jdbc:h2:mem:import-" + mode,
+            "--devcollab.outbox.dispatch=false",
+            "--logging.level.root=WARN"));
+        arguments.addAll(settings);
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(DevcollabApplication.class)
+                .run(arguments.toArray(String[]::new))) {
+            BoardImportService importer = app.getBean(BoardImportService.class);
+            // Warm up the JIT and the id pools before timing
+            for (int i = 0; i < 3; i++) {
+                importer.importSnapshot(snapshot);
+            }
+            long started = System.nanoTime();
+            for (int i = 0; i < boards; i++) {
+                importer.importSnapshot(snapshot);
+            }
+            double elapsed = (System.nanoTime() - started) / 1e9;
+            System.out.printf("%-10s %,d boards x %,d rows: %,.0f rows/s (%.2f s)%n",
+                mode, boards, rows, boards * rows / elapsed, elapsed);
+        }
+    }
+
+    private static BoardSnapshotResponse snapshot(int projects, int tasksPerProject, int subtasksPerTask) {
+        BoardResponse board = new BoardResponse(1L, "Imported", "Benchmark board", "#3B82F6", null, null);
+        List<ColumnResponse> columns = new ArrayList<>();
+        for (int c = 0; c < 3; c++) {
+            ColumnResponse column = new ColumnResponse();
+            column.setId((long) c);
+            column.setName("Column " + c);
+            column.setPosition(c);
+            columns.add(column);
+        }
+        board.setColumns(columns);
+        List<ProjectResponse> projectRows = new ArrayList<>();
+        List<TaskResponse> taskRows = new ArrayList<>();
+        List<SubtaskResponse> subtaskRows = new ArrayList<>();
+        long taskId = 0;
+        long subtaskId = 0;
+        for (long p = 0; p < projects; p++) {
+            ProjectResponse project = new ProjectResponse();
+            project.setId(p);
+            project.setName("Project " + p);
+            project.setBoardColumnId(p % 3);
+            projectRows.add(project);
+            for (int t = 0; t < tasksPerProject; t++) {
+                TaskResponse task = new TaskResponse();
+                task.setId(++taskId);
+                task.setName("Task " + taskId);
+                task.setProjectId(p);
+                taskRows.add(task);
+                for (int s = 0; s < subtasksPerTask; s++) {
+                    SubtaskResponse subtask = new SubtaskResponse();
+                    subtask.setId(++subtaskId);
+                    subtask.setName("Subtask " + subtaskId);
+                    subtask.setTaskId(taskId);
+                    subtaskRows.add(subtask);
+                }
+            }
+        }
+        return new BoardSnapshotResponse(board, projectRows, taskRows, subtaskRows);
+    }
+}
@@ -0,0 +1,122 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.dto.BoardSnapshotResponse;
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.entity.Subtask;
+import com.agnel.devcollab.entity.Task;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.repository.SubtaskRepository;
+import com.agnel.devcollab.repository.TaskRepository;
+import com.agnel.devcollab.service.BoardSnapshotService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A board exported as a snapshot imports as a copy, written in batched INSERTs:
+ * a few hundred rows take a handful of statements.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "devcollab.outbox.dispatch=false",
+    "spring.datasource.url=jdbc:h2:mem:board-import-test"
+})
+@AutoConfigureMockMvc
+class BoardImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Autowired
+    private BoardSnapshotService boardSnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void importsSnapshotInBatches() throws Exception {
+        Board source = new Board();
+        source.setName("Source");
+        source = boardRepository.save(source);
+        for (int p = 0; p < 10; p++) {
+            Project project = new Project();
+            project.setName("Project " + p);
+            project.setBoard(source);
+            project.setBoardColumn(source.getColumns().get(p % 3));
+            project = projectRepository.save(project);
+            for (int t = 0; t < 5; t++) {
+                Task task = new Task();
+                task.setName("Task " + p + "." + t);
+                task.setProject(project);
+                task = taskRepository.save(task);
+                for (int s = 0; s < 4; s++) {
+                    Subtask subtask = new Subtask();
+                    subtask.setName("Subtask " + p + "." + t + "." + s);
+                    subtask.setTask(task);
+                    subtaskRepository.save(subtask);
+                }
+            }
+        }
+        BoardSnapshotResponse snapshot = boardSnapshotService.snapshot(source.getId()).orElseThrow();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        JsonNode imported = objectMapper.readTree(mockMvc.perform(post("/api/boards/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(snapshot)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        // 1 board, 3 columns, 10 projects, 50 tasks, 200 subtasks
+        assertEquals(264, statistics.getEntityInsertCount());
+        // Batches of up to 50 per table, a few sequence reads and the response's column select
+        assertTrue(statistics.getPrepareStatementCount() < 30, statistics.getPrepareStatementCount() + " statements");
+
+        BoardSnapshotResponse copy = boardSnapshotService.snapshot(imported.get("id").asLong()).orElseThrow();
+        assertNotEquals(source.getId(), copy.getBoard().getId());
+        assertEquals(3, copy.getBoard().getColumns().size());
+        assertEquals(10, copy.getProjects().size());
+        assertEquals(50, copy.getTasks().size());
+        assertEquals(200, copy.getSubtasks().size());
+        // Projects stay in the column they were in
+        assertEquals(copy.getBoard().getColumns().get(1).getId(), copy.getProjects().stream()
+            .filter(p -> p.getName().equals("Project 1")).findFirst().orElseThrow().getBoardColumnId());
+
+        // A child whose parent is not in the import is rejected and nothing is written
+        snapshot.getTasks().get(0).setProjectId(-1L);
+        long boards = boardRepository.count();
+        mockMvc.perform(post("/api/boards/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(snapshot)))
+            .andExpect(status().isBadRequest());
+        assertEquals(boards, boardRepository.count());
+    }
+}
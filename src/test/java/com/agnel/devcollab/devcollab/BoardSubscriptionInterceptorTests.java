@@ -0,0 +1,132 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.config.BoardSubscriptionInterceptor;
+import com.agnel.devcollab.entity.*;
+import com.agnel.devcollab.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * STOMP traffic is scoped per board: a client may only subscribe to the boards it can
+ * see, may only send to boards it has subscribed to, cannot listen on global topics and
+ * cannot publish on broker destinations itself.
+ */
+@SpringBootTest
+class BoardSubscriptionInterceptorTests {
+
+    @Autowired
+    private BoardSubscriptionInterceptor interceptor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Test
+    void ownerSubscribesAndSendsToOwnBoardOnly() {
+        User owner = user("board-owner@example.com");
+        User stranger = user("stranger@example.com");
+        Project project = project(owner);
+        long boardId = project.getBoard().getId();
+        Map<String, Object> ownerSession = new HashMap<>();
+        Map<String, Object> strangerSession = new HashMap<>();
+
+        // Sending before subscribing is refused; the subscription is what grants the board
+        assertThrows(AccessDeniedException.class,
+            () -> send(StompCommand.SEND, "/app/boards/" + boardId + "/cursor", owner, ownerSession));
+        send(StompCommand.SUBSCRIBE, "/topic/boards/" + boardId + "/updates", owner, ownerSession);
+        send(StompCommand.SEND, "/app/boards/" + boardId + "/cursor", owner, ownerSession);
+        send(StompCommand.SUBSCRIBE, "/topic/projects/" + project.getId() + "/chat", owner, ownerSession);
+        send(StompCommand.SEND, "/app/projects/" + project.getId() + "/chat", owner, ownerSession);
+
+        assertThrows(AccessDeniedException.class,
+            () -> send(StompCommand.SUBSCRIBE, "/topic/boards/" + boardId + "/cursors", stranger, strangerSession));
+        assertThrows(AccessDeniedException.class,
+            () -> send(StompCommand.SUBSCRIBE, "/topic/projects/" + project.getId() + "/chat", stranger, strangerSession));
+        assertThrows(AccessDeniedException.class,
+            () -> send(StompCommand.SUBSCRIBE, "/topic/boards/" + boardId + "/updates", null, new HashMap<>()));
+    }
+
+    @Test
+    void globalTopicsAreRefused() {
+        User owner = user("global-topics@example.com");
+        for (String topic : List.of("/topic/project-updates", "/topic/cursors", "/topic/chat")) {
+            assertThrows(AccessDeniedException.class,
+                () -> send(StompCommand.SUBSCRIBE, topic, owner, new HashMap<>()));
+        }
+    }
+
+    @Test
+    void sendsToBrokerDestinationsAreRefused() {
+        User owner = user("broker-send@example.com");
+        Project project = project(owner);
+        long boardId = project.getBoard().getId();
+        Map<String, Object> session = new HashMap<>();
+        send(StompCommand.SUBSCRIBE, "/topic/boards/" + boardId + "/updates", owner, session);
+
+        // Even a subscriber may not publish on the topics the server broadcasts to
+        for (String suffix : List.of("updates", "cursors", "presence", "timers")) {
+            assertThrows(AccessDeniedException.class,
+                () -> send(StompCommand.SEND, "/topic/boards/" + boardId + "/" + suffix, owner, session));
+        }
+        assertThrows(AccessDeniedException.class,
+            () -> send(StompCommand.SEND, "/queue/notifications", owner, session));
+        assertThrows(AccessDeniedException.class,
+            () -> send(StompCommand.SEND, "/user/stranger@example.com/queue/notifications", owner, session));
+    }
+
+    private void send(StompCommand command, String destination, User user, Map<String, Object> session) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setSessionId("session");
+        accessor.setSessionAttributes(session);
+        if (user != null) {
+            accessor.setUser(new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of()));
+        }
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        interceptor.preSend(message, (msg, timeout) -> true);
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private Project project(User owner) {
+        Board board = boardRepository.save(new Board("Private board", owner));
+        BoardColumn column = new BoardColumn();
+        column.setName("To Do");
+        column.setBoard(board);
+        column = columnRepository.save(column);
+
+        Project project = new Project();
+        project.setName("Scoped project");
+        project.setOwner(owner);
+        project.setBoard(board);
+        project.setBoardColumn(column);
+        return projectRepository.save(project);
+    }
+}
@@ -0,0 +1,178 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.DevcollabApplication;
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.entity.*;
+import com.agnel.devcollab.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.net.CookieManager;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two app nodes relaying to one embedded STOMP broker: a board update or pomodoro
+ * broadcast sent on node A reaches a client connected only to node B.
+ */
+class BrokerRelayFanOutTests {
+
+    private static final String EMAIL = "relay-user@example.com";
+    private static final String PASSWORD = "relay-secret";
+
+    @Test
+    void broadcastOnOneNodeReachesClientsOfAnother() throws Exception {
+        try (EmbeddedStompBroker broker = new EmbeddedStompBroker();
+             ConfigurableApplicationContext nodeA = startNode(broker);
+             ConfigurableApplicationContext nodeB = startNode(broker)) {
+
+            Project project = seed(nodeA);
+            long boardId = project.getBoard().getId();
+            StompSession session = connect(nodeB);
+
+            BlockingQueue<Object> updates = new LinkedBlockingQueue<>();
+            BlockingQueue<Object> pomodoros = new LinkedBlockingQueue<>();
+            CountDownLatch subscribed = new CountDownLatch(2);
+            session.setAutoReceipt(true);
+            session.subscribe(BoardTopics.updates(boardId), collect(BoardEvent.class, updates))
+                .addReceiptTask(subscribed::countDown);
+            session.subscribe(BoardTopics.pomodoro(project.getId()), collect(Map.class, pomodoros))
+                .addReceiptTask(subscribed::countDown);
+            assertTrue(subscribed.await(10, TimeUnit.SECONDS), "broker confirmed both subscriptions");
+
+            SimpMessagingTemplate templateA = nodeA.getBean(SimpMessagingTemplate.class);
+            BoardEvent moved = new BoardEvent(BoardEvent.Type.PROJECT_MOVED, project.getId());
+            moved.setStatus("DOING");
+            templateA.convertAndSend(BoardTopics.updates(boardId), moved);
+            templateA.convertAndSend(BoardTopics.pomodoro(project.getId()), Map.of("type", "pomodoro_start"));
+
+            BoardEvent update = (BoardEvent) updates.poll(10, TimeUnit.SECONDS);
+            assertNotNull(update, "update sent on node A reached node B's client");
+            assertEquals(project.getId(), update.getProjectId());
+            assertEquals(BoardEvent.Type.PROJECT_MOVED, update.getType());
+            Map<?, ?> pomodoro = (Map<?, ?>) pomodoros.poll(10, TimeUnit.SECONDS);
+            assertNotNull(pomodoro);
+            assertEquals("pomodoro_start", pomodoro.get("type"));
+
+            session.disconnect();
+        }
+    }
+
+    private ConfigurableApplicationContext startNode(EmbeddedStompBroker broker) {
+        // Arguments rather than builder properties, which application.properties would override
+        return new SpringApplicationBuilder(DevcollabApplication.class).run(
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--devcollab.broker.mode=relay",
+            "--devcollab.broker.relay.host=127.0.0.1",
+            "--devcollab.broker.relay.port=" + broker.port());
+    }
+
+    // Both nodes share the in-memory database, as real nodes would share one database
+    private Project seed(ConfigurableApplicationContext node) {
+        UserRepository users = node.getBean(UserRepository.class);
+        User user = new User();
+        user.setName("Relay User");
+        user.setEmail(EMAIL);
+        user.setPassword(node.getBean(PasswordEncoder.class).encode(PASSWORD));
+        user = users.save(user);
+
+        Board board = node.getBean(BoardRepository.class).save(new Board("Relay board", user));
+        BoardColumn column = new BoardColumn();
+        column.setName("To Do");
+        column.setBoard(board);
+        column = node.getBean(ColumnRepository.class).save(column);
+
+        Project project = new Project();
+        project.setName("Relayed project");
+        project.setOwner(user);
+        project.setBoard(board);
+        project.setBoardColumn(column);
+        return node.getBean(ProjectRepository.class).save(project);
+    }
+
+    // Logs in through the form like a browser, then opens the STOMP session with that cookie
+    private StompSession connect(ConfigurableApplicationContext node) throws Exception {
+        String base = "http://localhost:" + node.getEnvironment().getProperty("local.server.port");
+        CookieManager cookies = new CookieManager();
+        HttpClient http = HttpClient.newBuilder().cookieHandler(cookies).build();
+
+        String loginPage = http.send(HttpRequest.newBuilder(URI.create(base + "/login")).build(),
+            HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"").matcher(loginPage);
+        assertTrue(csrf.find(), "login form carries a CSRF token");
+        String form = "username=" + URLEncoder.encode(EMAIL, StandardCharsets.UTF_8)
+            + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8)
+            + "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertTrue(login.headers().firstValue("Location").orElse("").endsWith("/projects"), "logged in");
+
+        String sessionCookie = cookies.getCookieStore().getCookies().stream()
+            .filter(cookie -> cookie.getName().equals("JSESSIONID"))
+            .map(HttpCookie::toString)
+            .findFirst().orElseThrow();
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.add("Cookie", sessionCookie);
+
+        WebSocketStompClient client = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(node.getBean(ObjectMapper.class));
+        client.setMessageConverter(converter);
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        client.setTaskScheduler(scheduler);
+        return client.connectAsync(base + "/ws", headers, new StompSessionHandlerAdapter() {})
+            .get(10, TimeUnit.SECONDS);
+    }
+
+    private StompFrameHandler collect(Class<?> type, BlockingQueue<Object> into) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return type;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                into.add(payload);
+            }
+        };
+    }
+}
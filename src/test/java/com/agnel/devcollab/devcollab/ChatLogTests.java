@@ -0,0 +1,123 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.dto.ChatMessage;
+import com.agnel.devcollab.entity.*;
+import com.agnel.devcollab.repository.*;
+import com.agnel.devcollab.service.ChatLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Chat history pages back from any id across segment boundaries, stays separate per
+ * project, and is recovered from disk when the logs are reopened. Over REST it is only
+ * served to users who can see the project's board.
+ */
+@SpringBootTest(properties = {
+    "devcollab.chat.dir=target/chat-log-test",
+    "devcollab.chat.segment-bytes=4096"
+})
+@AutoConfigureMockMvc
+class ChatLogTests {
+
+    // Far above the ids the database hands out to projects in other tests
+    private static final long PROJECT = 9001L;
+    private static final long OTHER_PROJECT = 9002L;
+
+    @Autowired
+    private ChatLog chatLog;
+
+    @Value("${devcollab.chat.dir}")
+    private String directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Test
+    void pagesBackwardsAcrossSegmentsAndReopens() {
+        // Start from an empty log; nothing has been opened yet in this context
+        FileSystemUtils.deleteRecursively(new File(directory));
+        for (int i = 0; i < 300; i++) {
+            chatLog.append(PROJECT, message("message " + i));
+        }
+        chatLog.append(OTHER_PROJECT, message("other project"));
+        File[] segments = new File(directory, String.valueOf(PROJECT)).listFiles();
+        assertNotNull(segments);
+        assertTrue(segments.length > 1, "small segments force the log to roll");
+
+        List<ChatMessage> latest = chatLog.before(PROJECT, null, 50);
+        assertEquals(50, latest.size());
+        assertEquals(250L, latest.get(0).getId());
+        assertEquals("message 299", latest.get(49).getMessage());
+
+        List<ChatMessage> older = chatLog.before(PROJECT, 100L, 30);
+        assertEquals(70L, older.get(0).getId());
+        assertEquals("message 99", older.get(29).getMessage());
+        assertEquals(5, chatLog.before(PROJECT, 5L, 50).size());
+
+        // Reopening rebuilds the index and continues numbering after the last record
+        chatLog.close();
+        assertEquals("message 150", chatLog.before(PROJECT, 151L, 1).get(0).getMessage());
+        assertEquals(300L, chatLog.append(PROJECT, message("after reopen")).getId());
+        List<ChatMessage> other = chatLog.before(OTHER_PROJECT, null, 50);
+        assertEquals(1, other.size());
+        assertEquals("other project", other.get(0).getMessage());
+    }
+
+    @Test
+    void historyIsOnlyServedToBoardMembers() throws Exception {
+        User owner = new User();
+        owner.setName("Chat Owner");
+        owner.setEmail("chat-owner@example.com");
+        owner.setPassword("secret");
+        owner = userRepository.save(owner);
+        Board board = boardRepository.save(new Board("Private chat", owner));
+        BoardColumn column = new BoardColumn();
+        column.setName("To Do");
+        column.setBoard(board);
+        column = columnRepository.save(column);
+        Project project = new Project();
+        project.setName("Private project");
+        project.setOwner(owner);
+        project.setBoard(board);
+        project.setBoardColumn(column);
+        long projectId = projectRepository.save(project).getId();
+        chatLog.append(projectId, message("for members only"));
+
+        String url = "/api/projects/" + projectId + "/chat";
+        assertEquals(401, mockMvc.perform(get(url)).andReturn().getResponse().getStatus());
+        assertEquals(404, mockMvc.perform(get(url).with(user("chat-stranger@example.com")))
+            .andReturn().getResponse().getStatus());
+        String history = mockMvc.perform(get(url).with(user(owner.getEmail())))
+            .andReturn().getResponse().getContentAsString();
+        assertTrue(history.contains("for members only"));
+    }
+
+    private ChatMessage message(String text) {
+        return new ChatMessage(null, text, "Alice", "#f00", LocalDateTime.now());
+    }
+}
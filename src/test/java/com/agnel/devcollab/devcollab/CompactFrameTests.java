@@ -0,0 +1,121 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.config.CompactFrameInterceptor;
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.CursorBatch;
+import com.agnel.devcollab.dto.CursorMove;
+import com.agnel.devcollab.ws.CompactFrameCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sessions that negotiated compact-v1 on the native endpoint get board frames in the
+ * binary layout, with user strings sent once; every other session keeps JSON.
+ */
+@SpringBootTest
+class CompactFrameTests {
+
+    @Autowired
+    private CompactFrameInterceptor interceptor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void negotiatedSessionsReceiveCompactFrames() throws Exception {
+        connect("compact-session", true, CompactFrameInterceptor.COMPACT_FORMAT);
+        connect("sockjs-session", false, CompactFrameInterceptor.COMPACT_FORMAT);
+        connect("json-session", true, null);
+        assertTrue(interceptor.isCompact("compact-session"));
+        assertFalse(interceptor.isCompact("sockjs-session"), "SockJS frames are text, so it stays on JSON");
+        assertFalse(interceptor.isCompact("json-session"));
+
+        CursorBatch batch = new CursorBatch(5L, List.of(
+            new CursorMove("ann@example.com", "Ann Example", "#e74c3c", 101.5, 42.25, 9L),
+            new CursorMove("bob@example.com", "Bob Example", "#3498db", 7, 8, null)));
+        byte[] json = objectMapper.writeValueAsBytes(batch);
+
+        Message<?> first = interceptor.preSend(broadcast("compact-session", BoardTopics.cursors(5L), json), (m, t) -> true);
+        Message<?> second = interceptor.preSend(broadcast("compact-session", BoardTopics.cursors(5L), json), (m, t) -> true);
+        assertEquals(CompactFrameCodec.MIME_TYPE, first.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+        byte[] firstFrame = (byte[]) first.getPayload();
+        byte[] secondFrame = (byte[]) second.getPayload();
+        assertTrue(secondFrame.length < firstFrame.length, "user strings are only defined once");
+        assertTrue(firstFrame.length < json.length);
+
+        // A client replaying the frames in order rebuilds the same batch
+        CompactFrameCodec.Dictionary client = new CompactFrameCodec.Dictionary();
+        CompactFrameCodec.decode(firstFrame, client);
+        CursorBatch decoded = (CursorBatch) CompactFrameCodec.decode(secondFrame, client);
+        assertEquals(5L, decoded.getBoardId());
+        assertEquals("Bob Example", decoded.getCursors().get(1).getUserName());
+        assertEquals(101.5, decoded.getCursors().get(0).getX());
+        assertEquals(9L, decoded.getCursors().get(0).getProjectId());
+        assertNull(decoded.getCursors().get(1).getProjectId());
+
+        BoardEvent update = new BoardEvent(BoardEvent.Type.TIMER_STARTED, 3L);
+        update.setBoardId(5L);
+        update.setSeq(12);
+        update.setStatus("DOING");
+        update.setPomodoroStart(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6_000_000));
+        update.setIsBreak(false);
+        update.setUserName("Ann Example");
+        Message<?> updateFrame = interceptor.preSend(
+            broadcast("compact-session", BoardTopics.updates(5L), objectMapper.writeValueAsBytes(update)), (m, t) -> true);
+        BoardEvent decodedUpdate = (BoardEvent) CompactFrameCodec.decode((byte[]) updateFrame.getPayload(), client);
+        assertEquals(BoardEvent.Type.TIMER_STARTED, decodedUpdate.getType());
+        assertEquals(12L, decodedUpdate.getSeq());
+        assertEquals("DOING", decodedUpdate.getStatus());
+        assertEquals(update.getPomodoroStart(), decodedUpdate.getPomodoroStart());
+        assertEquals(Boolean.FALSE, decodedUpdate.getIsBreak());
+        assertNull(decodedUpdate.getCompleted());
+        assertEquals("Ann Example", decodedUpdate.getUserName());
+
+        Message<?> untouched = broadcast("json-session", BoardTopics.cursors(5L), json);
+        assertSame(untouched, interceptor.preSend(untouched, (m, t) -> true));
+    }
+
+    private void connect(String sessionId, boolean nativeTransport, String format) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        Map<String, Object> attributes = new HashMap<>();
+        if (nativeTransport) {
+            attributes.put(CompactFrameInterceptor.NATIVE_TRANSPORT_ATTRIBUTE, true);
+        }
+        accessor.setSessionAttributes(attributes);
+        if (format != null) {
+            accessor.setNativeHeader(CompactFrameInterceptor.FORMAT_HEADER, format);
+        }
+        eventPublisher.publishEvent(new SessionConnectEvent(this,
+            MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+
+    private Message<byte[]> broadcast(String sessionId, String destination, byte[] json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+}
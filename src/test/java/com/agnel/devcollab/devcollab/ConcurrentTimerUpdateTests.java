@@ -0,0 +1,122 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.entity.*;
+import com.agnel.devcollab.repository.*;
+import com.agnel.devcollab.service.OptimisticRetry;
+import com.agnel.devcollab.service.TimerStateService;
+import com.agnel.devcollab.service.TimerStateService.Kind;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hundreds of collaborators stopping timers while the same project is edited must not
+ * lose seconds or edits: time is added with atomic deltas that leave @Version alone,
+ * and edits only write the columns they change.
+ */
+@SpringBootTest
+class ConcurrentTimerUpdateTests {
+
+    private static final int THREADS = 200;
+    private static final int SUBTASKS = 200;
+    private static final int EDITS = 50;
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Test
+    void concurrentStopsAndEditsLoseNoSeconds() throws Exception {
+        Project project = project();
+        Task task = new Task();
+        task.setName("Task");
+        task.setProject(project);
+        task = taskRepository.save(task);
+        List<Long> subtaskIds = new ArrayList<>();
+        for (int i = 0; i < SUBTASKS; i++) {
+            Subtask subtask = new Subtask();
+            subtask.setName("Subtask " + i);
+            subtask.setTask(task);
+            subtask.setPomodoroStart(LocalDateTime.now().minusSeconds(60));
+            subtaskIds.add(subtaskRepository.save(subtask).getId());
+        }
+
+        long projectId = project.getId();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (Long subtaskId : subtaskIds) {
+            results.add(pool.submit(() -> {
+                go.await();
+                return timerStateService.stop(Kind.SUBTASK, subtaskId);
+            }));
+        }
+        // Read-modify-save edits of the same project row the stops keep crediting, one after another
+        // as a user would make them; the deltas never bump the version, so no edit has to retry
+        results.add(pool.submit(() -> {
+            go.await();
+            for (int i = 0; i < EDITS; i++) {
+                optimisticRetry.run(() -> {
+                    Project current = projectRepository.findById(projectId).orElseThrow();
+                    current.setEstimatedPomodoros(current.getEstimatedPomodoros() + 1);
+                    return projectRepository.save(current);
+                });
+            }
+            return null;
+        }));
+        go.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        long subtaskSeconds = 0;
+        for (Long subtaskId : subtaskIds) {
+            Subtask subtask = subtaskRepository.findById(subtaskId).orElseThrow();
+            assertNull(subtask.getPomodoroStart());
+            assertTrue(subtask.getTotalSecondsSpent() >= 60);
+            subtaskSeconds += subtask.getTotalSecondsSpent();
+        }
+        Project after = projectRepository.findById(projectId).orElseThrow();
+        assertEquals(subtaskSeconds, after.getTotalSecondsSpent(), "project total must equal the sum of its subtasks");
+        assertEquals(1 + EDITS, after.getEstimatedPomodoros(), "every edit must survive its retries");
+    }
+
+    private Project project() {
+        Board board = boardRepository.save(new Board());
+        BoardColumn column = new BoardColumn();
+        column.setName("To Do");
+        column.setBoard(board);
+        column = columnRepository.save(column);
+
+        Project project = new Project();
+        project.setName("Contended project");
+        project.setBoard(board);
+        project.setBoardColumn(column);
+        return projectRepository.save(project);
+    }
+}
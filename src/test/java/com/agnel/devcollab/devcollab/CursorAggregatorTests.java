@@ -0,0 +1,74 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.dto.CursorBatch;
+import com.agnel.devcollab.dto.CursorMove;
+import com.agnel.devcollab.service.CursorAggregator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A burst of cursor moves leaves the server as one batch per board holding each
+ * user's latest position. The tick is pushed out so the test drives flush() itself.
+ */
+@SpringBootTest(properties = "devcollab.cursor.flush-interval-ms=3600000")
+class CursorAggregatorTests {
+
+    @Autowired
+    private CursorAggregator cursorAggregator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    @Test
+    void burstIsCoalescedToLatestPositionPerUser() throws Exception {
+        List<Message<?>> sent = new CopyOnWriteArrayList<>();
+        ChannelInterceptor capture = new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                sent.add(message);
+                return message;
+            }
+        };
+        brokerChannel.addInterceptor(capture);
+        try {
+            for (int i = 0; i < 100; i++) {
+                cursorAggregator.submit(1L, new CursorMove("alice", "Alice", "#f00", i, i, null));
+            }
+            cursorAggregator.submit(1L, new CursorMove("bob", "Bob", "#00f", 5, 5, null));
+            cursorAggregator.submit(2L, new CursorMove("carol", "Carol", "#0f0", 7, 7, null));
+
+            assertEquals(2, cursorAggregator.flush(), "one batch per board");
+            assertEquals(0, cursorAggregator.flush(), "nothing moved since the last tick");
+            assertEquals(2, sent.size());
+
+            Message<?> board1 = sent.stream()
+                .filter(m -> "/topic/boards/1/cursors".equals(SimpMessageHeaderAccessor.getDestination(m.getHeaders())))
+                .findFirst().orElseThrow();
+            CursorBatch batch = objectMapper.readValue((byte[]) board1.getPayload(), CursorBatch.class);
+            assertEquals(2, batch.getCursors().size());
+            CursorMove alice = batch.getCursors().stream()
+                .filter(move -> move.getUserId().equals("alice"))
+                .findFirst().orElseThrow();
+            assertEquals(99, alice.getX());
+        } finally {
+            brokerChannel.removeInterceptor(capture);
+        }
+    }
+}
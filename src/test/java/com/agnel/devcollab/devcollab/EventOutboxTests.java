@@ -0,0 +1,131 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.repository.OutboxEventRepository;
+import com.agnel.devcollab.service.EventOutbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Only events of committed transactions leave the outbox, in the order they were
+ * written, and a destination that keeps failing does not hold up the others. The
+ * dispatcher thread is off so the test drives drain() itself.
+ */
+@SpringBootTest(properties = {
+    "devcollab.outbox.dispatch=false",
+    "devcollab.outbox.batch-size=2",
+    // Own database: dispatchers of other cached test contexts would otherwise drain these rows
+    "spring.datasource.url=jdbc:h2:mem:outbox-test"
+})
+class EventOutboxTests {
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    @Test
+    void committedEventsAreSentInOrderAfterCommit() throws Exception {
+        List<Message<?>> sent = new CopyOnWriteArrayList<>();
+        ChannelInterceptor capture = new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                sent.add(message);
+                return message;
+            }
+        };
+        brokerChannel.addInterceptor(capture);
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> {
+                eventOutbox.enqueue(BoardTopics.updates(41L), Map.of("seq", 1));
+                eventOutbox.enqueue(BoardTopics.updates(41L), Map.of("seq", 2));
+            });
+            transaction.executeWithoutResult(status -> {
+                eventOutbox.enqueue(BoardTopics.updates(41L), Map.of("seq", 99));
+                status.setRollbackOnly();
+            });
+            assertThrows(IllegalTransactionStateException.class,
+                () -> eventOutbox.enqueue(BoardTopics.updates(41L), Map.of("seq", 100)),
+                "events are only written alongside an entity change");
+            assertTrue(sent.isEmpty(), "nothing is sent on the writing thread");
+
+            assertEquals(2, eventOutbox.drain());
+            assertEquals(0, eventOutbox.drain(), "sent rows are removed");
+            assertEquals(2, sent.size());
+            for (int i = 0; i < 2; i++) {
+                assertEquals("/topic/boards/41/updates", SimpMessageHeaderAccessor.getDestination(sent.get(i).getHeaders()));
+                Map<?, ?> body = objectMapper.readValue((byte[]) sent.get(i).getPayload(), Map.class);
+                assertEquals(i + 1, body.get("seq"));
+            }
+        } finally {
+            brokerChannel.removeInterceptor(capture);
+        }
+    }
+
+    @Test
+    void failingDestinationDoesNotStarveOthers() {
+        String broken = BoardTopics.updates(51L);
+        String healthy = BoardTopics.updates(52L);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        ChannelInterceptor failBroken = new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (broken.equals(destination)) {
+                    throw new MessageDeliveryException(message, "broker rejected");
+                }
+                sent.add(destination);
+                return message;
+            }
+        };
+        brokerChannel.addInterceptor(failBroken);
+        try {
+            // The broken board's events are older and fill a whole batch
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (int i = 0; i < 3; i++) {
+                    eventOutbox.enqueue(broken, Map.of("seq", i));
+                }
+                eventOutbox.enqueue(healthy, Map.of("seq", 1));
+            });
+
+            assertEquals(0, eventOutbox.drain(), "the broken board's first event fails and blocks it");
+            assertEquals(1, eventOutbox.drain(), "while it waits for a retry the next batch skips it");
+            assertEquals(List.of(healthy), sent);
+            assertEquals(0, eventOutbox.drain(), "the broken board stays in order behind its retry");
+        } finally {
+            brokerChannel.removeInterceptor(failBroken);
+            // The broken board's events would otherwise be sent by the other test's drains
+            outboxEventRepository.deleteAll();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.dto.BoardEvent;
+import com.agnel.devcollab.dto.CursorBatch;
+import com.agnel.devcollab.dto.CursorMove;
+import com.agnel.devcollab.dto.UserPresence;
+import com.agnel.devcollab.ws.CompactFrameCodec;
+import com.agnel.devcollab.ws.TimerSyncMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of the Jackson body against compact-v1, per frame kind, in the
+ * steady state where a session's dictionary already holds the user strings. Not run
+ * by the build; start main() from the IDE, or after mvn test-compile:
+ *
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *       com.agnel.devcollab.devcollab.FrameCodecBenchmark
+ *
+ * main() prints bytes per frame for both formats before the timed runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameCodecBenchmark {
+
+    @Param({"cursors", "presence", "update", "timer"})
+    public String kind;
+
+    private ObjectMapper objectMapper;
+    private Object payload;
+    private byte[] json;
+    private byte[] compact;
+    private CompactFrameCodec.Dictionary encoder;
+    private CompactFrameCodec.Dictionary decoder;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = objectMapper();
+        payload = sample(kind);
+        json = objectMapper.writeValueAsBytes(payload);
+        encoder = new CompactFrameCodec.Dictionary();
+        decoder = new CompactFrameCodec.Dictionary();
+        // The first frame defines the strings; later ones only reference them
+        CompactFrameCodec.decode(CompactFrameCodec.encode(payload, encoder), decoder);
+        compact = CompactFrameCodec.encode(payload, encoder);
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public Object jacksonDecode() throws Exception {
+        return objectMapper.readValue(json, payload.getClass());
+    }
+
+    @Benchmark
+    public byte[] compactEncode() {
+        return CompactFrameCodec.encode(payload, encoder);
+    }
+
+    @Benchmark
+    public Object compactDecode() {
+        return CompactFrameCodec.decode(compact, decoder);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = objectMapper();
+        for (String kind : List.of("cursors", "presence", "update", "timer")) {
+            Object payload = sample(kind);
+            CompactFrameCodec.Dictionary dictionary = new CompactFrameCodec.Dictionary();
+            int first = CompactFrameCodec.encode(payload, dictionary).length;
+            int steady = CompactFrameCodec.encode(payload, dictionary).length;
+            System.out.printf("%-9s json %4d B   compact first %4d B, then %4d B%n",
+                kind, objectMapper.writeValueAsBytes(payload).length, first, steady);
+        }
+        new Runner(new OptionsBuilder().include(FrameCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // Configured like the application's mapper: ISO date-times rather than arrays
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static Object sample(String kind) {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 14, 9, 26, 53);
+        switch (kind) {
+            case "cursors" -> {
+                // A busy board: eight people moving at once
+                List<CursorMove> moves = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    moves.add(new CursorMove("user-" + i + "@example.com", "Team Member " + i, "#1f77b" + i,
+                        120.5 + i * 37, 310.25 + i * 11, i % 2 == 0 ? 40L + i : null));
+                }
+                return new CursorBatch(7L, moves);
+            }
+            case "presence" -> {
+                return new UserPresence("user-3@example.com", "Team Member 3", "#1f77b3", true);
+            }
+            case "update" -> {
+                BoardEvent update = new BoardEvent(BoardEvent.Type.TIMER_STARTED, 42L);
+                update.setBoardId(7L);
+                update.setSeq(1834);
+                update.setName("Payments service migration");
+                update.setStatus("DOING");
+                update.setColumnId(21L);
+                update.setPomodoroStart(now);
+                update.setIsBreak(false);
+                update.setTotalSecondsSpent(5400L);
+                update.setUserName("Team Member 3");
+                update.setUserColor("#1f77b3");
+                return update;
+            }
+            default -> {
+                TimerSyncMessage timer = new TimerSyncMessage();
+                timer.setAction(TimerSyncMessage.Action.UPDATE);
+                timer.setEntryId(9001L);
+                timer.setUserId(3L);
+                timer.setSubtaskId(77L);
+                timer.setDescription("Review webhook retries");
+                timer.setStart(now);
+                return timer;
+            }
+        }
+    }
+}
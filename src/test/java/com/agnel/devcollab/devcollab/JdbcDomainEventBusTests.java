@@ -0,0 +1,133 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.service.DomainEventBus;
+import com.agnel.devcollab.service.JdbcDomainEventBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * With the jdbc transport a publish only reaches the broker once a poll reads it back
+ * from the shared table, which is what every other node does too. A transaction that
+ * commits after later ids were delivered is still delivered. The poll interval is
+ * pushed out so the test drives poll() itself.
+ */
+@SpringBootTest(properties = {
+    "devcollab.events.transport=jdbc",
+    "devcollab.events.poll-interval-ms=3600000",
+    "devcollab.events.gap-timeout-ms=50"
+})
+class JdbcDomainEventBusTests {
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void eventsAreDeliveredFromTheTableInPublishOrder() throws Exception {
+        JdbcDomainEventBus jdbcBus = assertInstanceOf(JdbcDomainEventBus.class, eventBus);
+        List<Message<?>> sent = new CopyOnWriteArrayList<>();
+        ChannelInterceptor capture = new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                sent.add(message);
+                return message;
+            }
+        };
+        brokerChannel.addInterceptor(capture);
+        try {
+            for (int i = 0; i < 3; i++) {
+                eventBus.publish(BoardTopics.pomodoro(7L), Map.of("type", "pomodoro_start", "seq", i));
+            }
+            eventBus.publish(BoardTopics.updates(3L), Map.of("action", "MOVED"));
+            assertTrue(sent.isEmpty(), "nothing is sent before the poll");
+
+            assertEquals(4, jdbcBus.poll());
+            assertEquals(0, jdbcBus.poll(), "delivered events are not repeated");
+            assertEquals(4, sent.size());
+            for (int i = 0; i < 3; i++) {
+                Message<?> message = sent.get(i);
+                assertEquals("/topic/projects/7/pomodoro", SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                Map<?, ?> body = objectMapper.readValue((byte[]) message.getPayload(), Map.class);
+                assertEquals(i, body.get("seq"));
+            }
+            assertEquals("/topic/boards/3/updates", SimpMessageHeaderAccessor.getDestination(sent.get(3).getHeaders()));
+        } finally {
+            brokerChannel.removeInterceptor(capture);
+        }
+    }
+
+    @Test
+    void lateCommitIsDeliveredAfterItsGapWasSkipped() throws Exception {
+        JdbcDomainEventBus jdbcBus = assertInstanceOf(JdbcDomainEventBus.class, eventBus);
+        jdbcBus.poll();
+        List<String> sent = new CopyOnWriteArrayList<>();
+        ChannelInterceptor capture = new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                sent.add(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                return message;
+            }
+        };
+        brokerChannel.addInterceptor(capture);
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        try {
+            // Takes the lower id but commits only after a later event went out
+            CompletableFuture<Void> slow = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    eventBus.publish(BoardTopics.updates(8L), Map.of("late", true));
+                    published.countDown();
+                    try {
+                        commit.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            assertTrue(published.await(10, TimeUnit.SECONDS));
+            eventBus.publish(BoardTopics.updates(9L), Map.of("late", false));
+
+            assertEquals(0, jdbcBus.poll(), "the later event waits for the open gap");
+            Thread.sleep(100);
+            assertEquals(1, jdbcBus.poll(), "past the gap timeout it is delivered anyway");
+            assertEquals(List.of("/topic/boards/9/updates"), sent);
+
+            commit.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+            assertEquals(1, jdbcBus.poll(), "the skipped id is looked up again");
+            assertEquals(List.of("/topic/boards/9/updates", "/topic/boards/8/updates"), sent);
+            assertEquals(0, jdbcBus.poll());
+        } finally {
+            commit.countDown();
+            brokerChannel.removeInterceptor(capture);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.controller.api.KeysetPager;
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.BoardColumn;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ColumnRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * A client can walk a whole table through X-Next-Cursor: pages are ordered by id,
+ * never overlap, are capped at MAX_LIMIT whatever the client asks for, and the last
+ * page carries no cursor. The NDJSON export holds one line per row.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:keyset-paging-test")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class KeysetPagingTests {
+
+    // Two full pages at MAX_LIMIT, so the last one ends exactly on the table
+    private static final int ROWS = 2 * KeysetPager.MAX_LIMIT;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void seed() {
+        Board board = new Board();
+        board.setName("Paging");
+        board = boardRepository.save(board);
+
+        BoardColumn column = new BoardColumn();
+        column.setName("To Do");
+        column.setBoard(board);
+        column = columnRepository.save(column);
+
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Project project = new Project();
+            project.setName("Project " + i);
+            project.setBoard(board);
+            project.setBoardColumn(column);
+            projects.add(project);
+        }
+        projectRepository.saveAll(projects);
+    }
+
+    @Test
+    void cursorPagesThroughTheWholeTable() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "0";
+        int pages = 0;
+        while (cursor != null) {
+            // Asks for more than the cap on purpose
+            MockHttpServletResponse response = mockMvc.perform(get("/api/projects")
+                    .param("afterId", cursor)
+                    .param("limit", String.valueOf(KeysetPager.MAX_LIMIT * 4)))
+                .andReturn().getResponse();
+            assertEquals(200, response.getStatus());
+            JsonNode page = objectMapper.readTree(response.getContentAsString());
+            assertTrue(page.size() <= KeysetPager.MAX_LIMIT, "page of " + page.size() + " rows");
+            page.forEach(project -> ids.add(project.get("id").asLong()));
+
+            cursor = response.getHeader(KeysetPager.NEXT_CURSOR_HEADER);
+            if (cursor != null) {
+                assertEquals(KeysetPager.MAX_LIMIT, page.size(), "only a full page has a cursor");
+                assertEquals(ids.get(ids.size() - 1), Long.valueOf(cursor));
+            }
+            assertTrue(++pages <= ROWS, "the cursor never ran out");
+        }
+
+        assertEquals(projectRepository.count(), ids.size());
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "pages overlap");
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i), "pages are ordered by id");
+        }
+    }
+
+    @Test
+    void limitDefaultsWhenMissingOrInvalid() throws Exception {
+        for (String limit : new String[] {null, "0", "-5"}) {
+            var call = get("/api/projects");
+            if (limit != null) {
+                call.param("limit", limit);
+            }
+            MockHttpServletResponse response = mockMvc.perform(call).andReturn().getResponse();
+            assertEquals(KeysetPager.DEFAULT_LIMIT, objectMapper.readTree(response.getContentAsString()).size());
+            assertNotNull(response.getHeader(KeysetPager.NEXT_CURSOR_HEADER));
+        }
+    }
+
+    @Test
+    void exportHasOneLinePerRow() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/projects").accept(KeysetPager.NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentType().startsWith(KeysetPager.NDJSON));
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(projectRepository.count(), lines.length);
+        Set<Long> ids = new HashSet<>();
+        for (String line : lines) {
+            ids.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertEquals(lines.length, ids.size(), "each row is exported once");
+    }
+}
@@ -0,0 +1,119 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.controller.WebSocketController;
+import com.agnel.devcollab.dto.ChatMessage;
+import com.agnel.devcollab.dto.MentionNotification;
+import com.agnel.devcollab.entity.*;
+import com.agnel.devcollab.repository.*;
+import com.agnel.devcollab.service.NotificationInbox;
+import com.agnel.devcollab.service.UserHandleIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mentions resolve to one account and land in that account's bounded inbox only,
+ * and only for accounts that can see the board the message was posted on.
+ */
+@SpringBootTest
+class MentionNotificationTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserHandleIndex userHandleIndex;
+
+    @Autowired
+    private NotificationInbox notificationInbox;
+
+    @Autowired
+    private WebSocketController webSocketController;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Test
+    void handlesResolveToAccountsAndInboxIsBounded() {
+        User user = new User();
+        user.setName("Dana Scully");
+        user.setEmail("dana.s@example.com");
+        user.setPassword("secret");
+        userRepository.save(user);
+        userHandleIndex.invalidate();
+
+        assertEquals(Optional.of("dana.s@example.com"), userHandleIndex.resolve("Dana.S"));
+        assertEquals(Optional.of("dana.s@example.com"), userHandleIndex.resolve("danascully"));
+        assertTrue(userHandleIndex.resolve("mulder").isEmpty());
+
+        for (int i = 0; i < 105; i++) {
+            notificationInbox.deliver("dana.s@example.com",
+                new MentionNotification(1L, "Fox", "#00f", "@dana.s look #" + i, LocalDateTime.now()));
+        }
+        List<MentionNotification> inbox = notificationInbox.after("dana.s@example.com", 0, 500);
+        assertEquals(100, inbox.size(), "oldest mentions are dropped past the bound");
+        assertEquals("@dana.s look #5", inbox.get(0).getMessage());
+
+        // Paging on from the last id seen returns only newer mentions
+        long seen = inbox.get(97).getId();
+        assertEquals(2, notificationInbox.after("dana.s@example.com", seen, 500).size());
+        assertTrue(notificationInbox.after("someone.else@example.com", 0, 500).isEmpty());
+    }
+
+    @Test
+    void mentionsOfOutsidersAreNotDelivered() {
+        User owner = user("Walter Skinner", "skinner@example.com");
+        User outsider = user("Alex Krycek", "krycek@example.com");
+
+        Board board = boardRepository.save(new Board("Private board", owner));
+        BoardColumn column = new BoardColumn();
+        column.setName("To Do");
+        column.setBoard(board);
+        column = columnRepository.save(column);
+        Project project = new Project();
+        project.setName("Private project");
+        project.setOwner(owner);
+        project.setBoard(board);
+        project.setBoardColumn(column);
+        project = projectRepository.save(project);
+
+        User member = user("John Doggett", "doggett@example.com");
+        Project shared = new Project();
+        shared.setName("Shared project");
+        shared.setOwner(member);
+        shared.setBoard(board);
+        shared.setBoardColumn(column);
+        projectRepository.save(shared);
+        userHandleIndex.invalidate();
+
+        ChatMessage chat = new ChatMessage();
+        chat.setUserName("Walter");
+        chat.setMessage("@krycek @doggett the file is on the board");
+        webSocketController.handleChat(project.getId(), chat,
+            new UsernamePasswordAuthenticationToken(owner.getEmail(), null, List.of()));
+
+        assertTrue(notificationInbox.after(outsider.getEmail(), 0, 10).isEmpty(), "outsiders must not see the message");
+        assertEquals(1, notificationInbox.after(member.getEmail(), 0, 10).size());
+    }
+
+    private User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+}
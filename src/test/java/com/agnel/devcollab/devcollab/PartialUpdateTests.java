@@ -0,0 +1,87 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.service.TimerStateService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Edits write only the columns they change, and a duration change is one UPDATE
+ * without a load, so neither rewrites a running timer's columns.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.agnel.devcollab.devcollab.SqlCapture",
+    "devcollab.outbox.dispatch=false",
+    "spring.datasource.url=jdbc:h2:mem:partial-update-test"
+})
+@AutoConfigureMockMvc
+class PartialUpdateTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Test
+    @WithMockUser
+    void editsLeaveTimerColumnsAlone() throws Exception {
+        Board board = new Board();
+        board.setName("Partial");
+        board = boardRepository.save(board);
+        Project project = new Project();
+        project.setName("Focus");
+        project.setBoard(board);
+        project.setBoardColumn(board.getColumns().get(0));
+        project = projectRepository.save(project);
+        long id = project.getId();
+        assertTrue(timerStateService.start(TimerStateService.Kind.PROJECT, id));
+
+        SqlCapture.SQL.clear();
+        mockMvc.perform(patch("/api/projects/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Renamed\"}"))
+            .andExpect(status().isOk());
+        String rename = SqlCapture.SQL.stream().filter(sql -> sql.startsWith("update project")).findFirst().orElseThrow();
+        assertTrue(rename.contains("name="), rename);
+        assertFalse(rename.contains("pomodoro_start") || rename.contains("total_seconds_spent")
+            || rename.contains("description"), rename);
+
+        SqlCapture.SQL.clear();
+        mockMvc.perform(post("/projects/" + id + "/pomodoro/duration").param("duration", "50").with(csrf()))
+            .andExpect(status().is3xxRedirection());
+        List<String> durationUpdates = SqlCapture.SQL.stream().filter(sql -> sql.startsWith("update project")).toList();
+        assertEquals(1, durationUpdates.size());
+        assertFalse(durationUpdates.get(0).contains("pomodoro_start"), durationUpdates.get(0));
+        assertFalse(SqlCapture.SQL.stream().anyMatch(sql -> sql.startsWith("select") && sql.contains("p1_0.name")),
+            "the project is not loaded");
+
+        Project current = projectRepository.findById(id).orElseThrow();
+        assertEquals("Renamed", current.getName());
+        assertEquals(50, current.getPomodoroDuration());
+        assertEquals(10, current.getBreakDuration());
+        assertNotNull(current.getPomodoroStart(), "the timer is still running");
+    }
+}
@@ -0,0 +1,82 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.dto.UserPresence;
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.User;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.UserRepository;
+import com.agnel.devcollab.service.PresenceRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The roster holds one entry per user however many sessions they have open, and a
+ * user drops off once their last session leaves, disconnects or goes silent. The REST
+ * roster is only shown to users who can see the board.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PresenceRegistryTests {
+
+    private static final long BOARD = 9001L;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Test
+    void rosterFollowsSessionLifecycle() {
+        presenceRegistry.join(BOARD, "s1", new UserPresence("alice", "Alice", "#f00", true));
+        presenceRegistry.join(BOARD, "s2", new UserPresence("alice", "Alice", "#f00", true));
+        presenceRegistry.join(BOARD, "s3", new UserPresence("bob", "Bob", "#00f", true));
+        assertEquals(List.of("alice", "bob"), userIds());
+
+        // Alice still has a second tab open
+        presenceRegistry.disconnect("s1");
+        assertEquals(List.of("alice", "bob"), userIds());
+
+        presenceRegistry.leave(BOARD, "s2");
+        assertEquals(List.of("bob"), userIds());
+
+        presenceRegistry.disconnect("s3");
+        assertTrue(presenceRegistry.snapshot(BOARD).isEmpty());
+    }
+
+    @Test
+    void rosterIsOnlyServedToBoardMembers() throws Exception {
+        User owner = new User();
+        owner.setName("Roster Owner");
+        owner.setEmail("roster-owner@example.com");
+        owner.setPassword("secret");
+        owner = userRepository.save(owner);
+        long boardId = boardRepository.save(new Board("Private roster", owner)).getId();
+
+        String url = "/api/boards/" + boardId + "/presence";
+        assertEquals(401, mockMvc.perform(get(url)).andReturn().getResponse().getStatus());
+        assertEquals(404, mockMvc.perform(get(url).with(user("roster-stranger@example.com")))
+            .andReturn().getResponse().getStatus());
+        assertEquals(200, mockMvc.perform(get(url).with(user(owner.getEmail())))
+            .andReturn().getResponse().getStatus());
+    }
+
+    private List<String> userIds() {
+        return presenceRegistry.snapshot(BOARD).stream().map(UserPresence::getUserId).sorted().toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ColumnRepository;
+import com.agnel.devcollab.repository.DailyFocusRollupRepository;
+import com.agnel.devcollab.repository.PomodoroLogRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.repository.SubtaskRepository;
+import com.agnel.devcollab.repository.TaskRepository;
+import com.agnel.devcollab.repository.TimeEntryRepository;
+import com.agnel.devcollab.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs each registered repository finder, captures the SQL Hibernate generates for it
+ * and fails if H2's EXPLAIN of that statement falls back to a full table scan.
+ */
+@DataJpaTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.agnel.devcollab.devcollab.SqlCapture")
+class RepositoryIndexTests {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(7);
+
+    @Autowired private EntityManager entityManager;
+    @Autowired private TimeEntryRepository timeEntryRepository;
+    @Autowired private PomodoroLogRepository pomodoroLogRepository;
+    @Autowired private ProjectRepository projectRepository;
+    @Autowired private BoardRepository boardRepository;
+    @Autowired private ColumnRepository columnRepository;
+    @Autowired private TaskRepository taskRepository;
+    @Autowired private SubtaskRepository subtaskRepository;
+    @Autowired private DailyFocusRollupRepository dailyFocusRollupRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void registeredFindersUseAnIndex() {
+        // Finder name -> a call to it; the tables are empty, so the finder's own select is the only statement
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("TimeEntryRepository.findByUserIdAndStartBetween", () -> timeEntryRepository.findByUserIdAndStartBetween(1L, FROM, TO));
+        finders.put("TimeEntryRepository.findByUserId", () -> timeEntryRepository.findByUserId(1L));
+        finders.put("TimeEntryRepository.findByProjectId", () -> timeEntryRepository.findByProjectId(1L));
+        finders.put("TimeEntryRepository.findByTaskId", () -> timeEntryRepository.findByTaskId(1L));
+        finders.put("TimeEntryRepository.findBySubtaskId", () -> timeEntryRepository.findBySubtaskId(1L));
+        finders.put("PomodoroLogRepository.findByUserIdAndDateRange", () -> pomodoroLogRepository.findByUserIdAndDateRange(1L, FROM, TO));
+        finders.put("PomodoroLogRepository.findByUserIdAndCompleted", () -> pomodoroLogRepository.findByUserIdAndCompleted(1L, true));
+        finders.put("PomodoroLogRepository.findByCompletedFalseAndStartTimeAfter", () -> pomodoroLogRepository.findByCompletedFalseAndStartTimeAfter(FROM));
+        finders.put("PomodoroLogRepository.findBySubtaskId", () -> pomodoroLogRepository.findBySubtaskId(1L));
+        finders.put("ProjectRepository.findByOwnerIdOrderByCreatedAtDesc", () -> projectRepository.findByOwnerIdOrderByCreatedAtDesc(1L));
+        finders.put("ProjectRepository.findByBoardId", () -> projectRepository.findByBoardId(1L));
+        finders.put("ProjectRepository.findByBoardColumnId", () -> projectRepository.findByBoardColumnId(1L));
+        finders.put("ProjectRepository.findByStatusAndIdGreaterThanOrderByIdAsc",
+            () -> projectRepository.findByStatusAndIdGreaterThanOrderByIdAsc(Project.Status.TODO, 0L, Limit.of(101)));
+        finders.put("ProjectRepository.findByOwnerIdAndStatusAndIdGreaterThanOrderByIdAsc",
+            () -> projectRepository.findByOwnerIdAndStatusAndIdGreaterThanOrderByIdAsc(1L, Project.Status.TODO, 0L, Limit.of(101)));
+        finders.put("BoardRepository.findByOwnerIdOrderByCreatedAtDesc", () -> boardRepository.findByOwnerIdOrderByCreatedAtDesc(1L));
+        finders.put("ColumnRepository.findByBoardIdOrderByPosition", () -> columnRepository.findByBoardIdOrderByPosition(1L));
+        finders.put("TaskRepository.findByProjectIdOrderByIdAsc", () -> taskRepository.findByProjectIdOrderByIdAsc(1L));
+        finders.put("SubtaskRepository.findByTaskIdOrderByIdAsc", () -> subtaskRepository.findByTaskIdOrderByIdAsc(1L));
+        finders.put("DailyFocusRollupRepository.findByUserIdAndDayBetweenOrderByDayAsc",
+            () -> dailyFocusRollupRepository.findByUserIdAndDayBetweenOrderByDayAsc(1L, FROM.toLocalDate(), TO.toLocalDate()));
+        finders.put("UserRepository.findByEmail", () -> userRepository.findByEmail("test@example.com"));
+
+        List<String> scans = new ArrayList<>();
+        finders.forEach((finder, call) -> {
+            SqlCapture.SQL.clear();
+            call.run();
+            assertFalse(SqlCapture.SQL.isEmpty(), finder + " ran no SQL");
+            String sql = SqlCapture.SQL.get(0);
+            String plan = explain(sql);
+            if (plan.contains("tableScan")) {
+                scans.add(finder + ":\n" + sql + "\n" + plan);
+            }
+        });
+        assertTrue(scans.isEmpty(), "Finders falling back to a table scan:\n" + String.join("\n\n", scans));
+    }
+
+    // The generated statement still has its ? placeholders; H2 plans it without values
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        });
+    }
+}
@@ -0,0 +1,170 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.entity.*;
+import com.agnel.devcollab.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read endpoints of the board, task and subtask controllers must return flat DTOs
+ * with a query count that does not grow with the number of rows. A board snapshot
+ * is tagged with the board's event sequence and answers a matching If-None-Match
+ * with an empty 304 without loading the board.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RestProjectionTests {
+
+    private static final int ROWS = 20;
+    // Generous upper bound per serialized row; entity graphs were several KB each
+    private static final int MAX_BYTES_PER_ROW = 600;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    private Statistics statistics;
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < ROWS; i++) {
+            Board board = new Board();
+            board.setName("Board " + i);
+            board = boardRepository.save(board);
+
+            BoardColumn column = new BoardColumn();
+            column.setName("To Do");
+            column.setBoard(board);
+            column = columnRepository.save(column);
+
+            Project project = new Project();
+            project.setName("Project " + i);
+            project.setBoard(board);
+            project.setBoardColumn(column);
+            project = projectRepository.save(project);
+            projectId = project.getId();
+
+            Task task = new Task();
+            task.setName("Task " + i);
+            task.setProject(project);
+            task = taskRepository.save(task);
+            taskId = task.getId();
+
+            Subtask subtask = new Subtask();
+            subtask.setName("Subtask " + i);
+            subtask.setTask(task);
+            subtaskRepository.save(subtask);
+        }
+    }
+
+    @Test
+    void boardsAreLoadedWithTwoSelects() throws Exception {
+        assertBounded("/api/boards", 2, boardRepository.count());
+    }
+
+    @Test
+    void tasksAreLoadedWithOneSelect() throws Exception {
+        assertBounded("/api/tasks", 1, taskRepository.count());
+        assertBounded("/api/tasks/project/" + projectId, 1, 1);
+    }
+
+    @Test
+    void subtasksAreLoadedWithOneSelect() throws Exception {
+        assertBounded("/api/subtasks", 1, subtaskRepository.count());
+        assertBounded("/api/subtasks/task/" + taskId, 1, 1);
+    }
+
+    @Test
+    void snapshotIsCachedByETag() throws Exception {
+        Project project = projectRepository.findById(projectId).orElseThrow();
+        String url = "/api/boards/" + project.getBoard().getId() + "/snapshot";
+
+        statistics.clear();
+        MockHttpServletResponse first = mockMvc.perform(get(url)).andReturn().getResponse();
+        assertEquals(200, first.getStatus());
+        // Event sequence, board with owner, then columns, projects, tasks and subtasks
+        assertEquals(6, statistics.getPrepareStatementCount(), url + " query count");
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        // Only the event sequence is read before answering 304
+        statistics.clear();
+        MockHttpServletResponse unchanged = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andReturn().getResponse();
+        assertEquals(304, unchanged.getStatus());
+        assertEquals(0, unchanged.getContentAsByteArray().length);
+        assertEquals(1, statistics.getPrepareStatementCount(), url + " query count when unchanged");
+
+        // A task edit sends a board event
+        mockMvc.perform(patch("/api/tasks/" + taskId).contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Renamed\"}"))
+            .andExpect(status().isOk());
+        String renamed = assertChanged(url, etag);
+
+        // A board edit sends none, but still touches the board
+        mockMvc.perform(patch("/api/boards/" + project.getBoard().getId())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"color\":\"#123456\"}"))
+            .andExpect(status().isOk());
+        assertChanged(url, renamed);
+
+        assertEquals(404, mockMvc.perform(get("/api/boards/0/snapshot")).andReturn().getResponse().getStatus());
+    }
+
+    private String assertChanged(String url, String etag) throws Exception {
+        MockHttpServletResponse changed = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andReturn().getResponse();
+        assertEquals(200, changed.getStatus());
+        assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+        return changed.getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertBounded(String url, long maxQueries, long rows) throws Exception {
+        statistics.clear();
+        MockHttpServletResponse response = mockMvc.perform(get(url)).andReturn().getResponse();
+
+        assertEquals(200, response.getStatus(), url);
+        long queries = statistics.getPrepareStatementCount();
+        int bytes = response.getContentAsByteArray().length;
+        assertTrue(queries <= maxQueries, url + " ran " + queries + " queries");
+        assertTrue(bytes <= rows * MAX_BYTES_PER_ROW, url + " returned " + bytes + " bytes");
+    }
+}
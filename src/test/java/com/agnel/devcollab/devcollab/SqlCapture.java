@@ -0,0 +1,22 @@
+package com.agnel.devcollab.devcollab;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Statement inspector for tests that assert on generated SQL: records every statement
+ * Hibernate prepares, lower-cased. Register it with
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class SqlCapture implements StatementInspector {
+
+    static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        SQL.add(sql.toLowerCase());
+        return sql;
+    }
+}
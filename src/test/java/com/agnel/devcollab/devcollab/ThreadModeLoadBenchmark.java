@@ -0,0 +1,118 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.DevcollabApplication;
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of GET /api/projects/{id} (one JDBC lookup per request) with 5,000
+ * concurrent clients, on platform threads and then with the virtual profile. Each client
+ * is a virtual thread sending requests back to back on a shared HTTP/1.1 client. Not run by
+ * the build; start main() from the IDE, or after mvn test-compile:
+ *
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *       com.agnel.devcollab.devcollab.ThreadModeLoadBenchmark [clients] [seconds]
+ *
+ * Prints requests per second, error count and latency percentiles per mode.
+ */
+public class ThreadModeLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        for (String mode : List.of("platform", "virtual")) {
+            run(mode, clients, seconds);
+        }
+    }
+
+    private static void run(String mode, int clients, int seconds) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--spring.datasource.url=jdbc:h2:mem:load-" + mode,
+            "--logging.level.root=WARN"));
+        if (mode.equals("virtual")) {
+            arguments.add("--spring.profiles.active=virtual");
+        }
+        // Arguments rather than builder properties, which application.properties would override
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(DevcollabApplication.class)
+                .run(arguments.toArray(String[]::new))) {
+            Board board = new Board();
+            board.setName("Load");
+            board = app.getBean(BoardRepository.class).save(board);
+            Project project = new Project();
+            project.setName("Load project");
+            project.setBoard(board);
+            project.setBoardColumn(board.getColumns().get(0));
+            project = app.getBean(ProjectRepository.class).save(project);
+            URI uri = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port")
+                + "/api/projects/" + project.getId());
+
+            AtomicLong ok = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+            ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+            CountDownLatch ready = new CountDownLatch(clients);
+            CountDownLatch go = new CountDownLatch(1);
+            AtomicLong started = new AtomicLong();
+            AtomicLong deadline = new AtomicLong();
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+            // HTTP/1.1: the client opens a connection per request in flight, so one per simulated user
+            try (HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+                 ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    executor.submit(() -> {
+                        ready.countDown();
+                        go.await();
+                        while (System.nanoTime() - deadline.get() < 0) {
+                            long sent = System.nanoTime();
+                            try {
+                                int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                (status == 200 ? ok : failed).incrementAndGet();
+                            } catch (IOException e) {
+                                failed.incrementAndGet();
+                            }
+                            latencies.add(System.nanoTime() - sent);
+                        }
+                        return null;
+                    });
+                }
+                ready.await();
+                started.set(System.nanoTime());
+                deadline.set(started.get() + Duration.ofSeconds(seconds).toNanos());
+                go.countDown();
+                executor.close();
+            }
+            double elapsed = (System.nanoTime() - started.get()) / 1e9;
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-8s %,d clients: %,.0f req/s, %,d ok, %,d failed, p50 %d ms, p99 %d ms%n",
+                mode, clients, ok.get() / elapsed, ok.get(), failed.get(),
+                percentile(sorted, 0.50), percentile(sorted, 0.99));
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * p)] / 1_000_000;
+    }
+}
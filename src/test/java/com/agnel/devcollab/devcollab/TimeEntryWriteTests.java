@@ -0,0 +1,117 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.controller.TimeEntryController;
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.entity.User;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.repository.TimeEntryRepository;
+import com.agnel.devcollab.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Creating a time entry links its rows by reference: one query checks the ids, one
+ * INSERT writes the entry. A batch inserts hundreds of entries in JDBC batches.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "devcollab.outbox.dispatch=false",
+    "spring.datasource.url=jdbc:h2:mem:time-entry-write-test"
+})
+@AutoConfigureMockMvc
+class TimeEntryWriteTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void writesLinkByReference() throws Exception {
+        User user = new User();
+        user.setName("Writer");
+        user.setEmail("writer@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+        Board board = new Board();
+        board.setName("Entries");
+        board = boardRepository.save(board);
+        Project project = new Project();
+        project.setName("Tracked");
+        project.setBoard(board);
+        project.setBoardColumn(board.getColumns().get(0));
+        project = projectRepository.save(project);
+        String links = "\"userId\":" + user.getId() + ",\"projectId\":" + project.getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // The pooled sequence is read on the first two inserts, then once per 50 ids
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/timer/start").contentType(MediaType.APPLICATION_JSON).content("{" + links + "}"));
+        }
+        statistics.clear();
+        JsonNode started = objectMapper.readTree(mockMvc.perform(post("/api/timer/start")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{" + links + ",\"subtaskId\":999999,\"description\":\"Focus\"}"))
+            .andReturn().getResponse().getContentAsString());
+        assertEquals(2, statistics.getPrepareStatementCount(), "one id check and one INSERT");
+        assertEquals(project.getId(), started.get("projectId").asLong());
+        assertEquals(user.getId(), started.get("userId").asLong());
+        assertTrue(started.get("subtaskId").isNull(), "an unknown id leaves the link empty");
+
+        StringBuilder batch = new StringBuilder("[");
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 9, 0);
+        for (int i = 0; i < 200; i++) {
+            batch.append(i > 0 ? "," : "").append("{").append(links)
+                .append(",\"start\":\"").append(start.plusMinutes(i * 30L))
+                .append("\",\"end\":\"").append(start.plusMinutes(i * 30L + 25)).append("\"}");
+        }
+        batch.append("]");
+        long before = timeEntryRepository.count();
+        statistics.clear();
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/api/time-entries/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(batch.toString()))
+            .andReturn().getResponse().getContentAsString());
+        assertEquals(200, created.size());
+        assertEquals(before + 200, timeEntryRepository.count());
+        // Batches of 50, a few sequence calls and one rollup row per day: far from 200 statements
+        assertTrue(statistics.getPrepareStatementCount() < 40, statistics.getPrepareStatementCount() + " statements");
+
+        String oversized = "[" + String.join(",", Collections.nCopies(TimeEntryController.MAX_BATCH + 1, "{}")) + "]";
+        mockMvc.perform(post("/api/time-entries/batch").contentType(MediaType.APPLICATION_JSON).content(oversized))
+            .andExpect(status().isBadRequest());
+    }
+}
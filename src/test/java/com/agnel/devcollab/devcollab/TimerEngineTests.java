@@ -0,0 +1,176 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.entity.*;
+import com.agnel.devcollab.repository.*;
+import com.agnel.devcollab.service.ActivePomodoroRegistry;
+import com.agnel.devcollab.service.DailyFocusRollupService;
+import com.agnel.devcollab.service.PomodoroService;
+import com.agnel.devcollab.service.TimerEngine;
+import com.agnel.devcollab.service.TimerStateService.Kind;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Timers started in the past must be completed by the engine on its own,
+ * including the work -> break -> idle transitions a restart has to catch up on.
+ * Completing a subtask closes the session running on it, which the client can then
+ * no longer complete a second time.
+ */
+@SpringBootTest
+class TimerEngineTests {
+
+    @Autowired
+    private TimerEngine timerEngine;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PomodoroLogRepository pomodoroLogRepository;
+
+    @Autowired
+    private PomodoroService pomodoroService;
+
+    @Autowired
+    private ActivePomodoroRegistry activePomodoroRegistry;
+
+    @Autowired
+    private DailyFocusRollupService dailyFocusRollupService;
+
+    @Test
+    void overdueWorkSessionStartsBreak() {
+        LocalDateTime start = LocalDateTime.now().minusMinutes(25).minusSeconds(1);
+        Project project = projectStartedAt(start);
+        timerEngine.reschedule(Kind.PROJECT, project.getId());
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> reload(project).isBreak());
+        Project completed = reload(project);
+        assertEquals(1, completed.getCompletedPomodoros());
+        assertEquals(25 * 60L, completed.getTotalSecondsSpent());
+        assertEquals(start.plusMinutes(25).withNano(0), completed.getPomodoroStart().withNano(0));
+        assertTrue(timerEngine.isScheduled(Kind.PROJECT, project.getId()));
+    }
+
+    @Test
+    void overdueBreakIsCaughtUp() {
+        Project project = projectStartedAt(LocalDateTime.now().minusMinutes(31));
+        timerEngine.reschedule(Kind.PROJECT, project.getId());
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> reload(project).getPomodoroStart() == null);
+        Project idle = reload(project);
+        assertFalse(idle.isBreak());
+        assertEquals(1, idle.getCompletedPomodoros());
+        assertFalse(timerEngine.isScheduled(Kind.PROJECT, project.getId()));
+    }
+
+    @Test
+    void overdueSubtaskStopsAndCreditsProject() {
+        Project project = projectStartedAt(null);
+        Subtask subtask = subtaskOf(project);
+        subtask.setPomodoroStart(LocalDateTime.now().minusMinutes(26));
+        Subtask saved = subtaskRepository.save(subtask);
+        timerEngine.reschedule(Kind.SUBTASK, saved.getId());
+
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> subtaskRepository.findById(saved.getId()).orElseThrow().getPomodoroStart() == null);
+        assertEquals(25 * 60L, subtaskRepository.findById(saved.getId()).orElseThrow().getTotalSecondsSpent());
+        assertEquals(25 * 60L, reload(project).getTotalSecondsSpent());
+    }
+
+    @Test
+    void engineCompletionIsCountedOnce() {
+        Project project = projectStartedAt(null);
+        Subtask subtask = subtaskOf(project);
+        User user = new User();
+        user.setName("Counter");
+        user.setEmail("counter@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+        PomodoroLog log = pomodoroService.startPomodoroOnSubtask(subtask, user);
+
+        // Backdate the running session so the engine completes it straight away
+        Subtask running = subtaskRepository.findById(subtask.getId()).orElseThrow();
+        running.setPomodoroStart(LocalDateTime.now().minusMinutes(26));
+        subtaskRepository.save(running);
+        timerEngine.reschedule(Kind.SUBTASK, subtask.getId());
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> subtaskRepository.findById(subtask.getId()).orElseThrow().getPomodoroStart() == null);
+
+        // The engine closed the session too: the user is free and the rollup has the cycle
+        assertTrue(pomodoroLogRepository.findById(log.getId()).orElseThrow().isCompleted());
+        assertTrue(activePomodoroRegistry.findByUser(user.getId()).isEmpty());
+        LocalDate today = LocalDate.now();
+        assertEquals(1, dailyFocusRollupService.findForUser(user.getId(), today, today).stream()
+            .mapToLong(DailyFocusRollup::getCompletedCycles).sum());
+        assertThrows(IllegalStateException.class, () -> pomodoroService.completeCycle(log.getId(), 0, ""));
+
+        Subtask completed = subtaskRepository.findById(subtask.getId()).orElseThrow();
+        assertEquals(1, completed.getCompletedPomodoros());
+        assertEquals(25 * 60L, completed.getTotalSecondsSpent());
+        assertEquals(25 * 60L, reload(project).getTotalSecondsSpent());
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() {
+        Project project = projectStartedAt(LocalDateTime.now().minusMinutes(25).plusSeconds(1));
+        timerEngine.reschedule(Kind.PROJECT, project.getId());
+        timerEngine.cancel(Kind.PROJECT, project.getId());
+
+        await().pollDelay(Duration.ofSeconds(2)).atMost(Duration.ofSeconds(3)).until(() -> true);
+        assertFalse(reload(project).isBreak());
+        assertEquals(0, reload(project).getCompletedPomodoros());
+    }
+
+    private Project projectStartedAt(LocalDateTime start) {
+        Board board = boardRepository.save(new Board());
+        BoardColumn column = new BoardColumn();
+        column.setName("To Do");
+        column.setBoard(board);
+        column = columnRepository.save(column);
+
+        Project project = new Project();
+        project.setName("Timer project");
+        project.setBoard(board);
+        project.setBoardColumn(column);
+        project.setPomodoroStart(start);
+        return projectRepository.save(project);
+    }
+
+    private Subtask subtaskOf(Project project) {
+        Task task = new Task();
+        task.setName("Task");
+        task.setProject(project);
+        task = taskRepository.save(task);
+        Subtask subtask = new Subtask();
+        subtask.setName("Subtask");
+        subtask.setTask(task);
+        return subtaskRepository.save(subtask);
+    }
+
+    private Project reload(Project project) {
+        return projectRepository.findById(project.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,108 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.entity.*;
+import com.agnel.devcollab.repository.*;
+import com.agnel.devcollab.service.TimerEngine;
+import com.agnel.devcollab.service.TimerStateService;
+import com.agnel.devcollab.service.TimerStateService.Kind;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Timer transitions are guarded single-row updates: they only apply from the states
+ * they are defined for and keep the engine's schedule in step.
+ */
+@SpringBootTest
+class TimerStateServiceTests {
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private TimerEngine timerEngine;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Test
+    void pauseResumeAndStopRecordWorkTime() {
+        Project project = project(LocalDateTime.now().minusSeconds(90));
+
+        assertFalse(timerStateService.start(Kind.PROJECT, project.getId()), "work session already running");
+        assertTrue(timerStateService.pause(Kind.PROJECT, project.getId()));
+        assertFalse(timerEngine.isScheduled(Kind.PROJECT, project.getId()));
+        Project paused = reload(project);
+        assertNull(paused.getPomodoroStart());
+        assertTrue(paused.getPausedElapsedSeconds() >= 90);
+
+        // Resuming backdates the start by the banked seconds
+        assertTrue(timerStateService.start(Kind.PROJECT, project.getId()));
+        assertTrue(timerEngine.isScheduled(Kind.PROJECT, project.getId()));
+        Project resumed = reload(project);
+        assertEquals(0, resumed.getPausedElapsedSeconds());
+        assertTrue(resumed.getPomodoroStart().isBefore(LocalDateTime.now().minusSeconds(89)));
+
+        assertTrue(timerStateService.stop(Kind.PROJECT, project.getId()));
+        assertFalse(timerStateService.stop(Kind.PROJECT, project.getId()), "nothing left to stop");
+        Project stopped = reload(project);
+        assertNull(stopped.getPomodoroStart());
+        assertTrue(stopped.getTotalSecondsSpent() >= 90);
+        assertEquals(0, stopped.getCompletedPomodoros());
+        assertFalse(timerEngine.isScheduled(Kind.PROJECT, project.getId()));
+    }
+
+    @Test
+    void stoppingSubtaskCreditsProject() {
+        Project project = project(null);
+        Task task = new Task();
+        task.setName("Task");
+        task.setProject(project);
+        task = taskRepository.save(task);
+        Subtask subtask = new Subtask();
+        subtask.setName("Subtask");
+        subtask.setTask(task);
+        subtask.setPomodoroStart(LocalDateTime.now().minusSeconds(60));
+        subtask = subtaskRepository.save(subtask);
+
+        assertTrue(timerStateService.stop(Kind.SUBTASK, subtask.getId()));
+        long subtaskSeconds = subtaskRepository.findById(subtask.getId()).orElseThrow().getTotalSecondsSpent();
+        assertTrue(subtaskSeconds >= 60);
+        assertEquals(subtaskSeconds, reload(project).getTotalSecondsSpent());
+    }
+
+    private Project project(LocalDateTime start) {
+        Board board = boardRepository.save(new Board());
+        BoardColumn column = new BoardColumn();
+        column.setName("To Do");
+        column.setBoard(board);
+        column = columnRepository.save(column);
+
+        Project project = new Project();
+        project.setName("Timer project");
+        project.setBoard(board);
+        project.setBoardColumn(column);
+        project.setPomodoroStart(start);
+        return projectRepository.save(project);
+    }
+
+    private Project reload(Project project) {
+        return projectRepository.findById(project.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,194 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.config.BoardTopics;
+import com.agnel.devcollab.dto.UserPresence;
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.ClusterEventRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.service.DomainEventBus;
+import com.agnel.devcollab.service.JdbcDomainEventBus;
+import com.agnel.devcollab.service.PresenceRegistry;
+import com.agnel.devcollab.service.TimerStateService;
+import com.agnel.devcollab.service.TimerSyncPublisher;
+import com.agnel.devcollab.ws.CompactFrameCodec;
+import com.agnel.devcollab.ws.ServerClock;
+import com.agnel.devcollab.ws.TimerSyncMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Timer transitions reach the board's timers topic stamped with server time and the
+ * time left, and boards with viewers get clock beacons. The beacon tick is pushed out
+ * so the test sends one itself. With the jdbc transport a committed transition is
+ * still written to the shared table.
+ */
+@SpringBootTest(properties = {
+    "devcollab.timer-sync.beacon-interval-ms=3600000",
+    "spring.datasource.url=jdbc:h2:mem:timer-sync-test"
+})
+class TimerSyncTests {
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TimerStateService timerStateService;
+
+    @Autowired
+    private TimerSyncPublisher timerSyncPublisher;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    @Test
+    void transitionsAndBeaconsCarryServerTime() throws Exception {
+        Board board = new Board();
+        board.setName("Timers");
+        board = boardRepository.save(board);
+        Project project = new Project();
+        project.setName("Focus");
+        project.setBoard(board);
+        project.setBoardColumn(board.getColumns().get(0));
+        project = projectRepository.save(project);
+        long boardId = board.getId();
+        long projectId = project.getId();
+
+        List<TimerSyncMessage> sent = new CopyOnWriteArrayList<>();
+        ChannelInterceptor capture = new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (BoardTopics.timers(boardId).equals(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))) {
+                    try {
+                        sent.add(objectMapper.readValue((byte[]) message.getPayload(), TimerSyncMessage.class));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return message;
+            }
+        };
+        brokerChannel.addInterceptor(capture);
+        try {
+            long before = ServerClock.millis();
+            assertTrue(timerStateService.start(TimerStateService.Kind.PROJECT, projectId));
+            long after = ServerClock.millis();
+            assertTrue(timerStateService.stop(TimerStateService.Kind.PROJECT, projectId));
+
+            assertEquals(2, sent.size());
+            TimerSyncMessage started = sent.get(0);
+            assertEquals(TimerSyncMessage.Action.START, started.getAction());
+            assertEquals(projectId, started.getProjectId());
+            assertEquals(Boolean.FALSE, started.getIsBreak());
+            assertEquals(1500L, started.getTargetSeconds());
+            assertTrue(started.getServerTime() >= before && started.getServerTime() <= after);
+            assertTrue(started.getRemainingMillis() > 1_490_000 && started.getRemainingMillis() <= 1_500_000);
+
+            TimerSyncMessage stopped = sent.get(1);
+            assertEquals(TimerSyncMessage.Action.STOP, stopped.getAction());
+            assertNull(stopped.getRemainingMillis());
+
+            // Only boards someone is looking at get a beacon
+            presenceRegistry.join(boardId, "timer-sync-session", new UserPresence("ann", "Ann", "#e74c3c", true));
+            assertTrue(timerSyncPublisher.beacon() >= 1);
+            TimerSyncMessage clock = sent.get(2);
+            assertEquals(TimerSyncMessage.Action.CLOCK, clock.getAction());
+            assertTrue(clock.getServerTime() >= after);
+            presenceRegistry.disconnect("timer-sync-session");
+
+            // The compact encoding keeps the sync fields
+            CompactFrameCodec.Dictionary dictionary = new CompactFrameCodec.Dictionary();
+            TimerSyncMessage decoded = (TimerSyncMessage) CompactFrameCodec.decode(
+                CompactFrameCodec.encode(started, dictionary), new CompactFrameCodec.Dictionary());
+            assertEquals(started.getServerTime(), decoded.getServerTime());
+            assertEquals(started.getRemainingMillis(), decoded.getRemainingMillis());
+            assertEquals(projectId, decoded.getProjectId());
+        } finally {
+            brokerChannel.removeInterceptor(capture);
+        }
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(properties = {
+        "devcollab.events.transport=jdbc",
+        "devcollab.events.poll-interval-ms=3600000",
+        "devcollab.timer-sync.beacon-interval-ms=3600000",
+        "spring.datasource.url=jdbc:h2:mem:timer-sync-jdbc-test"
+    })
+    class JdbcTransport {
+
+        @Autowired
+        private BoardRepository boardRepository;
+
+        @Autowired
+        private ProjectRepository projectRepository;
+
+        @Autowired
+        private TimerStateService timerStateService;
+
+        @Autowired
+        private ClusterEventRepository clusterEventRepository;
+
+        @Autowired
+        private DomainEventBus eventBus;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @Test
+        void committedTransitionsReachTheSharedTable() {
+            Board board = new Board();
+            board.setName("Timers");
+            board = boardRepository.save(board);
+            Project project = new Project();
+            project.setName("Focus");
+            project.setBoard(board);
+            project.setBoardColumn(board.getColumns().get(0));
+            long projectId = projectRepository.save(project).getId();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            long before = clusterEventRepository.count();
+
+            transaction.executeWithoutResult(status ->
+                assertTrue(timerStateService.start(TimerStateService.Kind.PROJECT, projectId)));
+            assertEquals(before + 1, clusterEventRepository.count());
+
+            // A rolled back transition is not sent
+            transaction.executeWithoutResult(status -> {
+                assertTrue(timerStateService.stop(TimerStateService.Kind.PROJECT, projectId));
+                status.setRollbackOnly();
+            });
+            assertEquals(before + 1, clusterEventRepository.count());
+
+            assertTrue(assertInstanceOf(JdbcDomainEventBus.class, eventBus).poll() >= 1);
+        }
+    }
+}
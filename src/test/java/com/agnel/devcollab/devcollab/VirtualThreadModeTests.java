@@ -0,0 +1,55 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.config.DatabasePermits;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * With the virtual profile requests and STOMP messages run on virtual threads, and
+ * every request holds one of the database permits only while it runs. By default
+ * there are fewer permits than pooled connections.
+ */
+@SpringBootTest(properties = "devcollab.threads.db-permits=3")
+@ActiveProfiles("virtual")
+@AutoConfigureMockMvc
+class VirtualThreadModeTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabasePermits databasePermits;
+
+    @Autowired
+    @Qualifier("clientInboundChannel")
+    private ExecutorSubscribableChannel clientInboundChannel;
+
+    @Test
+    void requestsTakeAndReturnPermits() throws Exception {
+        assertEquals(3, databasePermits.availablePermits());
+        assertEquals(200, mockMvc.perform(get("/api/projects")).andReturn().getResponse().getStatus());
+        assertEquals(3, databasePermits.availablePermits());
+
+        assertTrue(clientInboundChannel.getInterceptors().contains(databasePermits));
+        Thread worker = CompletableFuture.supplyAsync(Thread::currentThread, clientInboundChannel.getExecutor()).get();
+        assertTrue(worker.isVirtual());
+    }
+
+    @Test
+    void defaultPermitsLeaveHeadroomInThePool() {
+        // Every holder can take a nested connection while the pollers hold theirs
+        assertEquals(8, new DatabasePermits(20, 4, 0, 1000).availablePermits());
+        assertEquals(1, new DatabasePermits(4, 4, 0, 1000).availablePermits());
+    }
+}
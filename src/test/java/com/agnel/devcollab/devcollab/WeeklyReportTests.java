@@ -0,0 +1,198 @@
+package com.agnel.devcollab.devcollab;
+
+import com.agnel.devcollab.entity.Board;
+import com.agnel.devcollab.entity.DailyFocusRollup;
+import com.agnel.devcollab.entity.PomodoroLog;
+import com.agnel.devcollab.entity.Project;
+import com.agnel.devcollab.entity.Subtask;
+import com.agnel.devcollab.entity.Task;
+import com.agnel.devcollab.entity.User;
+import com.agnel.devcollab.repository.BoardRepository;
+import com.agnel.devcollab.repository.DailyFocusRollupRepository;
+import com.agnel.devcollab.repository.PomodoroLogRepository;
+import com.agnel.devcollab.repository.ProjectRepository;
+import com.agnel.devcollab.repository.SubtaskRepository;
+import com.agnel.devcollab.repository.TaskRepository;
+import com.agnel.devcollab.repository.UserRepository;
+import com.agnel.devcollab.service.DailyFocusRollupService;
+import com.agnel.devcollab.service.PomodoroService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The weekly report read from daily rollups gives the same figures as counting the raw
+ * PomodoroLogs: abandoned sessions count towards the total and the average distractions,
+ * both when the rollups are kept up as sessions run and after a rebuild from history.
+ * The efficiency score aggregated in the database over a range agrees with the raw
+ * logs and with the report's. Rows for time without a project stay unique per user and day.
+ */
+@SpringBootTest(properties = {
+    "devcollab.outbox.dispatch=false",
+    "spring.datasource.url=jdbc:h2:mem:weekly-report-test"
+})
+class WeeklyReportTests {
+
+    @Autowired
+    private PomodoroService pomodoroService;
+
+    @Autowired
+    private DailyFocusRollupService dailyFocusRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Autowired
+    private PomodoroLogRepository pomodoroLogRepository;
+
+    @Autowired
+    private DailyFocusRollupRepository dailyFocusRollupRepository;
+
+    @Test
+    void reportMatchesRawLogs() {
+        User user = new User();
+        user.setName("Reporter");
+        user.setEmail("reporter@example.com");
+        user.setPassword("secret");
+        User reporter = userRepository.save(user);
+        Subtask subtask = subtask();
+
+        // Live: one session paused twice and completed with three distractions, one paused and abandoned
+        PomodoroLog done = pomodoroService.startPomodoroOnSubtask(subtask, reporter);
+        pomodoroService.pauseWithReason(done.getId(), "call");
+        pomodoroService.pauseWithReason(done.getId(), "chat");
+        pomodoroService.completeCycle(done.getId(), 3, "");
+        PomodoroLog abandoned = pomodoroService.startPomodoroOnSubtask(subtask, reporter);
+        pomodoroService.pauseWithReason(abandoned.getId(), "meeting");
+
+        Map<String, Object> live = pomodoroService.generateWeeklyReport(reporter.getId());
+        assertEquals(2L, live.get("totalPomodoros"));
+        assertEquals(1L, live.get("completedPomodoros"));
+        assertEquals(2.0, live.get("averageDistractions"));
+        assertReportMatchesLogs(reporter.getId(), live);
+
+        // History: yesterday's sessions only reach the rollups through the backfill
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(9, 0);
+        history(reporter, subtask, yesterday, 25, true, 1);
+        history(reporter, subtask, yesterday.plusHours(1), 25, true, 0);
+        history(reporter, subtask, yesterday.plusHours(2), 10, false, 4);
+        dailyFocusRollupService.rebuild();
+
+        Map<String, Object> rebuilt = pomodoroService.generateWeeklyReport(reporter.getId());
+        assertEquals(5L, rebuilt.get("totalPomodoros"));
+        assertEquals(3L, rebuilt.get("completedPomodoros"));
+        assertEquals(50L, rebuilt.get("totalMinutes"));
+        assertReportMatchesLogs(reporter.getId(), rebuilt);
+    }
+
+    @Test
+    void efficiencyScoreIsAggregatedOverTheRange() {
+        User user = new User();
+        user.setName("Scorer");
+        user.setEmail("scorer@example.com");
+        user.setPassword("secret");
+        User scorer = userRepository.save(user);
+        Subtask subtask = subtask();
+        LocalDateTime from = LocalDate.now().minusDays(6).atStartOfDay();
+        LocalDateTime to = LocalDate.now().plusDays(1).atStartOfDay();
+        assertEquals(0.0, pomodoroService.calculateEfficiencyScore(scorer.getId(), from, to));
+
+        // Two of three sessions completed, five distractions between them; one more before the range
+        LocalDateTime twoDaysAgo = LocalDate.now().minusDays(2).atTime(9, 0);
+        history(scorer, subtask, twoDaysAgo, 25, true, 1);
+        history(scorer, subtask, twoDaysAgo.plusHours(1), 25, true, 0);
+        history(scorer, subtask, twoDaysAgo.plusHours(2), 10, false, 4);
+        history(scorer, subtask, LocalDate.now().minusDays(10).atTime(9, 0), 25, false, 9);
+
+        double score = pomodoroService.calculateEfficiencyScore(scorer.getId(), from, to);
+        // 40% completion rate, 30 points less 5 per average distraction, 30 for estimates
+        assertEquals(40 * 2 / 3.0 + (30 - 5 * (5 / 3.0)) + 30, score, 1e-9);
+
+        dailyFocusRollupService.rebuild();
+        assertEquals(score, (double) pomodoroService.generateWeeklyReport(scorer.getId()).get("efficiencyScore"), 1e-9);
+    }
+
+    @Test
+    void rowsWithoutProjectAreUnique() {
+        User user = new User();
+        user.setName("Loner");
+        user.setEmail("loner@example.com");
+        user.setPassword("secret");
+        Long userId = userRepository.save(user).getId();
+        LocalDate today = LocalDate.now();
+
+        DailyFocusRollup first = dailyFocusRollupRepository.save(new DailyFocusRollup(userId, null, today));
+        assertNull(first.getProjectId());
+        // A NULL project_id would compare as distinct and let this second row in
+        assertThrows(DataIntegrityViolationException.class,
+            () -> dailyFocusRollupRepository.save(new DailyFocusRollup(userId, null, today)));
+        assertEquals(1, dailyFocusRollupService.findForUser(userId, today, today).size());
+    }
+
+    // The figures the report used to compute from every log in the range
+    private void assertReportMatchesLogs(Long userId, Map<String, Object> report) {
+        LocalDateTime from = LocalDate.now().minusDays(6).atStartOfDay();
+        List<PomodoroLog> logs = pomodoroLogRepository.findByUserId(userId).stream()
+            .filter(log -> !log.getStartTime().isBefore(from))
+            .toList();
+        assertEquals((long) logs.size(), report.get("totalPomodoros"));
+        assertEquals(logs.stream().filter(PomodoroLog::isCompleted).count(), report.get("completedPomodoros"));
+        assertEquals(logs.stream().filter(PomodoroLog::isCompleted).mapToLong(PomodoroLog::getDurationMinutes).sum(),
+            report.get("totalMinutes"));
+        assertEquals(logs.stream().mapToInt(PomodoroLog::getDistractions).average().orElse(0.0),
+            (double) report.get("averageDistractions"), 1e-9);
+        assertEquals(logs.stream().collect(Collectors.groupingBy(
+                log -> log.getStartTime().toLocalDate().toString(), Collectors.counting())),
+            report.get("dailyBreakdown"));
+    }
+
+    private void history(User user, Subtask subtask, LocalDateTime start, int minutes, boolean completed, int distractions) {
+        PomodoroLog log = new PomodoroLog(subtask, user);
+        log.setStartTime(start);
+        log.setEndTime(start.plusMinutes(minutes));
+        log.setCompleted(completed);
+        log.setCycleNumber(1);
+        log.setDistractions(distractions);
+        pomodoroLogRepository.save(log);
+    }
+
+    private Subtask subtask() {
+        Board board = new Board();
+        board.setName("Report");
+        board = boardRepository.save(board);
+        Project project = new Project();
+        project.setName("Focus");
+        project.setBoard(board);
+        project.setBoardColumn(board.getColumns().get(0));
+        project = projectRepository.save(project);
+        Task task = new Task();
+        task.setName("Focus");
+        task.setProject(project);
+        task = taskRepository.save(task);
+        Subtask subtask = new Subtask();
+        subtask.setName("Focus");
+        subtask.setTask(task);
+        return subtaskRepository.save(subtask);
+    }
+}